@@ -0,0 +1,57 @@
+package com.kenshoo.swagger.validator.gradle;
+
+import org.gradle.api.Action;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+
+/**
+ * Adds the validateSwagger task, validating src/main/resources/swagger.yaml against the runtime classpath
+ * of the main source set. The check task depends on it.
+ *
+ * The validator is resolved from the swaggerValidator configuration, com.kenshoo:swagger-validator by default.
+ */
+public class SwaggerValidatorPlugin implements Plugin<Project> {
+
+    public static final String TASK_NAME = "validateSwagger";
+    public static final String CONFIGURATION_NAME = "swaggerValidator";
+
+    /**
+     * Version of the validator used when the swaggerValidator configuration is empty.
+     * The worker needs the incremental validator and the bytecode introspector, which 1.0 doesn't have.
+     */
+    static final String VALIDATOR_VERSION = "1.1";
+
+    @Override
+    public void apply(final Project project) {
+        final Configuration validator = project.getConfigurations().create(CONFIGURATION_NAME);
+        validator.setVisible(false);
+        validator.setDescription("The swagger-validator library used by the " + TASK_NAME + " task.");
+        validator.defaultDependencies(new Action<DependencySet>() {
+            @Override
+            public void execute(DependencySet dependencies) {
+                dependencies.add(project.getDependencies().create("com.kenshoo:swagger-validator:" + VALIDATOR_VERSION));
+            }
+        });
+
+        final ValidateSwaggerTask task = project.getTasks().create(TASK_NAME, ValidateSwaggerTask.class);
+        task.setGroup("verification");
+        task.setDescription("Validates swagger.yaml against the classes.");
+        task.getValidatorClasspath().from(validator);
+        task.getReport().set(project.getLayout().getBuildDirectory().file("reports/swagger/" + TASK_NAME + ".txt"));
+
+        project.getPlugins().withType(JavaPlugin.class, new Action<JavaPlugin>() {
+            @Override
+            public void execute(JavaPlugin javaPlugin) {
+                SourceSet main = project.getExtensions().getByType(SourceSetContainer.class).getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+                task.getSpec().convention(project.getLayout().getProjectDirectory().file("src/main/resources/swagger.yaml"));
+                task.getClasspath().from(main.getRuntimeClasspath());
+                project.getTasks().getByName("check").dependsOn(task);
+            }
+        });
+    }
+}
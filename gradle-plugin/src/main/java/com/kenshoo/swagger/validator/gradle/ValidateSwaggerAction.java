@@ -0,0 +1,71 @@
+package com.kenshoo.swagger.validator.gradle;
+
+import com.kenshoo.swagger.validator.BytecodeClassIntrospector;
+import com.kenshoo.swagger.validator.ClassIntrospector;
+import com.kenshoo.swagger.validator.IncrementalSwaggerValidator;
+import com.kenshoo.swagger.validator.SwaggerValidatorConf;
+import com.kenshoo.swagger.validator.ValidationReport;
+import org.gradle.workers.WorkAction;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs in the worker process, the classpath of the validator.
+ *
+ * The worker process outlives the build, so the project classes are read by a new class loader on each execution
+ * and introspected from their class files, the same way as SwaggerWatcher reads them.
+ */
+public abstract class ValidateSwaggerAction implements WorkAction<ValidateSwaggerParameters> {
+
+    @Override
+    public void execute() {
+        File spec = getParameters().getSpec().get().getAsFile();
+        File report = getParameters().getReport().get().getAsFile();
+        ValidationReport validationReport;
+        try {
+            try (URLClassLoader classLoader = new URLClassLoader(toUrls(getParameters().getClasspath()), getClass().getClassLoader());
+                 InputStream is = new BufferedInputStream(new FileInputStream(spec))) {
+                final ClassIntrospector introspector = new BytecodeClassIntrospector(classLoader);
+                SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+                    @Override
+                    public ClassIntrospector getClassIntrospector() {
+                        return introspector;
+                    }
+                };
+                validationReport = new IncrementalSwaggerValidator(is, conf, getParameters().getIndex().get().getAsFile(),
+                        classLoader).validateAll();
+            }
+            report.getParentFile().mkdirs();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(report), StandardCharsets.UTF_8)) {
+                writer.write(validationReport.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (validationReport.hasErrors()) {
+            // the exception is passed to the build, so it must not be of a validator class
+            throw new IllegalStateException(spec + " is not valid, see " + report + System.lineSeparator() + validationReport);
+        }
+    }
+
+    private static URL[] toUrls(Iterable<File> files) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        for (File file : files) {
+            urls.add(file.toURI().toURL());
+        }
+        return urls.toArray(new URL[urls.size()]);
+    }
+}
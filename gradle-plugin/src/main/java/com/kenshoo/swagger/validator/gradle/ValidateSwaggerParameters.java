@@ -0,0 +1,22 @@
+package com.kenshoo.swagger.validator.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.workers.WorkParameters;
+
+public interface ValidateSwaggerParameters extends WorkParameters {
+
+    RegularFileProperty getSpec();
+
+    RegularFileProperty getReport();
+
+    /**
+     * Classes referenced by x-javaClass and their dependencies, read by a new class loader on each execution
+     */
+    ConfigurableFileCollection getClasspath();
+
+    /**
+     * Index file of IncrementalSwaggerValidator, kept between the runs
+     */
+    RegularFileProperty getIndex();
+}
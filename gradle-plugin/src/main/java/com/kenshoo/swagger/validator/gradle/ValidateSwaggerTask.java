@@ -0,0 +1,80 @@
+package com.kenshoo.swagger.validator.gradle;
+
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.ProcessWorkerSpec;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+
+/**
+ * Validates a swagger.yaml against the classes of the classpath, failing on errors.
+ *
+ * The task is up to date, or restored from the build cache, as long as the spec and the classpath don't change.
+ * Otherwise the validation runs in a worker process whose classpath is the validator, so the project classes are
+ * never loaded by the build. Gradle keeps the worker process alive between the builds of a daemon, so the project
+ * classes are read by a new class loader on each execution, which sees the classes of the current build.
+ * The results of the entries are kept in the temporary directory of the task, so only the definitions and paths
+ * affected by a change are validated again.
+ */
+@CacheableTask
+public abstract class ValidateSwaggerTask extends DefaultTask {
+
+    /**
+     * The swagger.yaml file
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getSpec();
+
+    /**
+     * Classes referenced by x-javaClass and their dependencies
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getClasspath();
+
+    /**
+     * The swagger-validator library and its dependencies
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getValidatorClasspath();
+
+    /**
+     * All the errors and warnings of the last validation
+     */
+    @OutputFile
+    public abstract RegularFileProperty getReport();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    @TaskAction
+    public void validate() {
+        final File index = new File(getTemporaryDir(), "validation.index");
+        getWorkerExecutor().processIsolation(new Action<ProcessWorkerSpec>() {
+            @Override
+            public void execute(ProcessWorkerSpec spec) {
+                spec.getClasspath().from(getValidatorClasspath());
+            }
+        }).submit(ValidateSwaggerAction.class, new Action<ValidateSwaggerParameters>() {
+            @Override
+            public void execute(ValidateSwaggerParameters parameters) {
+                parameters.getSpec().set(getSpec());
+                parameters.getReport().set(getReport());
+                parameters.getClasspath().from(getClasspath());
+                parameters.getIndex().set(index);
+            }
+        });
+        getWorkerExecutor().await();
+    }
+}
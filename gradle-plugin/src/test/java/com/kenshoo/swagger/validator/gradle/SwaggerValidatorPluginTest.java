@@ -0,0 +1,108 @@
+package com.kenshoo.swagger.validator.gradle;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the validateSwagger task in a test project, with the library of this repository as the swaggerValidator configuration
+ */
+public class SwaggerValidatorPluginTest {
+
+    private static final String SPEC =
+            "swagger: '2.0'\n" +
+            "info:\n" +
+            "  version: '1'\n" +
+            "  title: Test\n" +
+            "paths: {}\n" +
+            "definitions:\n" +
+            "  model:\n" +
+            "    x-javaClass: demo.Model\n" +
+            "    properties:\n" +
+            "      name:\n" +
+            "        type: string\n";
+
+    @Rule
+    public final TemporaryFolder projectDir = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        StringBuilder validatorFiles = new StringBuilder();
+        for (String path : System.getProperty("swaggerValidator.classpath").split(File.pathSeparator)) {
+            validatorFiles.append(validatorFiles.length() == 0 ? "" : ", ").append('\'').append(path.replace('\\', '/')).append('\'');
+        }
+        write("settings.gradle", "rootProject.name = 'demo'\n");
+        write("build.gradle",
+                "plugins {\n" +
+                "    id 'java'\n" +
+                "    id 'com.kenshoo.swagger-validator'\n" +
+                "}\n" +
+                "dependencies {\n" +
+                "    swaggerValidator files(" + validatorFiles + ")\n" +
+                "}\n");
+        writeModel("name");
+        write("src/main/resources/swagger.yaml", SPEC);
+    }
+
+    @Test
+    public void testValidSpec() throws IOException {
+        BuildResult result = run().build();
+        assertEquals(TaskOutcome.SUCCESS, result.task(":validateSwagger").getOutcome());
+        assertTrue(new File(projectDir.getRoot(), "build/reports/swagger/validateSwagger.txt").isFile());
+
+        assertEquals(TaskOutcome.UP_TO_DATE, run().build().task(":validateSwagger").getOutcome());
+    }
+
+    @Test
+    public void testChangedClassIsValidatedAgain() throws IOException {
+        assertEquals(TaskOutcome.SUCCESS, run().build().task(":validateSwagger").getOutcome());
+
+        writeModel("title");
+        BuildResult result = run().buildAndFail();
+        assertEquals(TaskOutcome.FAILED, result.task(":validateSwagger").getOutcome());
+        assertTrue(result.getOutput(), result.getOutput().contains("swagger.yaml is not valid"));
+    }
+
+    @Test
+    public void testDefaultValidatorIsLibraryVersion() {
+        assertEquals(System.getProperty("swaggerValidator.version"), SwaggerValidatorPlugin.VALIDATOR_VERSION);
+    }
+
+    private GradleRunner run() {
+        return GradleRunner.create()
+                .withProjectDir(projectDir.getRoot())
+                .withArguments("check")
+                .withPluginClasspath();
+    }
+
+    private void writeModel(String property) throws IOException {
+        write("src/main/java/demo/Model.java",
+                "package demo;\n" +
+                "\n" +
+                "public class Model {\n" +
+                "    private String " + property + ";\n" +
+                "\n" +
+                "    public String get" + Character.toUpperCase(property.charAt(0)) + property.substring(1) + "() {\n" +
+                "        return " + property + ";\n" +
+                "    }\n" +
+                "}\n");
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(projectDir.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
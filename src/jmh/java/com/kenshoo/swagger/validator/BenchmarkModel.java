@@ -0,0 +1,79 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.List;
+
+/**
+ * POJO with many properties, used by the generated benchmark documents.
+ * Property pN is of type String, List, BenchmarkRefModel and Integer for N % 4 equal to 0, 1, 2 and 3 respectively.
+ * The subclasses are distinct classes with the same properties, so that the definitions don't all share one class.
+ */
+public class BenchmarkModel {
+
+    public static final int PROPERTIES = 32;
+
+    private static final Class<?>[] CLASSES = {M0.class, M1.class, M2.class, M3.class, M4.class, M5.class, M6.class, M7.class};
+
+    private String p0;
+    private List<String> p1;
+    private BenchmarkRefModel p2;
+    private Integer p3;
+    private String p4;
+    private List<String> p5;
+    private BenchmarkRefModel p6;
+    private Integer p7;
+    private String p8;
+    private List<String> p9;
+    private BenchmarkRefModel p10;
+    private Integer p11;
+    private String p12;
+    private List<String> p13;
+    private BenchmarkRefModel p14;
+    private Integer p15;
+    private String p16;
+    private List<String> p17;
+    private BenchmarkRefModel p18;
+    private Integer p19;
+    private String p20;
+    private List<String> p21;
+    private BenchmarkRefModel p22;
+    private Integer p23;
+    private String p24;
+    private List<String> p25;
+    private BenchmarkRefModel p26;
+    private Integer p27;
+    private String p28;
+    private List<String> p29;
+    private BenchmarkRefModel p30;
+    private Integer p31;
+
+    /**
+     * The class of the definition with the given index, one of CLASSES.length distinct classes
+     */
+    static Class<?> modelClass(int index) {
+        return CLASSES[index % CLASSES.length];
+    }
+
+    public static class M0 extends BenchmarkModel {
+    }
+
+    public static class M1 extends BenchmarkModel {
+    }
+
+    public static class M2 extends BenchmarkModel {
+    }
+
+    public static class M3 extends BenchmarkModel {
+    }
+
+    public static class M4 extends BenchmarkModel {
+    }
+
+    public static class M5 extends BenchmarkModel {
+    }
+
+    public static class M6 extends BenchmarkModel {
+    }
+
+    public static class M7 extends BenchmarkModel {
+    }
+}
@@ -0,0 +1,9 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * POJO referenced by BenchmarkModel.
+ */
+public class BenchmarkRefModel {
+
+    private String name;
+}
@@ -0,0 +1,782 @@
+package com.kenshoo.swagger.validator;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+
+/**
+ * Resource with many sub-resource methods, used by the generated benchmark documents.
+ */
+@Path("/bench")
+public class BenchmarkResource {
+
+    public static final int PATHS = 64;
+
+    @GET
+    @Path("/m0")
+    public BenchmarkModel getM0() {
+        return null;
+    }
+
+    @POST
+    @Path("/m0")
+    public BenchmarkModel postM0(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m1")
+    public BenchmarkModel getM1() {
+        return null;
+    }
+
+    @POST
+    @Path("/m1")
+    public BenchmarkModel postM1(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m2")
+    public BenchmarkModel getM2() {
+        return null;
+    }
+
+    @POST
+    @Path("/m2")
+    public BenchmarkModel postM2(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m3")
+    public BenchmarkModel getM3() {
+        return null;
+    }
+
+    @POST
+    @Path("/m3")
+    public BenchmarkModel postM3(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m4")
+    public BenchmarkModel getM4() {
+        return null;
+    }
+
+    @POST
+    @Path("/m4")
+    public BenchmarkModel postM4(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m5")
+    public BenchmarkModel getM5() {
+        return null;
+    }
+
+    @POST
+    @Path("/m5")
+    public BenchmarkModel postM5(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m6")
+    public BenchmarkModel getM6() {
+        return null;
+    }
+
+    @POST
+    @Path("/m6")
+    public BenchmarkModel postM6(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m7")
+    public BenchmarkModel getM7() {
+        return null;
+    }
+
+    @POST
+    @Path("/m7")
+    public BenchmarkModel postM7(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m8")
+    public BenchmarkModel getM8() {
+        return null;
+    }
+
+    @POST
+    @Path("/m8")
+    public BenchmarkModel postM8(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m9")
+    public BenchmarkModel getM9() {
+        return null;
+    }
+
+    @POST
+    @Path("/m9")
+    public BenchmarkModel postM9(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m10")
+    public BenchmarkModel getM10() {
+        return null;
+    }
+
+    @POST
+    @Path("/m10")
+    public BenchmarkModel postM10(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m11")
+    public BenchmarkModel getM11() {
+        return null;
+    }
+
+    @POST
+    @Path("/m11")
+    public BenchmarkModel postM11(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m12")
+    public BenchmarkModel getM12() {
+        return null;
+    }
+
+    @POST
+    @Path("/m12")
+    public BenchmarkModel postM12(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m13")
+    public BenchmarkModel getM13() {
+        return null;
+    }
+
+    @POST
+    @Path("/m13")
+    public BenchmarkModel postM13(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m14")
+    public BenchmarkModel getM14() {
+        return null;
+    }
+
+    @POST
+    @Path("/m14")
+    public BenchmarkModel postM14(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m15")
+    public BenchmarkModel getM15() {
+        return null;
+    }
+
+    @POST
+    @Path("/m15")
+    public BenchmarkModel postM15(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m16")
+    public BenchmarkModel getM16() {
+        return null;
+    }
+
+    @POST
+    @Path("/m16")
+    public BenchmarkModel postM16(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m17")
+    public BenchmarkModel getM17() {
+        return null;
+    }
+
+    @POST
+    @Path("/m17")
+    public BenchmarkModel postM17(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m18")
+    public BenchmarkModel getM18() {
+        return null;
+    }
+
+    @POST
+    @Path("/m18")
+    public BenchmarkModel postM18(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m19")
+    public BenchmarkModel getM19() {
+        return null;
+    }
+
+    @POST
+    @Path("/m19")
+    public BenchmarkModel postM19(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m20")
+    public BenchmarkModel getM20() {
+        return null;
+    }
+
+    @POST
+    @Path("/m20")
+    public BenchmarkModel postM20(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m21")
+    public BenchmarkModel getM21() {
+        return null;
+    }
+
+    @POST
+    @Path("/m21")
+    public BenchmarkModel postM21(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m22")
+    public BenchmarkModel getM22() {
+        return null;
+    }
+
+    @POST
+    @Path("/m22")
+    public BenchmarkModel postM22(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m23")
+    public BenchmarkModel getM23() {
+        return null;
+    }
+
+    @POST
+    @Path("/m23")
+    public BenchmarkModel postM23(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m24")
+    public BenchmarkModel getM24() {
+        return null;
+    }
+
+    @POST
+    @Path("/m24")
+    public BenchmarkModel postM24(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m25")
+    public BenchmarkModel getM25() {
+        return null;
+    }
+
+    @POST
+    @Path("/m25")
+    public BenchmarkModel postM25(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m26")
+    public BenchmarkModel getM26() {
+        return null;
+    }
+
+    @POST
+    @Path("/m26")
+    public BenchmarkModel postM26(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m27")
+    public BenchmarkModel getM27() {
+        return null;
+    }
+
+    @POST
+    @Path("/m27")
+    public BenchmarkModel postM27(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m28")
+    public BenchmarkModel getM28() {
+        return null;
+    }
+
+    @POST
+    @Path("/m28")
+    public BenchmarkModel postM28(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m29")
+    public BenchmarkModel getM29() {
+        return null;
+    }
+
+    @POST
+    @Path("/m29")
+    public BenchmarkModel postM29(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m30")
+    public BenchmarkModel getM30() {
+        return null;
+    }
+
+    @POST
+    @Path("/m30")
+    public BenchmarkModel postM30(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m31")
+    public BenchmarkModel getM31() {
+        return null;
+    }
+
+    @POST
+    @Path("/m31")
+    public BenchmarkModel postM31(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m32")
+    public BenchmarkModel getM32() {
+        return null;
+    }
+
+    @POST
+    @Path("/m32")
+    public BenchmarkModel postM32(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m33")
+    public BenchmarkModel getM33() {
+        return null;
+    }
+
+    @POST
+    @Path("/m33")
+    public BenchmarkModel postM33(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m34")
+    public BenchmarkModel getM34() {
+        return null;
+    }
+
+    @POST
+    @Path("/m34")
+    public BenchmarkModel postM34(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m35")
+    public BenchmarkModel getM35() {
+        return null;
+    }
+
+    @POST
+    @Path("/m35")
+    public BenchmarkModel postM35(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m36")
+    public BenchmarkModel getM36() {
+        return null;
+    }
+
+    @POST
+    @Path("/m36")
+    public BenchmarkModel postM36(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m37")
+    public BenchmarkModel getM37() {
+        return null;
+    }
+
+    @POST
+    @Path("/m37")
+    public BenchmarkModel postM37(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m38")
+    public BenchmarkModel getM38() {
+        return null;
+    }
+
+    @POST
+    @Path("/m38")
+    public BenchmarkModel postM38(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m39")
+    public BenchmarkModel getM39() {
+        return null;
+    }
+
+    @POST
+    @Path("/m39")
+    public BenchmarkModel postM39(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m40")
+    public BenchmarkModel getM40() {
+        return null;
+    }
+
+    @POST
+    @Path("/m40")
+    public BenchmarkModel postM40(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m41")
+    public BenchmarkModel getM41() {
+        return null;
+    }
+
+    @POST
+    @Path("/m41")
+    public BenchmarkModel postM41(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m42")
+    public BenchmarkModel getM42() {
+        return null;
+    }
+
+    @POST
+    @Path("/m42")
+    public BenchmarkModel postM42(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m43")
+    public BenchmarkModel getM43() {
+        return null;
+    }
+
+    @POST
+    @Path("/m43")
+    public BenchmarkModel postM43(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m44")
+    public BenchmarkModel getM44() {
+        return null;
+    }
+
+    @POST
+    @Path("/m44")
+    public BenchmarkModel postM44(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m45")
+    public BenchmarkModel getM45() {
+        return null;
+    }
+
+    @POST
+    @Path("/m45")
+    public BenchmarkModel postM45(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m46")
+    public BenchmarkModel getM46() {
+        return null;
+    }
+
+    @POST
+    @Path("/m46")
+    public BenchmarkModel postM46(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m47")
+    public BenchmarkModel getM47() {
+        return null;
+    }
+
+    @POST
+    @Path("/m47")
+    public BenchmarkModel postM47(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m48")
+    public BenchmarkModel getM48() {
+        return null;
+    }
+
+    @POST
+    @Path("/m48")
+    public BenchmarkModel postM48(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m49")
+    public BenchmarkModel getM49() {
+        return null;
+    }
+
+    @POST
+    @Path("/m49")
+    public BenchmarkModel postM49(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m50")
+    public BenchmarkModel getM50() {
+        return null;
+    }
+
+    @POST
+    @Path("/m50")
+    public BenchmarkModel postM50(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m51")
+    public BenchmarkModel getM51() {
+        return null;
+    }
+
+    @POST
+    @Path("/m51")
+    public BenchmarkModel postM51(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m52")
+    public BenchmarkModel getM52() {
+        return null;
+    }
+
+    @POST
+    @Path("/m52")
+    public BenchmarkModel postM52(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m53")
+    public BenchmarkModel getM53() {
+        return null;
+    }
+
+    @POST
+    @Path("/m53")
+    public BenchmarkModel postM53(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m54")
+    public BenchmarkModel getM54() {
+        return null;
+    }
+
+    @POST
+    @Path("/m54")
+    public BenchmarkModel postM54(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m55")
+    public BenchmarkModel getM55() {
+        return null;
+    }
+
+    @POST
+    @Path("/m55")
+    public BenchmarkModel postM55(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m56")
+    public BenchmarkModel getM56() {
+        return null;
+    }
+
+    @POST
+    @Path("/m56")
+    public BenchmarkModel postM56(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m57")
+    public BenchmarkModel getM57() {
+        return null;
+    }
+
+    @POST
+    @Path("/m57")
+    public BenchmarkModel postM57(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m58")
+    public BenchmarkModel getM58() {
+        return null;
+    }
+
+    @POST
+    @Path("/m58")
+    public BenchmarkModel postM58(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m59")
+    public BenchmarkModel getM59() {
+        return null;
+    }
+
+    @POST
+    @Path("/m59")
+    public BenchmarkModel postM59(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m60")
+    public BenchmarkModel getM60() {
+        return null;
+    }
+
+    @POST
+    @Path("/m60")
+    public BenchmarkModel postM60(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m61")
+    public BenchmarkModel getM61() {
+        return null;
+    }
+
+    @POST
+    @Path("/m61")
+    public BenchmarkModel postM61(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m62")
+    public BenchmarkModel getM62() {
+        return null;
+    }
+
+    @POST
+    @Path("/m62")
+    public BenchmarkModel postM62(BenchmarkModel model) {
+        return model;
+    }
+
+    @GET
+    @Path("/m63")
+    public BenchmarkModel getM63() {
+        return null;
+    }
+
+    @POST
+    @Path("/m63")
+    public BenchmarkModel postM63(BenchmarkModel model) {
+        return model;
+    }
+}
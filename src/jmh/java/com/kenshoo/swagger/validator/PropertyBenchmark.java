@@ -0,0 +1,76 @@
+package com.kenshoo.swagger.validator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the individual validators, per property.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PropertyBenchmark {
+
+    private final Map<String, Object> stringProperty = Collections.<String, Object>singletonMap("type", "string");
+    private final Map<String, Object> integerProperty = Collections.<String, Object>singletonMap("type", "integer");
+
+    private SwaggerValidator swaggerValidator;
+    private Map<String, Object> definition;
+    private PropertyDescriptor propertyDescriptor;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> spec = SyntheticSpec.generate(1, BenchmarkModel.PROPERTIES, 0);
+        swaggerValidator = new SwaggerValidator(spec);
+        definition = (Map<String, Object>) ((Map<String, Object>) spec.get("definitions")).get("model0");
+        propertyDescriptor = new FieldPropertyDescriptor(BenchmarkModel.modelClass(0));
+    }
+
+    @Benchmark
+    public Class<?> fieldPropertyDescriptorGetType() {
+        return propertyDescriptor.getType("p31");
+    }
+
+    @Benchmark
+    public EntryDiagnostics typePropertyValidatorString() {
+        return validateType(stringProperty, "p0");
+    }
+
+    /**
+     * Reports 'Unrecommended type' warning
+     */
+    @Benchmark
+    public EntryDiagnostics typePropertyValidatorInteger() {
+        return validateType(integerProperty, "p3");
+    }
+
+    @Benchmark
+    public EntryDiagnostics definitionValidator() {
+        EntryDiagnostics diagnostics = new EntryDiagnostics(false);
+        new DefinitionValidator(swaggerValidator, "model0", definition, diagnostics).validate();
+        return diagnostics;
+    }
+
+    private EntryDiagnostics validateType(Map<String, Object> property, String propName) {
+        EntryDiagnostics diagnostics = new EntryDiagnostics(false);
+        DefinitionValidator definitionValidator = new DefinitionValidator(swaggerValidator, "model0", definition, diagnostics);
+        PropertyValidator propertyValidator = new PropertyValidator(definitionValidator, propName, property, propertyDescriptor);
+        new TypePropertyValidator(propertyValidator, property.get("type")).validate();
+        return diagnostics;
+    }
+}
@@ -0,0 +1,89 @@
+package com.kenshoo.swagger.validator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end and per-stage cost of validating a generated document.
+ *
+ * Diagnostics are collected into a report, so the results don't include printing to stdout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SpecBenchmark {
+
+    @Param("500")
+    public int definitions;
+
+    @Param("16")
+    public int properties;
+
+    @Param("64")
+    public int paths;
+
+    private String yamlText;
+    private byte[] yamlBytes;
+    private byte[] jsonBytes;
+    private Map<String, Object> yaml;
+
+    @Setup
+    public void setUp() {
+        yamlText = SyntheticSpec.generateYaml(definitions, properties, paths);
+        yamlBytes = yamlText.getBytes(StandardCharsets.UTF_8);
+        jsonBytes = SyntheticSpec.generateJson(definitions, properties, paths).getBytes(StandardCharsets.UTF_8);
+        yaml = (Map<String, Object>) new Yaml().load(yamlText);
+    }
+
+    @Benchmark
+    public Object loadYaml() {
+        return new Yaml().load(yamlText);
+    }
+
+    @Benchmark
+    public Object loadJson() {
+        return SpecReader.read(new ByteArrayInputStream(jsonBytes));
+    }
+
+    @Benchmark
+    public ValidationReport validateDefinitions() {
+        ValidationReport report = new ValidationReport();
+        new SwaggerValidator(yaml).validateDefinitions(report);
+        return report;
+    }
+
+    @Benchmark
+    public ValidationReport validateResources() {
+        ValidationReport report = new ValidationReport();
+        new SwaggerValidator(yaml).validateResources(report);
+        return report;
+    }
+
+    @Benchmark
+    public ValidationReport loadAndValidateAll() {
+        return new SwaggerValidator((Map<String, Object>) new Yaml().load(yamlText)).validateAll();
+    }
+
+    @Benchmark
+    public ValidationReport streamAndValidateAll() {
+        return new StreamingSwaggerValidator().validateAll(new ByteArrayInputStream(yamlBytes));
+    }
+}
@@ -0,0 +1,139 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.base.Preconditions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates valid swagger documents of a configurable size, matching the benchmark fixture classes.
+ */
+final class SyntheticSpec {
+
+    private SyntheticSpec() {
+    }
+
+    /**
+     * @param definitions number of definitions, mapped in turn to the subclasses of BenchmarkModel
+     * @param properties number of properties per definition, at most BenchmarkModel.PROPERTIES
+     * @param paths number of paths, all mapped to BenchmarkResource, at most BenchmarkResource.PATHS
+     */
+    static Map<String, Object> generate(int definitions, int properties, int paths) {
+        Preconditions.checkArgument(properties <= BenchmarkModel.PROPERTIES, "At most %s properties are supported", BenchmarkModel.PROPERTIES);
+        Preconditions.checkArgument(paths <= BenchmarkResource.PATHS, "At most %s paths are supported", BenchmarkResource.PATHS);
+
+        Map<String, Object> pathsMap = new LinkedHashMap<>();
+        for (int i = 0; i < paths; i++) {
+            Map<String, Object> resource = new LinkedHashMap<>();
+            resource.put("get", operation());
+            resource.put("post", operation());
+            resource.put(SwaggerValidator.JAVA_CLASS_TAG, BenchmarkResource.class.getName());
+            pathsMap.put("/bench/m" + i, resource);
+        }
+
+        Map<String, Object> definitionsMap = new LinkedHashMap<>();
+        Map<String, Object> refProperties = new LinkedHashMap<>();
+        refProperties.put("name", Collections.singletonMap("type", "string"));
+        definitionsMap.put("ref", definition(BenchmarkRefModel.class, refProperties));
+        for (int i = 0; i < definitions; i++) {
+            Map<String, Object> modelProperties = new LinkedHashMap<>();
+            for (int p = 0; p < properties; p++) {
+                modelProperties.put("p" + p, property(p));
+            }
+            definitionsMap.put("model" + i, definition(BenchmarkModel.modelClass(i), modelProperties));
+        }
+
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("swagger", "2.0");
+        spec.put("paths", pathsMap);
+        spec.put("definitions", definitionsMap);
+        return spec;
+    }
+
+    static String generateYaml(int definitions, int properties, int paths) {
+        return new Yaml().dump(generate(definitions, properties, paths));
+    }
+
+    /**
+     * Generates the same document as swagger.json
+     */
+    static String generateJson(int definitions, int properties, int paths) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+            writeJson(generator, generate(definitions, properties, paths));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private static void writeJson(JsonGenerator generator, Object value) throws IOException {
+        if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeJson(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object item : (List<?>) value) {
+                writeJson(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            generator.writeNumber(value.toString());
+        } else if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    /**
+     * See BenchmarkModel for the types of the properties
+     */
+    private static Map<String, Object> property(int index) {
+        Map<String, Object> property = new LinkedHashMap<>();
+        switch (index % 4) {
+            case 0:
+                property.put("type", "string");
+                break;
+            case 1:
+                property.put("type", "array");
+                property.put("items", Collections.singletonMap("type", "string"));
+                break;
+            case 2:
+                property.put("$ref", "#/definitions/ref");
+                break;
+            default:
+                property.put("type", "integer");
+        }
+        return property;
+    }
+
+    private static Map<String, Object> definition(Class<?> cls, Map<String, Object> properties) {
+        Map<String, Object> definition = new LinkedHashMap<>();
+        definition.put("properties", properties);
+        definition.put(SwaggerValidator.JAVA_CLASS_TAG, cls.getName());
+        return definition;
+    }
+
+    private static Map<String, Object> operation() {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("tags", Arrays.asList("bench"));
+        operation.put("responses", Collections.singletonMap("200",
+                Collections.singletonMap("schema", Collections.singletonMap("$ref", "#/definitions/model0"))));
+        return operation;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kenshoo.swagger.validator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined result of SwaggerBatchValidator: the report of each spec, or the failure of a spec that couldn't be validated
+ * (e.g. unreadable file or invalid yaml).
+ *
+ * Specs are kept in the order in which they were given to the batch validator.
+ */
+public final class BatchValidationReport {
+
+    private final Map<File, ValidationReport> reports = new LinkedHashMap<>();
+    private final Map<File, Exception> failures = new LinkedHashMap<>();
+    private final List<File> specs = new ArrayList<>();
+    private int deduplicatedEntries;
+
+    void add(File spec, ValidationReport report) {
+        specs.add(spec);
+        reports.put(spec, report);
+    }
+
+    void addFailure(File spec, Exception failure) {
+        specs.add(spec);
+        failures.put(spec, failure);
+    }
+
+    void setDeduplicatedEntries(int deduplicatedEntries) {
+        this.deduplicatedEntries = deduplicatedEntries;
+    }
+
+    public List<File> getSpecs() {
+        return Collections.unmodifiableList(specs);
+    }
+
+    /**
+     * Returns the report of the spec, or null if the spec failed to validate
+     */
+    public ValidationReport getReport(File spec) {
+        return reports.get(spec);
+    }
+
+    /**
+     * Returns the exception that stopped the validation of the spec, or null
+     */
+    public Exception getFailure(File spec) {
+        return failures.get(spec);
+    }
+
+    /**
+     * Returns true if any spec has errors or failed to validate
+     */
+    public boolean hasErrors() {
+        if (!failures.isEmpty()) {
+            return true;
+        }
+        for (ValidationReport report : reports.values()) {
+            if (report.hasErrors()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of definitions and paths that were not validated again, because an identical entry
+     * was already validated in another spec
+     */
+    public int getDeduplicatedEntries() {
+        return deduplicatedEntries;
+    }
+
+    /**
+     * Returns all messages grouped by spec, one per line
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (File spec : specs) {
+            sb.append(spec).append(":\n");
+            Exception failure = failures.get(spec);
+            if (failure != null) {
+                sb.append(Severity.ERROR).append(" Failed to validate: ").append(failure).append('\n');
+            } else {
+                sb.append(reports.get(spec));
+            }
+        }
+        return sb.toString();
+    }
+}
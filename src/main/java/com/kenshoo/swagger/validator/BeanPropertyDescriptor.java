@@ -0,0 +1,223 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the properties of a bean the way Jackson does: from the fields and from the getters and setters,
+ * renamed by @JsonProperty and excluded by @JsonIgnore or @JsonIgnoreProperties.
+ *
+ * Both com.fasterxml.jackson and org.codehaus.jackson annotations are recognized. They are matched by name,
+ * so Jackson is not required on the classpath. Unlike Jackson, fields are properties regardless of their visibility,
+ * same as with FieldPropertyDescriptor.
+ *
+ * Generic types are resolved against the bean class, e.g. a List&lt;T&gt; property of Page&lt;Foo&gt; has the element type Foo.
+ *
+ * The properties are introspected once per class, use forClass() to obtain the shared instance:
+ * <pre>
+ * SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+ *     public PropertyDescriptor createPropertyDescriptor(Class&lt;?&gt; cls) {
+ *         return BeanPropertyDescriptor.forClass(cls);
+ *     }
+ * };
+ * </pre>
+ *
+ * Immutable.
+ */
+public final class BeanPropertyDescriptor implements GenericPropertyDescriptor {
+
+    private static final Set<String> JSON_PROPERTY = ImmutableSet.of(
+            "com.fasterxml.jackson.annotation.JsonProperty", "org.codehaus.jackson.annotate.JsonProperty");
+    private static final Set<String> JSON_IGNORE = ImmutableSet.of(
+            "com.fasterxml.jackson.annotation.JsonIgnore", "org.codehaus.jackson.annotate.JsonIgnore");
+    private static final Set<String> JSON_IGNORE_PROPERTIES = ImmutableSet.of(
+            "com.fasterxml.jackson.annotation.JsonIgnoreProperties", "org.codehaus.jackson.annotate.JsonIgnoreProperties");
+
+    private static final LoadingCache<Class<?>, BeanPropertyDescriptor> descriptors = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build(new CacheLoader<Class<?>, BeanPropertyDescriptor>() {
+                @Override
+                public BeanPropertyDescriptor load(Class<?> cls) {
+                    return new BeanPropertyDescriptor(cls);
+                }
+            });
+
+    private final CharTable<Property> properties;
+
+    private BeanPropertyDescriptor(Class<?> cls) {
+        Map<TypeVariable, Type> typeVariables = GenericTypeResolver.getTypeVariableMap(cls);
+        Map<String, PropertyBuilder> builders = new LinkedHashMap<>();
+        for (Class<?> c = cls; c != null && !Object.class.equals(c); c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    builder(builders, field.getName()).field(field);
+                }
+            }
+        }
+        for (Method method : cls.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || Object.class.equals(method.getDeclaringClass())) {
+                continue;
+            }
+            String name = method.getName();
+            Class<?>[] parameters = method.getParameterTypes();
+            if (parameters.length == 0 && name.startsWith("get") && name.length() > 3 && !void.class.equals(method.getReturnType())) {
+                builder(builders, propertyName(name, 3)).getter(method);
+            } else if (parameters.length == 0 && name.startsWith("is") && name.length() > 2 && boolean.class.equals(method.getReturnType())) {
+                builder(builders, propertyName(name, 2)).getter(method);
+            } else if (parameters.length == 1 && name.startsWith("set") && name.length() > 3) {
+                builder(builders, propertyName(name, 3)).setter(method);
+            }
+        }
+
+        Set<String> ignored = ignoredProperties(cls);
+        Map<String, Property> table = new LinkedHashMap<>();
+        for (Map.Entry<String, PropertyBuilder> entry : builders.entrySet()) {
+            PropertyBuilder builder = entry.getValue();
+            String name = builder.explicitName != null ? builder.explicitName : entry.getKey();
+            if (builder.ignored && builder.explicitName == null || ignored.contains(name) || table.containsKey(name)) {
+                continue;
+            }
+            Type type = builder.field != null ? builder.field : builder.getter != null ? builder.getter : builder.setter;
+            table.put(name, new Property(ClassMetadata.resolveType(type, typeVariables), ClassMetadata.resolveElementType(type, typeVariables)));
+        }
+        this.properties = new CharTable<>(table);
+    }
+
+    /**
+     * Returns the shared descriptor of the class, introspecting the class on the first call.
+     */
+    public static BeanPropertyDescriptor forClass(Class<?> cls) {
+        return descriptors.getUnchecked(cls);
+    }
+
+    @Override
+    public Class<?> getType(String propName) {
+        Property property = properties.get(propName);
+        return property != null ? property.type : null;
+    }
+
+    @Override
+    public Class<?> getElementType(String propName) {
+        Property property = properties.get(propName);
+        return property != null ? property.elementType : null;
+    }
+
+    private static PropertyBuilder builder(Map<String, PropertyBuilder> builders, String name) {
+        PropertyBuilder builder = builders.get(name);
+        if (builder == null) {
+            builder = new PropertyBuilder();
+            builders.put(name, builder);
+        }
+        return builder;
+    }
+
+    /**
+     * Strips the accessor prefix and lower cases the leading upper case characters, e.g. getURL becomes url
+     */
+    private static String propertyName(String methodName, int prefixLength) {
+        char[] chars = methodName.substring(prefixLength).toCharArray();
+        for (int i = 0; i < chars.length && Character.isUpperCase(chars[i]); i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static Set<String> ignoredProperties(Class<?> cls) {
+        ImmutableSet.Builder<String> ignored = ImmutableSet.builder();
+        for (Class<?> c = cls; c != null && !Object.class.equals(c); c = c.getSuperclass()) {
+            Annotation annotation = findAnnotation(c, JSON_IGNORE_PROPERTIES);
+            if (annotation != null) {
+                Object value = AnnotationUtils.getValue(annotation);
+                if (value instanceof String[]) {
+                    ignored.addAll(Arrays.asList((String[]) value));
+                }
+            }
+        }
+        return ignored.build();
+    }
+
+    private static Annotation findAnnotation(AnnotatedElement element, Set<String> types) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (types.contains(annotation.annotationType().getName())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static final class Property {
+        private final Class<?> type;
+        private final Class<?> elementType;
+
+        private Property(Class<?> type, Class<?> elementType) {
+            this.type = type;
+            this.elementType = elementType;
+        }
+    }
+
+    /**
+     * Members of a single property, keyed by the name implied by the field or the accessors
+     */
+    private static final class PropertyBuilder {
+        private Type field;
+        private Type getter;
+        private Type setter;
+        private String explicitName;
+        private boolean ignored;
+
+        /**
+         * A field declared in a subclass hides the field with the same name in a superclass
+         */
+        private void field(Field declared) {
+            if (field == null) {
+                field = declared.getGenericType();
+                annotate(declared);
+            }
+        }
+
+        private void getter(Method method) {
+            if (getter == null) {
+                getter = method.getGenericReturnType();
+                annotate(method);
+            }
+        }
+
+        private void setter(Method method) {
+            if (setter == null) {
+                setter = method.getGenericParameterTypes()[0];
+                annotate(method);
+            }
+        }
+
+        private void annotate(AnnotatedElement element) {
+            Annotation jsonProperty = findAnnotation(element, JSON_PROPERTY);
+            if (jsonProperty != null) {
+                Object value = AnnotationUtils.getValue(jsonProperty);
+                if (value instanceof String && !((String) value).isEmpty() && explicitName == null) {
+                    explicitName = (String) value;
+                }
+            }
+            Annotation jsonIgnore = findAnnotation(element, JSON_IGNORE);
+            if (jsonIgnore != null && !Boolean.FALSE.equals(AnnotationUtils.getValue(jsonIgnore))) {
+                ignored = true;
+            }
+        }
+    }
+}
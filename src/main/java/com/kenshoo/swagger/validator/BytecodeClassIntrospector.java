@@ -0,0 +1,226 @@
+package com.kenshoo.swagger.validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Introspects the classes by reading their class files instead of loading them.
+ *
+ * The definition and resource classes are never loaded, so their static initializers don't run
+ * and their dependencies don't have to be on the class path. Only the types of the validated properties
+ * are loaded (without being initialized), since the type validators need them.
+ *
+ * Note that SwaggerValidatorConf.createPropertyDescriptor() is not used by this introspector.
+ * The properties are resolved the same way as FieldPropertyDescriptor resolves them.
+ *
+ * Each class file is read once per introspector instance. Thread safe.
+ */
+public class BytecodeClassIntrospector implements ClassIntrospector {
+
+    private static final String HTTP_METHOD = "javax.ws.rs.HttpMethod";
+    private static final String NO_HTTP_METHOD = "";
+    private static final Set<String> JSON_VALUE_ENUM = Collections.unmodifiableSet(new HashSet<String>());
+
+    private final ClassLoader classLoader;
+    private volatile ClassLoader typeLoader;
+    private final ValidationMetrics metrics;
+    private final ConcurrentMap<String, ClassFile> classFiles = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, BytecodeClassMetadata> metadata = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> httpMethods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> enumConstants = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the class files using the given class loader and reports the timings to the metrics.
+     */
+    public BytecodeClassIntrospector(ClassLoader classLoader, ValidationMetrics metrics) {
+        this.classLoader = classLoader;
+        this.typeLoader = classLoader;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the class files using the given class loader.
+     */
+    public BytecodeClassIntrospector(ClassLoader classLoader) {
+        this(classLoader, ValidationMetrics.NOOP);
+    }
+
+    /**
+     * Reads the class files using the class loader of the validator.
+     */
+    public BytecodeClassIntrospector() {
+        this(SwaggerValidator.class.getClassLoader());
+    }
+
+    @Override
+    public PropertyDescriptor createPropertyDescriptor(String className) throws ClassNotFoundException {
+        return getMetadata(className);
+    }
+
+    @Override
+    public ResourceDescriptor createResourceDescriptor(String className) throws ClassNotFoundException {
+        return getMetadata(className);
+    }
+
+    /**
+     * Drops the changed class files, so that they are read again on the next use.
+     * The metadata of all the classes is dropped, since it depends on the class files of the supertypes.
+     *
+     * @param classNames binary names of the changed classes
+     */
+    void invalidate(Collection<String> classNames) {
+        Set<String> changed = new HashSet<>();
+        for (String className : classNames) {
+            changed.add(className.replace('$', '.'));
+        }
+        for (String className : classFiles.keySet()) {
+            if (changed.contains(className.replace('$', '.'))) {
+                classFiles.remove(className);
+            }
+        }
+        metadata.clear();
+        httpMethods.clear();
+        enumConstants.clear();
+    }
+
+    /**
+     * Loads the types of the properties by the given class loader from now on, e.g. a new one after the classes
+     * changed, since a loaded class can't be reloaded. The class files are still read by the class loader of the introspector.
+     */
+    void setTypeLoader(ClassLoader typeLoader) {
+        this.typeLoader = typeLoader;
+        metadata.clear();
+    }
+
+    private BytecodeClassMetadata getMetadata(String className) throws ClassNotFoundException {
+        BytecodeClassMetadata classMetadata = metadata.get(className);
+        if (classMetadata == null) {
+            ClassFile classFile = getClassFile(className);
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            classMetadata = new BytecodeClassMetadata(this, classFile);
+            if (metrics.isEnabled()) {
+                // includes reading the class files of the supertypes
+                metrics.recordStage(ValidationMetrics.Stage.INTROSPECTION, System.nanoTime() - start);
+            }
+            metadata.putIfAbsent(className, classMetadata);
+        }
+        return classMetadata;
+    }
+
+    /**
+     * Returns the parsed class file. Nested classes may be given either by binary or by canonical name,
+     * same as ClassUtils.forName accepts them.
+     */
+    ClassFile getClassFile(String className) throws ClassNotFoundException {
+        ClassFile classFile = classFiles.get(className);
+        if (metrics.isEnabled()) {
+            metrics.recordCacheLookup(ValidationMetrics.Cache.CLASS_FILES, classFile != null);
+        }
+        if (classFile == null) {
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            classFile = readClassFile(className);
+            if (metrics.isEnabled()) {
+                metrics.recordStage(ValidationMetrics.Stage.CLASS_LOADING, System.nanoTime() - start);
+            }
+            classFiles.putIfAbsent(className, classFile);
+        }
+        return classFile;
+    }
+
+    private ClassFile readClassFile(String className) throws ClassNotFoundException {
+        String name = className;
+        while (true) {
+            String resource = name.replace('.', '/') + ".class";
+            try (InputStream is = classLoader != null ? classLoader.getResourceAsStream(resource) : ClassLoader.getSystemResourceAsStream(resource)) {
+                if (is != null) {
+                    return ClassFile.read(is);
+                }
+            } catch (IOException e) {
+                throw new ClassNotFoundException(className, e);
+            }
+            int lastDot = name.lastIndexOf('.');
+            if (lastDot == -1) {
+                throw new ClassNotFoundException(className);
+            }
+            // try as a nested class
+            name = name.substring(0, lastDot) + '$' + name.substring(lastDot + 1);
+        }
+    }
+
+    /**
+     * Returns the serialized names of the constants of the enum, read from its class file,
+     * or null if the enum is serialized by a @JsonValue method, see EnumConstants.read()
+     */
+    Set<String> getEnumConstants(String className) throws ClassNotFoundException {
+        Set<String> constants = enumConstants.get(className);
+        if (constants == null) {
+            constants = EnumConstants.read(getClassFile(className));
+            if (constants == null) {
+                constants = JSON_VALUE_ENUM;
+            }
+            enumConstants.putIfAbsent(className, constants);
+        }
+        return constants == JSON_VALUE_ENUM ? null : constants;
+    }
+
+    /**
+     * Returns the value of @HttpMethod on the annotation type or null if the annotation is not an HTTP method.
+     * Annotation types missing from the class path are ignored, same as reflection ignores them.
+     */
+    String getHttpMethod(String annotationType) {
+        String httpMethod = httpMethods.get(annotationType);
+        if (httpMethod == null) {
+            httpMethod = NO_HTTP_METHOD;
+            try {
+                ClassFile.Annotation annotation = getClassFile(annotationType).getAnnotation(HTTP_METHOD);
+                if (annotation != null && annotation.getValue("value") != null) {
+                    httpMethod = (String) annotation.getValue("value");
+                }
+            } catch (ClassNotFoundException e) {
+                // not on the class path
+            }
+            httpMethods.putIfAbsent(annotationType, httpMethod);
+        }
+        return httpMethod.equals(NO_HTTP_METHOD) ? null : httpMethod;
+    }
+
+    /**
+     * Resolves the field descriptor (e.g. "Ljava/lang/String;", "[I", "J") to a class without initializing it.
+     */
+    Class<?> resolveType(String descriptor) throws ClassNotFoundException {
+        switch (descriptor.charAt(0)) {
+            case 'B':
+                return byte.class;
+            case 'C':
+                return char.class;
+            case 'D':
+                return double.class;
+            case 'F':
+                return float.class;
+            case 'I':
+                return int.class;
+            case 'J':
+                return long.class;
+            case 'S':
+                return short.class;
+            case 'Z':
+                return boolean.class;
+            default:
+                if (!metrics.isEnabled()) {
+                    return Class.forName(ClassFile.descriptorToClassName(descriptor), false, typeLoader);
+                }
+                long start = System.nanoTime();
+                try {
+                    return Class.forName(ClassFile.descriptorToClassName(descriptor), false, typeLoader);
+                } finally {
+                    metrics.recordStage(ValidationMetrics.Stage.CLASS_LOADING, System.nanoTime() - start);
+                }
+        }
+    }
+}
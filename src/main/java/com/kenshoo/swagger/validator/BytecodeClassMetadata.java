@@ -0,0 +1,349 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metadata of a single class read from the class files of the class and its supertypes, indexed once on creation.
+ * Mirrors ClassMetadata, without loading the class.
+ *
+ * Use BytecodeClassIntrospector to obtain an instance.
+ */
+final class BytecodeClassMetadata implements GenericPropertyDescriptor, ParameterizedResourceDescriptor {
+
+    private static final String PATH = "javax.ws.rs.Path";
+    private static final String OBJECT = "java.lang.Object";
+    private static final Map<Character, String> PRIMITIVES = ImmutableMap.<Character, String>builder()
+            .put('Z', "boolean").put('B', "byte").put('C', "char").put('S', "short")
+            .put('I', "int").put('J', "long").put('F', "float").put('D', "double")
+            .build();
+
+    private final BytecodeClassIntrospector introspector;
+    private final String name;
+    private final Map<String, ClassFile.Member> fields;
+    private final ConcurrentMap<String, Class<?>> fieldTypes = new ConcurrentHashMap<>();
+    /**
+     * Void.class stands for an unknown element type
+     */
+    private final ConcurrentMap<String, Class<?>> fieldElementTypes = new ConcurrentHashMap<>();
+    private final ResourceIndex<ClassFile.Member> resourceIndex;
+    private final Map<ClassFile.Member, List<ResourceParameter>> parameters;
+    /**
+     * Return types of the resource methods, resolved on the first use since a collection type has to be loaded
+     */
+    private final ConcurrentMap<ClassFile.Member, ResourceReturnType> returnTypes = new ConcurrentHashMap<>();
+    private final String path;
+
+    BytecodeClassMetadata(BytecodeClassIntrospector introspector, ClassFile classFile) throws ClassNotFoundException {
+        this.introspector = introspector;
+        this.name = classFile.getName();
+        this.fields = indexFields(introspector, classFile);
+
+        ResourceIndex.Builder<ClassFile.Member> resources = ResourceIndex.builder();
+        Map<ClassFile.Member, List<ResourceParameter>> parameters = new IdentityHashMap<>();
+        for (ClassFile.Member m : getPublicMethods(introspector, classFile)) {
+            ClassFile.Annotation pathAnnotation = m.getAnnotation(PATH);
+            String methodPath = pathAnnotation != null ? (String) pathAnnotation.getValue("value") : null;
+            boolean resourceMethod = false;
+            for (ClassFile.Annotation ann : m.getAnnotations()) {
+                String httpMethod = introspector.getHttpMethod(ann.getType());
+                if (httpMethod != null) {
+                    resources.add(httpMethod, methodPath, m);
+                    resourceMethod = true;
+                }
+            }
+            if (resourceMethod) {
+                parameters.put(m, indexParameters(m));
+            } else if (methodPath != null) {
+                resources.add(null, methodPath, m);
+            }
+        }
+        this.resourceIndex = resources.build();
+        this.parameters = parameters;
+
+        ClassFile.Annotation classPath = classFile.getAnnotation(PATH);
+        this.path = classPath != null ? (String) classPath.getValue("value") : null;
+    }
+
+    /**
+     * Walks the class hierarchy the same way as ReflectionUtils.findField does:
+     * a field declared in a subclass hides the field with the same name in a superclass.
+     */
+    private static Map<String, ClassFile.Member> indexFields(BytecodeClassIntrospector introspector, ClassFile classFile) throws ClassNotFoundException {
+        Map<String, ClassFile.Member> fields = new HashMap<>();
+        ClassFile searchType = classFile;
+        while (searchType != null && !OBJECT.equals(searchType.getName())) {
+            for (ClassFile.Member field : searchType.getFields()) {
+                if (!fields.containsKey(field.getName())) {
+                    fields.put(field.getName(), field);
+                }
+            }
+            searchType = searchType.getSuperName() != null ? introspector.getClassFile(searchType.getSuperName()) : null;
+        }
+        return ImmutableMap.copyOf(fields);
+    }
+
+    /**
+     * Collects the public methods of the class, its superclasses and interfaces, same as Class.getMethods() does:
+     * a method overridden in a subclass is returned only once, with the annotations declared in the subclass.
+     */
+    private static Iterable<ClassFile.Member> getPublicMethods(BytecodeClassIntrospector introspector, ClassFile classFile) throws ClassNotFoundException {
+        Map<String, ClassFile.Member> methods = new HashMap<>();
+        Set<String> visited = new HashSet<>();
+        Deque<ClassFile> types = new ArrayDeque<>();
+        types.add(classFile);
+        while (!types.isEmpty()) {
+            ClassFile type = types.poll();
+            if (!visited.add(type.getName())) {
+                continue;
+            }
+            for (ClassFile.Member method : type.getMethods()) {
+                String signature = method.getName() + method.getDescriptor();
+                if (method.isPublic() && !methods.containsKey(signature) && !method.getName().startsWith("<")) {
+                    methods.put(signature, method);
+                }
+            }
+            if (type.getSuperName() != null && !OBJECT.equals(type.getSuperName())) {
+                types.add(introspector.getClassFile(type.getSuperName()));
+            }
+            for (String iface : type.getInterfaces()) {
+                types.add(introspector.getClassFile(iface));
+            }
+        }
+        return methods.values();
+    }
+
+    /**
+     * Reads the location, the name and the type of each parameter of the resource method, same as ClassMetadata does.
+     * The parameter annotations are missing from the class file when none of the parameters is annotated.
+     */
+    private static List<ResourceParameter> indexParameters(ClassFile.Member m) {
+        List<String> types = ClassFile.methodTypes(m.getDescriptor());
+        List<List<ClassFile.Annotation>> annotations = m.getParameterAnnotations();
+        List<ResourceParameter> parameters = new ArrayList<>(types.size() - 1);
+        for (int i = 0; i < types.size() - 1; i++) {
+            String location = ResourceParameter.BODY;
+            String name = null;
+            if (i < annotations.size()) {
+                for (ClassFile.Annotation ann : annotations.get(i)) {
+                    String annotationLocation = ResourceParameter.LOCATIONS.get(ann.getType());
+                    if (annotationLocation != null) {
+                        location = annotationLocation;
+                        Object value = ann.getValue("value");
+                        name = value instanceof String ? (String) value : null;
+                    }
+                }
+            }
+            String type = types.get(i);
+            String typeName = type.length() == 1 ? PRIMITIVES.get(type.charAt(0)) : ClassFile.descriptorToClassName(type);
+            parameters.add(new ResourceParameter(location, name, typeName));
+        }
+        return ImmutableList.copyOf(parameters);
+    }
+
+    /**
+     * Returns type of the field or null if field not found.
+     * The type is loaded on the first call, without being initialized.
+     *
+     * @throws TypeNotPresentException if the type of the field can't be loaded
+     */
+    @Override
+    public Class<?> getType(String propName) {
+        Class<?> type = fieldTypes.get(propName);
+        if (type == null) {
+            ClassFile.Member field = fields.get(propName);
+            if (field == null) {
+                return null;
+            }
+            type = resolveType(field.getDescriptor());
+            fieldTypes.putIfAbsent(propName, type);
+        }
+        return type;
+    }
+
+    /**
+     * Returns element type of the array or collection field, or null if field not found or the element type is unknown.
+     * The element type is taken from the generic signature of the field, a type variable is not resolved.
+     *
+     * @throws TypeNotPresentException if the element type can't be loaded
+     */
+    @Override
+    public Class<?> getElementType(String propName) {
+        Class<?> elementType = fieldElementTypes.get(propName);
+        if (elementType == null) {
+            Class<?> type = getType(propName);
+            if (type == null) {
+                return null;
+            }
+            String descriptor = null;
+            if (type.isArray()) {
+                descriptor = fields.get(propName).getDescriptor().substring(1);
+            } else if (Collection.class.isAssignableFrom(type)) {
+                descriptor = typeArgument(fields.get(propName).getSignature());
+            }
+            elementType = descriptor != null ? resolveType(descriptor) : Void.class;
+            fieldElementTypes.putIfAbsent(propName, elementType);
+        }
+        return elementType != Void.class ? elementType : null;
+    }
+
+    /**
+     * Returns the descriptor of the single type argument of a generic signature,
+     * e.g. Lcom/x/Foo; for Ljava/util/List&lt;+Lcom/x/Foo;&gt;;
+     * Returns null for a type variable, an unbounded wildcard or more than one type argument.
+     */
+    private static String typeArgument(String signature) {
+        if (signature == null) {
+            return null;
+        }
+        int start = signature.indexOf('<');
+        if (start == -1 || !signature.endsWith(">;")) {
+            return null;
+        }
+        String argument = signature.substring(start + 1, signature.length() - 2);
+        if (argument.startsWith("+")) {
+            argument = argument.substring(1);
+        }
+        int depth = 0;
+        for (int i = 0; i < argument.length(); i++) {
+            char c = argument.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ';' && depth == 0 && i != argument.length() - 1) {
+                return null;
+            }
+        }
+        if (argument.startsWith("L")) {
+            // drop the type arguments of the element type, e.g. List<List<Foo>> has the element type List
+            int generic = argument.indexOf('<');
+            return generic != -1 ? argument.substring(0, generic) + ';' : argument;
+        }
+        return argument.startsWith("[") && argument.indexOf('<') == -1 ? argument : null;
+    }
+
+    /**
+     * Resolves the return type of the resource method from its generic signature. A type variable is not resolved.
+     * The element type of a collection is the single type argument of the signature, Object if there's none.
+     */
+    private ResourceReturnType getReturnType(ClassFile.Member m) {
+        ResourceReturnType returnType = returnTypes.get(m);
+        if (returnType == null) {
+            List<String> types = ClassFile.methodTypes(m.getSignature() != null ? m.getSignature() : m.getDescriptor());
+            String type = types.get(types.size() - 1);
+            String erased = erase(type);
+            if (erased.replace("[", "").startsWith("T")) {
+                returnType = new ResourceReturnType(null, null);
+            } else if (erased.startsWith("[")) {
+                String componentType = erased.substring(1);
+                returnType = new ResourceReturnType(ClassFile.descriptorToClassName(erased), componentType.length() == 1
+                        ? PRIMITIVES.get(componentType.charAt(0)) : ClassFile.descriptorToClassName(componentType));
+            } else if (erased.length() == 1) {
+                returnType = new ResourceReturnType(erased.equals("V") ? "void" : PRIMITIVES.get(erased.charAt(0)), null);
+            } else {
+                String elementType = null;
+                try {
+                    if (Collection.class.isAssignableFrom(introspector.resolveType(erased))) {
+                        String argument = typeArgument(type);
+                        elementType = argument != null ? ClassFile.descriptorToClassName(argument) : OBJECT;
+                    }
+                } catch (ClassNotFoundException e) {
+                    // unknown element type
+                }
+                returnType = new ResourceReturnType(ClassFile.descriptorToClassName(erased), elementType);
+            }
+            returnTypes.putIfAbsent(m, returnType);
+        }
+        return returnType;
+    }
+
+    /**
+     * Drops the type arguments of a type signature, e.g. Ljava/util/List; for Ljava/util/List&lt;Lcom/x/Foo;&gt;;
+     */
+    private static String erase(String signature) {
+        StringBuilder sb = new StringBuilder(signature.length());
+        int depth = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            char c = signature.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private Class<?> resolveType(String descriptor) {
+        try {
+            return introspector.resolveType(descriptor);
+        } catch (ClassNotFoundException e) {
+            throw new TypeNotPresentException(ClassFile.descriptorToClassName(descriptor), e);
+        }
+    }
+
+    ResourceIndex<ClassFile.Member> getResourceIndex() {
+        return resourceIndex;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public List<List<ResourceParameter>> getParameters(String operation, String subPath) {
+        List<ClassFile.Member> methods = resourceIndex.getMethods(operation, subPath);
+        List<List<ResourceParameter>> result = new ArrayList<>(methods.size());
+        for (ClassFile.Member m : methods) {
+            result.add(parameters.get(m));
+        }
+        return result;
+    }
+
+    @Override
+    public List<ResourceReturnType> getReturnTypes(String operation, String subPath) {
+        List<ClassFile.Member> methods = resourceIndex.getMethods(operation, subPath);
+        List<ResourceReturnType> result = new ArrayList<>(methods.size());
+        for (ClassFile.Member m : methods) {
+            result.add(getReturnType(m));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasOperation(String operation) {
+        return !resourceIndex.getMethods(operation).isEmpty();
+    }
+
+    @Override
+    public boolean hasOperation(String operation, String subPath) {
+        return resourceIndex.hasOperation(operation, subPath);
+    }
+
+    @Override
+    public boolean hasMethodPath(String subPath) {
+        return resourceIndex.hasSubPath(subPath);
+    }
+}
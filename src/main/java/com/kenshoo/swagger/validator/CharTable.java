@@ -0,0 +1,90 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.Map;
+
+/**
+ * Immutable open addressing hash table keyed by strings, looked up by a range of characters.
+ *
+ * Allows to look up the text of a parser token (e.g. JsonParser.getTextCharacters()) without creating a String.
+ */
+final class CharTable<V> {
+
+    private final char[][] keys;
+    private final Object[] values;
+    private final int mask;
+
+    CharTable(Map<String, V> entries) {
+        // at most half full, so the probing always reaches an empty slot
+        int capacity = Integer.highestOneBit(Math.max(1, entries.size()) * 2 - 1) << 1;
+        this.keys = new char[capacity][];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            char[] key = entry.getKey().toCharArray();
+            int index = spread(entry.getKey().hashCode()) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * Returns the value of the key equal to the characters, or null if there is no such key
+     */
+    @SuppressWarnings("unchecked")
+    V get(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        for (int index = spread(hash) & mask; keys[index] != null; index = (index + 1) & mask) {
+            if (equals(keys[index], chars, offset, length)) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the key or null if there is no such key
+     */
+    @SuppressWarnings("unchecked")
+    V get(String key) {
+        for (int index = spread(key.hashCode()) & mask; keys[index] != null; index = (index + 1) & mask) {
+            if (equals(keys[index], key)) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+
+    private static boolean equals(char[] key, String string) {
+        if (key.length != string.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(char[] key, char[] chars, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,499 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structure of a class file, read directly from the bytecode without loading the class.
+ *
+ * Only what the validator needs is kept: names, field and method descriptors, generic signatures
+ * and the runtime visible annotations. Class names are binary names (e.g. "java.util.Map$Entry").
+ *
+ * Immutable.
+ */
+final class ClassFile {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_ENUM = 0x4000;
+
+    private final int access;
+    private final String name;
+    private final String superName;
+    private final List<String> interfaces;
+    private final Map<String, Member> fields;
+    private final List<Member> methods;
+    private final List<Annotation> annotations;
+
+    private ClassFile(int access, String name, String superName, List<String> interfaces,
+                      Map<String, Member> fields, List<Member> methods, List<Annotation> annotations) {
+        this.access = access;
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.fields = fields;
+        this.methods = methods;
+        this.annotations = annotations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns name of the superclass or null for java.lang.Object and interfaces
+     */
+    public String getSuperName() {
+        return superName;
+    }
+
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    public boolean isInterface() {
+        return (access & Modifier.INTERFACE) != 0;
+    }
+
+    public boolean isEnum() {
+        return (access & ACC_ENUM) != 0;
+    }
+
+    /**
+     * Returns the field declared by this class or null
+     */
+    public Member getField(String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    public Iterable<Member> getFields() {
+        return fields.values();
+    }
+
+    public List<Member> getMethods() {
+        return methods;
+    }
+
+    public List<Annotation> getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * Returns the annotation of the given type (e.g. "javax.ws.rs.Path") or null
+     */
+    public Annotation getAnnotation(String type) {
+        return Annotation.find(annotations, type);
+    }
+
+    /**
+     * Field or method
+     */
+    static final class Member {
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final String signature;
+        private final List<Annotation> annotations;
+        private final List<List<Annotation>> parameterAnnotations;
+
+        private Member(int access, String name, String descriptor, String signature,
+                       List<Annotation> annotations, List<List<Annotation>> parameterAnnotations) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.signature = signature;
+            this.annotations = annotations;
+            this.parameterAnnotations = parameterAnnotations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * JVM descriptor, e.g. "Ljava/lang/String;" or "(I)V"
+         */
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        /**
+         * Generic signature or null if the member is not generic
+         */
+        public String getSignature() {
+            return signature;
+        }
+
+        public boolean isPublic() {
+            return (access & Modifier.PUBLIC) != 0;
+        }
+
+        public boolean isStatic() {
+            return (access & Modifier.STATIC) != 0;
+        }
+
+        /**
+         * Whether the field is a constant of an enum
+         */
+        public boolean isEnumConstant() {
+            return (access & ACC_ENUM) != 0;
+        }
+
+        public List<Annotation> getAnnotations() {
+            return annotations;
+        }
+
+        public Annotation getAnnotation(String type) {
+            return Annotation.find(annotations, type);
+        }
+
+        /**
+         * Annotations of each method parameter, empty for fields and for methods without parameter annotations
+         */
+        public List<List<Annotation>> getParameterAnnotations() {
+            return parameterAnnotations;
+        }
+    }
+
+    static final class Annotation {
+        private final String type;
+        private final Map<String, Object> values;
+
+        private Annotation(String type, Map<String, Object> values) {
+            this.type = type;
+            this.values = values;
+        }
+
+        /**
+         * Binary name of the annotation type, e.g. "javax.ws.rs.Path"
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Returns the explicitly set element value or null.
+         * Strings and primitives are returned as is, arrays as lists, enum constants and classes as their names.
+         */
+        public Object getValue(String element) {
+            return values.get(element);
+        }
+
+        private static Annotation find(List<Annotation> annotations, String type) {
+            for (Annotation annotation : annotations) {
+                if (annotation.type.equals(type)) {
+                    return annotation;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Converts the type descriptor (e.g. "Ljava/util/List;") to the binary class name (e.g. "java.util.List").
+     * Array descriptors are converted to the names accepted by Class.forName (e.g. "[Ljava.lang.String;").
+     */
+    static String descriptorToClassName(String descriptor) {
+        if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+        return descriptor.replace('/', '.');
+    }
+
+    /**
+     * Splits a method signature (or descriptor) into the types of the parameters followed by the return type,
+     * e.g. "(ILjava/util/List&lt;Lcom/x/Foo;&gt;;)V" gives "I", "Ljava/util/List&lt;Lcom/x/Foo;&gt;;" and "V".
+     */
+    static List<String> methodTypes(String signature) {
+        int i = 0;
+        if (signature.charAt(0) == '<') {
+            // formal type parameters
+            int depth = 0;
+            do {
+                char c = signature.charAt(i++);
+                if (c == '<') {
+                    depth++;
+                } else if (c == '>') {
+                    depth--;
+                }
+            } while (depth > 0);
+        }
+        List<String> types = new ArrayList<>();
+        i++; // '('
+        while (signature.charAt(i) != ')') {
+            int end = typeEnd(signature, i, null);
+            types.add(signature.substring(i, end));
+            i = end;
+        }
+        i++;
+        types.add(signature.substring(i, typeEnd(signature, i, null)));
+        return types;
+    }
+
+    /**
+     * Collects the binary names of the classes in a type signature (or descriptor), including its type arguments,
+     * e.g. "java.util.List" and "com.x.Foo" for "Ljava/util/List&lt;+Lcom/x/Foo;&gt;;". Type variables are skipped.
+     */
+    static void collectClassNames(String type, Collection<String> names) {
+        typeEnd(type, 0, names);
+    }
+
+    /**
+     * Returns the index following the type starting at the index, collecting the class names if names is not null
+     */
+    private static int typeEnd(String signature, int start, Collection<String> names) {
+        int i = start;
+        while (signature.charAt(i) == '[') {
+            i++;
+        }
+        char c = signature.charAt(i);
+        if (c == 'T') {
+            return signature.indexOf(';', i) + 1;
+        }
+        if (c != 'L') {
+            return i + 1;
+        }
+        StringBuilder name = new StringBuilder();
+        i++;
+        while (true) {
+            c = signature.charAt(i);
+            if (c == ';') {
+                if (names != null) {
+                    names.add(name.toString().replace('/', '.'));
+                }
+                return i + 1;
+            } else if (c == '<') {
+                i++;
+                while (signature.charAt(i) != '>') {
+                    char argument = signature.charAt(i);
+                    if (argument == '*') {
+                        i++;
+                    } else {
+                        i = typeEnd(signature, argument == '+' || argument == '-' ? i + 1 : i, names);
+                    }
+                }
+                i++;
+            } else if (c == '.') {
+                // inner class of a generic class, e.g. Lcom/x/Outer<TT;>.Inner;
+                name.append('$');
+                i++;
+            } else {
+                name.append(c);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Parses the class file. The stream is not closed.
+     */
+    static ClassFile read(InputStream is) throws IOException {
+        return new Reader(new DataInputStream(is)).read();
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private Object[] constants;
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        private ClassFile read() throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a class file");
+            }
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+            readConstantPool();
+            int access = in.readUnsignedShort();
+            String name = className(in.readUnsignedShort());
+            String superName = className(in.readUnsignedShort());
+            ImmutableList.Builder<String> interfaces = ImmutableList.builder();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                interfaces.add(className(in.readUnsignedShort()));
+            }
+            Map<String, Member> fields = new LinkedHashMap<>();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                Member field = readMember();
+                fields.put(field.name, field);
+            }
+            ImmutableList.Builder<Member> methods = ImmutableList.builder();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                methods.add(readMember());
+            }
+            List<Annotation> annotations = ImmutableList.of();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                String attribute = utf8(in.readUnsignedShort());
+                int length = in.readInt();
+                if (attribute.equals("RuntimeVisibleAnnotations")) {
+                    annotations = readAnnotations();
+                } else {
+                    skip(length);
+                }
+            }
+            return new ClassFile(access, name, superName, interfaces.build(), ImmutableMap.copyOf(fields), methods.build(), annotations);
+        }
+
+        private void readConstantPool() throws IOException {
+            int count = in.readUnsignedShort();
+            constants = new Object[count];
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        constants[i] = in.readUTF();
+                        break;
+                    case 3: // Integer
+                        constants[i] = in.readInt();
+                        break;
+                    case 4: // Float
+                        constants[i] = in.readFloat();
+                        break;
+                    case 5: // Long
+                        constants[i++] = in.readLong();
+                        break;
+                    case 6: // Double
+                        constants[i++] = in.readDouble();
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        // keep the index of the referenced Utf8
+                        constants[i] = new ConstantRef(in.readUnsignedShort());
+                        break;
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        skip(4);
+                        break;
+                    case 15: // MethodHandle
+                        skip(3);
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        private Member readMember() throws IOException {
+            int access = in.readUnsignedShort();
+            String name = utf8(in.readUnsignedShort());
+            String descriptor = utf8(in.readUnsignedShort());
+            String signature = null;
+            List<Annotation> annotations = ImmutableList.of();
+            List<List<Annotation>> parameterAnnotations = ImmutableList.of();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                String attribute = utf8(in.readUnsignedShort());
+                int length = in.readInt();
+                if (attribute.equals("Signature")) {
+                    signature = utf8(in.readUnsignedShort());
+                } else if (attribute.equals("RuntimeVisibleAnnotations")) {
+                    annotations = readAnnotations();
+                } else if (attribute.equals("RuntimeVisibleParameterAnnotations")) {
+                    ImmutableList.Builder<List<Annotation>> parameters = ImmutableList.builder();
+                    for (int p = in.readUnsignedByte(); p > 0; p--) {
+                        parameters.add(readAnnotations());
+                    }
+                    parameterAnnotations = parameters.build();
+                } else {
+                    skip(length);
+                }
+            }
+            return new Member(access, name, descriptor, signature, annotations, parameterAnnotations);
+        }
+
+        private List<Annotation> readAnnotations() throws IOException {
+            ImmutableList.Builder<Annotation> annotations = ImmutableList.builder();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                annotations.add(readAnnotation());
+            }
+            return annotations.build();
+        }
+
+        private Annotation readAnnotation() throws IOException {
+            String type = descriptorToClassName(utf8(in.readUnsignedShort()));
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                String element = utf8(in.readUnsignedShort());
+                values.put(element, readElementValue());
+            }
+            return new Annotation(type, ImmutableMap.copyOf(values));
+        }
+
+        private Object readElementValue() throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 'e':
+                    String enumType = descriptorToClassName(utf8(in.readUnsignedShort()));
+                    return enumType + "." + utf8(in.readUnsignedShort());
+                case 'c':
+                    return descriptorToClassName(utf8(in.readUnsignedShort()));
+                case '@':
+                    return readAnnotation();
+                case '[':
+                    List<Object> values = new ArrayList<>();
+                    for (int i = in.readUnsignedShort(); i > 0; i--) {
+                        values.add(readElementValue());
+                    }
+                    return ImmutableList.copyOf(values);
+                default:
+                    // primitive or String constant
+                    return constant(in.readUnsignedShort());
+            }
+        }
+
+        private Object constant(int index) {
+            Object constant = constants[index];
+            if (constant instanceof ConstantRef) {
+                return constants[((ConstantRef) constant).index];
+            }
+            return constant;
+        }
+
+        private String className(int index) {
+            if (index == 0) {
+                return null;
+            }
+            return ((String) constant(index)).replace('/', '.');
+        }
+
+        private String utf8(int index) {
+            return (String) constants[index];
+        }
+
+        private void skip(int length) throws IOException {
+            int remaining = length;
+            while (remaining > 0) {
+                int skipped = in.skipBytes(remaining);
+                if (skipped <= 0) {
+                    in.readByte();
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        }
+    }
+
+    private static final class ConstantRef {
+        private final int index;
+
+        private ConstantRef(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * Resolves the classes referenced by x-javaClass into the descriptors used by the validation.
+ *
+ * Implementations must be thread safe.
+ *
+ * @see ReflectionClassIntrospector
+ * @see BytecodeClassIntrospector
+ */
+public interface ClassIntrospector {
+
+    /**
+     * Returns the descriptor of the properties of the definition class.
+     *
+     * @throws ClassNotFoundException if the class doesn't exist
+     */
+    PropertyDescriptor createPropertyDescriptor(String className) throws ClassNotFoundException;
+
+    /**
+     * Returns the descriptor of the resource class.
+     *
+     * @throws ClassNotFoundException if the class doesn't exist
+     */
+    ResourceDescriptor createResourceDescriptor(String className) throws ClassNotFoundException;
+}
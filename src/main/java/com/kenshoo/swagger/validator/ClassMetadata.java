@@ -0,0 +1,252 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.springframework.core.GenericCollectionTypeResolver;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reflection metadata of a single class, indexed once on creation.
+ *
+ * Use ClassMetadataCache to obtain an instance.
+ */
+final class ClassMetadata implements ParameterizedResourceDescriptor {
+
+    private final String name;
+    private final Map<String, Class<?>> fieldTypes;
+    private final Map<String, Class<?>> fieldElementTypes;
+    private final ResourceIndex<Method> resourceIndex;
+    /**
+     * Parameters of the resource methods, read once since getParameterAnnotations() copies the annotations on each call
+     */
+    private final Map<Method, List<ResourceParameter>> parameters;
+    private final Map<Method, ResourceReturnType> returnTypes;
+    private final String path;
+
+    ClassMetadata(Class<?> cls) {
+        this.name = cls.getName();
+        Map<String, Class<?>> types = new HashMap<>();
+        Map<String, Class<?>> elementTypes = new HashMap<>();
+        indexFields(cls, types, elementTypes);
+        this.fieldTypes = ImmutableMap.copyOf(types);
+        this.fieldElementTypes = ImmutableMap.copyOf(elementTypes);
+
+        ResourceIndex.Builder<Method> resources = ResourceIndex.builder();
+        Map<Method, List<ResourceParameter>> parameters = new IdentityHashMap<>();
+        Map<Method, ResourceReturnType> returnTypes = new IdentityHashMap<>();
+        Map<TypeVariable, Type> typeVariables = null;
+        for (Method m : cls.getMethods()) {
+            Path methodPath = m.getAnnotation(Path.class);
+            boolean resourceMethod = false;
+            for (Annotation ann : m.getDeclaredAnnotations()) {
+                HttpMethod httpMethod = ann.annotationType().getAnnotation(HttpMethod.class);
+                if (httpMethod != null) {
+                    resources.add(httpMethod.value(), methodPath != null ? methodPath.value() : null, m);
+                    resourceMethod = true;
+                }
+            }
+            if (resourceMethod) {
+                parameters.put(m, indexParameters(m));
+                if (typeVariables == null && !(m.getGenericReturnType() instanceof Class)) {
+                    typeVariables = GenericTypeResolver.getTypeVariableMap(cls);
+                }
+                returnTypes.put(m, resolveReturnType(m, typeVariables));
+            } else if (methodPath != null) {
+                resources.add(null, methodPath.value(), m);
+            }
+        }
+        this.resourceIndex = resources.build();
+        this.parameters = parameters;
+        this.returnTypes = returnTypes;
+
+        Path classPath = cls.getAnnotation(Path.class);
+        this.path = classPath != null ? classPath.value() : null;
+    }
+
+    /**
+     * Walks the class hierarchy the same way as ReflectionUtils.findField does:
+     * a field declared in a subclass hides the field with the same name in a superclass.
+     * Element types of the array and collection fields are resolved against the class.
+     */
+    private static void indexFields(Class<?> cls, Map<String, Class<?>> types, Map<String, Class<?>> elementTypes) {
+        Map<TypeVariable, Type> typeVariables = null;
+        Class<?> searchType = cls;
+        while (searchType != null && !Object.class.equals(searchType)) {
+            for (Field field : searchType.getDeclaredFields()) {
+                if (!types.containsKey(field.getName())) {
+                    types.put(field.getName(), field.getType());
+                    if (field.getType().isArray()) {
+                        elementTypes.put(field.getName(), field.getType().getComponentType());
+                    } else if (Collection.class.isAssignableFrom(field.getType())) {
+                        if (typeVariables == null) {
+                            typeVariables = GenericTypeResolver.getTypeVariableMap(cls);
+                        }
+                        Class<?> elementType = resolveElementType(field.getGenericType(), typeVariables);
+                        if (elementType != null) {
+                            elementTypes.put(field.getName(), elementType);
+                        }
+                    }
+                }
+            }
+            searchType = searchType.getSuperclass();
+        }
+    }
+
+    /**
+     * Reads the location, the name and the type of each parameter of the resource method.
+     * Annotations are matched by name, so that the annotations missing in JAX-RS 1 (e.g. @BeanParam) are recognized too.
+     */
+    private static List<ResourceParameter> indexParameters(Method m) {
+        Class<?>[] types = m.getParameterTypes();
+        Annotation[][] annotations = m.getParameterAnnotations();
+        List<ResourceParameter> parameters = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            String location = ResourceParameter.BODY;
+            String name = null;
+            for (Annotation ann : annotations[i]) {
+                String annotationLocation = ResourceParameter.LOCATIONS.get(ann.annotationType().getName());
+                if (annotationLocation != null) {
+                    location = annotationLocation;
+                    Object value = AnnotationUtils.getValue(ann);
+                    name = value instanceof String ? (String) value : null;
+                }
+            }
+            parameters.add(new ResourceParameter(location, name, types[i].getName()));
+        }
+        return ImmutableList.copyOf(parameters);
+    }
+
+    /**
+     * Resolves the return type of the resource method, the type variables are needed for a generic return type only
+     */
+    private static ResourceReturnType resolveReturnType(Method m, Map<TypeVariable, Type> typeVariables) {
+        Type type = m.getGenericReturnType();
+        if (typeVariables == null) {
+            typeVariables = ImmutableMap.of();
+        }
+        Class<?> rawType = resolveType(type, typeVariables);
+        Class<?> elementType = resolveElementType(type, typeVariables);
+        if (elementType == null && Collection.class.isAssignableFrom(rawType)) {
+            elementType = Object.class;
+        }
+        return new ResourceReturnType(rawType.getName(), elementType != null ? elementType.getName() : null);
+    }
+
+    /**
+     * Resolves the generic type, taking the upper bound of a wildcard
+     */
+    static Class<?> resolveType(Type type, Map<TypeVariable, Type> typeVariables) {
+        if (type instanceof WildcardType) {
+            return resolveType(((WildcardType) type).getUpperBounds()[0], typeVariables);
+        }
+        return GenericTypeResolver.resolveType(type, typeVariables);
+    }
+
+    /**
+     * Returns the element type of an array or collection type, or null
+     */
+    static Class<?> resolveElementType(Type type, Map<TypeVariable, Type> typeVariables) {
+        Class<?> rawType = resolveType(type, typeVariables);
+        if (rawType.isArray()) {
+            return rawType.getComponentType();
+        }
+        if (!Collection.class.isAssignableFrom(rawType)) {
+            return null;
+        }
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getActualTypeArguments().length == 1) {
+            return resolveType(((ParameterizedType) type).getActualTypeArguments()[0], typeVariables);
+        }
+        // e.g. a class extending ArrayList<Foo>
+        return GenericCollectionTypeResolver.getCollectionType((Class<? extends Collection>) rawType);
+    }
+
+    /**
+     * Returns type of the field or null if field not found
+     */
+    public Class<?> getFieldType(String fieldName) {
+        return fieldTypes.get(fieldName);
+    }
+
+    /**
+     * Returns element type of the array or collection field, or null if not found or unknown
+     */
+    public Class<?> getFieldElementType(String fieldName) {
+        return fieldElementTypes.get(fieldName);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns public methods annotated with the given HTTP method (e.g. GET, POST), case insensitive
+     */
+    public List<Method> getOperationMethods(String operation) {
+        return resourceIndex.getMethods(operation);
+    }
+
+    /**
+     * Returns public methods annotated with the given HTTP method on the normalized sub-path, case insensitive
+     */
+    public List<Method> getOperationMethods(String operation, String subPath) {
+        return resourceIndex.getMethods(operation, subPath);
+    }
+
+    @Override
+    public List<List<ResourceParameter>> getParameters(String operation, String subPath) {
+        List<Method> methods = getOperationMethods(operation, subPath);
+        List<List<ResourceParameter>> result = new ArrayList<>(methods.size());
+        for (Method m : methods) {
+            result.add(parameters.get(m));
+        }
+        return result;
+    }
+
+    @Override
+    public List<ResourceReturnType> getReturnTypes(String operation, String subPath) {
+        List<Method> methods = getOperationMethods(operation, subPath);
+        List<ResourceReturnType> result = new ArrayList<>(methods.size());
+        for (Method m : methods) {
+            result.add(returnTypes.get(m));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasOperation(String operation) {
+        return !getOperationMethods(operation).isEmpty();
+    }
+
+    @Override
+    public boolean hasOperation(String operation, String subPath) {
+        return resourceIndex.hasOperation(operation, subPath);
+    }
+
+    @Override
+    public boolean hasMethodPath(String subPath) {
+        return resourceIndex.hasSubPath(subPath);
+    }
+}
@@ -0,0 +1,73 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JVM wide cache of classes resolved by name and of their reflection metadata.
+ *
+ * The cache is shared by all SwaggerValidator instances, so each class is looked up and indexed once.
+ * Classes and class loaders are referenced weakly and metadata softly, so the cache doesn't prevent class unloading.
+ *
+ * Thread safe.
+ */
+final class ClassMetadataCache {
+
+    private static final LoadingCache<Class<?>, ClassMetadata> metadata = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build(new CacheLoader<Class<?>, ClassMetadata>() {
+                @Override
+                public ClassMetadata load(Class<?> cls) {
+                    return new ClassMetadata(cls);
+                }
+            });
+
+    private static final LoadingCache<ClassLoader, ConcurrentMap<String, Class<?>>> classes = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build(new CacheLoader<ClassLoader, ConcurrentMap<String, Class<?>>>() {
+                @Override
+                public ConcurrentMap<String, Class<?>> load(ClassLoader classLoader) {
+                    return new ConcurrentHashMap<>();
+                }
+            });
+
+    private ClassMetadataCache() {
+    }
+
+    /**
+     * Returns the metadata of the class, indexing it on the first call.
+     */
+    static ClassMetadata get(Class<?> cls) {
+        return metadata.getUnchecked(cls);
+    }
+
+    /**
+     * Returns the metadata of the class or null if the class is not indexed yet.
+     */
+    static ClassMetadata getIfPresent(Class<?> cls) {
+        return metadata.getIfPresent(cls);
+    }
+
+    /**
+     * Resolves class by its name, same as ClassUtils.forName, but resolves each name only once per class loader.
+     */
+    static Class<?> forName(String className, ClassLoader classLoader) throws ClassNotFoundException {
+        if (classLoader == null) {
+            return ClassUtils.forName(className, null);
+        }
+        ConcurrentMap<String, Class<?>> resolved = classes.getUnchecked(classLoader);
+        Class<?> cls = resolved.get(className);
+        if (cls == null) {
+            cls = ClassUtils.forName(className, classLoader);
+            resolved.putIfAbsent(className, cls);
+        }
+        return cls;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads and introspects the classes of a document concurrently, before its rules are evaluated.
+ *
+ * Covers the x-javaClass classes of the definitions and paths, the types of the properties declared in the document,
+ * and the types of the inline objects and array items. The results are kept by the introspector's caches,
+ * so the validation that follows doesn't wait for class loading.
+ *
+ * Failures are ignored: a class that can't be loaded is reported by the validation.
+ */
+final class ClassPreloader {
+
+    private final ClassIntrospector introspector;
+
+    private ClassPreloader(ClassIntrospector introspector) {
+        this.introspector = introspector;
+    }
+
+    /**
+     * Preloads the classes of the document using the given number of threads
+     */
+    static void preload(Map<String, Object> yaml, ClassIntrospector introspector, int parallelism) {
+        ClassPreloader preloader = new ClassPreloader(introspector);
+        List<RecursiveAction> tasks = new ArrayList<>();
+        Map<String, Object> definitions = (Map<String, Object>) yaml.get(SwaggerValidator.DEFINITIONS);
+        if (definitions != null) {
+            for (Object definition : definitions.values()) {
+                if (definition instanceof Map && SwaggerValidator.getClassName((Map<String, Object>) definition) != null) {
+                    Object properties = ((Map<String, Object>) definition).get("properties");
+                    tasks.add(preloader.new Definition(SwaggerValidator.getClassName((Map<String, Object>) definition),
+                            properties instanceof Map ? (Map<String, Object>) properties : Collections.<String, Object>emptyMap()));
+                }
+            }
+        }
+        Map<String, Object> paths = (Map<String, Object>) yaml.get(SwaggerValidator.PATHS);
+        if (paths != null) {
+            for (Object resource : paths.values()) {
+                if (resource instanceof Map && SwaggerValidator.getClassName((Map<String, Object>) resource) != null) {
+                    tasks.add(preloader.new Resource(SwaggerValidator.getClassName((Map<String, Object>) resource)));
+                }
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (RecursiveAction task : tasks) {
+                pool.execute(task);
+            }
+            for (RecursiveAction task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Introspects the class of a definition, then loads the types of the declared properties
+     * and preloads the classes of the inline objects and items
+     */
+    private final class Definition extends RecursiveAction {
+        private final String className;
+        private final Map<String, Object> properties;
+
+        private Definition(String className, Map<String, Object> properties) {
+            this.className = className;
+            this.properties = properties;
+        }
+
+        @Override
+        protected void compute() {
+            List<Definition> nested = new ArrayList<>();
+            try {
+                PropertyDescriptor descriptor = introspector.createPropertyDescriptor(className);
+                for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                    if (!(entry.getValue() instanceof Map)) {
+                        continue;
+                    }
+                    Map<String, Object> property = (Map<String, Object>) entry.getValue();
+                    Class<?> type = descriptor.getType(entry.getKey());
+                    if (type != null && PropertyValidator.isObject(type) && property.get("properties") instanceof Map) {
+                        nested.add(new Definition(type.getName(), (Map<String, Object>) property.get("properties")));
+                    }
+                    Object items = property.get("items");
+                    if (descriptor instanceof GenericPropertyDescriptor && items instanceof Map
+                            && ((Map<String, Object>) items).get("properties") instanceof Map) {
+                        Class<?> elementType = ((GenericPropertyDescriptor) descriptor).getElementType(entry.getKey());
+                        if (elementType != null && PropertyValidator.isObject(elementType)) {
+                            nested.add(new Definition(elementType.getName(), (Map<String, Object>) ((Map<String, Object>) items).get("properties")));
+                        }
+                    }
+                }
+            } catch (ClassNotFoundException | RuntimeException e) {
+                // reported by the validation
+            }
+            invokeAll(nested);
+        }
+    }
+
+    private final class Resource extends RecursiveAction {
+        private final String className;
+
+        private Resource(String className) {
+            this.className = className;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                introspector.createResourceDescriptor(className);
+            } catch (ClassNotFoundException | RuntimeException e) {
+                // reported by the validation
+            }
+        }
+    }
+}
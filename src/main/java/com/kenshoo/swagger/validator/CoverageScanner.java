@@ -0,0 +1,388 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds what the document doesn't cover: the JAX-RS resources of the class path that no path names by x-javaClass,
+ * their operations that no path documents, and the classes used by the operations (returned or accepted as the entity,
+ * directly, in a collection or through the fields of other such classes) that no definition names by x-javaClass.
+ *
+ * The class path is indexed in a single pass: the jars and directories are read concurrently, and only the class files
+ * referring to javax.ws.rs.Path are parsed. No class is loaded. Resources are the classes annotated with @Path.
+ *
+ * All the findings are reported as warnings.
+ */
+public class CoverageScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String PATH = "javax.ws.rs.Path";
+    private static final byte[] PATH_DESCRIPTOR = "Ljavax/ws/rs/Path;".getBytes(StandardCharsets.UTF_8);
+
+    private final List<File> classPath;
+    private final int threads;
+
+    /**
+     * @param classPath jars and class directories to scan
+     * @param threads number of jars and directories read at the same time
+     */
+    public CoverageScanner(List<File> classPath, int threads) {
+        this.classPath = ImmutableList.copyOf(classPath);
+        this.threads = threads;
+    }
+
+    /**
+     * Reads as many jars and directories at the same time as there are processors.
+     */
+    public CoverageScanner(List<File> classPath) {
+        this(classPath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reports the resources, operations and classes of the class path the document doesn't cover.
+     */
+    public ValidationReport scan(Map<String, Object> yaml) throws IOException {
+        Set<String> resources = indexResources();
+        ValidationReport report = new ValidationReport();
+        try (URLClassLoader classLoader = new URLClassLoader(toUrls(classPath), SwaggerValidator.class.getClassLoader())) {
+            BytecodeClassIntrospector introspector = new BytecodeClassIntrospector(classLoader);
+            Set<String> documentedResources = new HashSet<>();
+            Set<String> documentedOperations = new HashSet<>();
+            indexPaths(yaml, introspector, documentedResources, documentedOperations);
+
+            // class used by the operations -> the first resource using it
+            Map<String, String> entities = new LinkedHashMap<>();
+            for (String resource : resources) {
+                BytecodeClassMetadata metadata;
+                try {
+                    metadata = (BytecodeClassMetadata) introspector.createResourceDescriptor(resource);
+                } catch (ClassNotFoundException e) {
+                    // a supertype is missing from the class path
+                    continue;
+                }
+                String classPath = ResourceIndex.normalize(metadata.getPath());
+                boolean documented = documentedResources.contains(resource);
+                if (!documented) {
+                    report.add(Diagnostic.forPath(Severity.WARNING, toPath(classPath), Rule.UNDOCUMENTED_RESOURCE.getId(),
+                            Rule.UNDOCUMENTED_RESOURCE.getPattern(), resource));
+                }
+                ResourceIndex<ClassFile.Member> index = metadata.getResourceIndex();
+                for (String subPath : new TreeSet<>(index.getSubPaths())) {
+                    for (Map.Entry<String, ClassFile.Member> operation : index.getMethodsBySubPath(subPath).entries()) {
+                        boolean forbidden = ResourceValidator.forbiddenOperations.contains(operation.getKey().toLowerCase(Locale.ENGLISH));
+                        if (documented && !forbidden && !documentedOperations.contains(operationKey(resource, operation.getKey(), subPath))) {
+                            report.add(Diagnostic.forPath(Severity.WARNING, toPath(classPath + subPath), Rule.UNDOCUMENTED_OPERATION.getId(),
+                                    Rule.UNDOCUMENTED_OPERATION.getPattern(), operation.getKey().toLowerCase(Locale.ENGLISH), resource));
+                        }
+                        for (String entity : entityClassNames(operation.getValue())) {
+                            if (!entities.containsKey(entity)) {
+                                entities.put(entity, resource);
+                            }
+                        }
+                    }
+                }
+            }
+
+            Set<String> documentedClasses = definitionClassNames(yaml);
+            for (Map.Entry<String, String> entity : reachableClasses(entities, introspector).entrySet()) {
+                if (!documentedClasses.contains(entity.getKey())) {
+                    report.add(Diagnostic.forDefinition(Severity.WARNING, entity.getKey(), null, Rule.UNDOCUMENTED_CLASS.getId(),
+                            Rule.UNDOCUMENTED_CLASS.getPattern(), entity.getValue()));
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Loads yaml from input stream.
+     */
+    public ValidationReport scan(InputStream is) throws IOException {
+        Map<String, Object> yaml = SwaggerValidator.load(is, ValidationMetrics.NOOP);
+        if (yaml == null) {
+            throw new ValidationException("Empty spec");
+        }
+        return scan(yaml);
+    }
+
+    /**
+     * Returns names of the classes annotated with @Path, sorted
+     */
+    private Set<String> indexResources() throws IOException {
+        final Set<String> resources = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, classPath.size())));
+        try {
+            List<Future<Void>> futures = new ArrayList<>(classPath.size());
+            for (final File entry : classPath) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        if (entry.isDirectory()) {
+                            scanDirectory(entry.toPath(), resources);
+                        } else if (entry.isFile()) {
+                            scanJar(entry, resources);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new ValidationException("Failed to scan the class path", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new TreeSet<>(resources);
+    }
+
+    private static void scanJar(File jar, Set<String> resources) throws IOException {
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.endsWith(CLASS_SUFFIX) && !name.startsWith("META-INF/") && !name.endsWith("module-info.class")) {
+                    try (InputStream is = zip.getInputStream(entry)) {
+                        scanClass(is, (int) entry.getSize(), resources);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void scanDirectory(Path directory, final Set<String> resources) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (file.getFileName().toString().endsWith(CLASS_SUFFIX)) {
+                    try (InputStream is = new FileInputStream(file.toFile())) {
+                        scanClass(is, (int) attrs.size(), resources);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Parses the class file only if its constant pool refers to @Path
+     */
+    private static void scanClass(InputStream is, int size, Set<String> resources) throws IOException {
+        byte[] bytes = readFully(is, size);
+        if (indexOf(bytes, PATH_DESCRIPTOR) == -1) {
+            return;
+        }
+        ClassFile classFile = ClassFile.read(new ByteArrayInputStream(bytes));
+        if (!classFile.isInterface() && classFile.getAnnotation(PATH) != null) {
+            resources.add(classFile.getName());
+        }
+    }
+
+    /**
+     * Collects the resource classes and their documented operations, as "class METHOD sub-path"
+     */
+    private static void indexPaths(Map<String, Object> yaml, BytecodeClassIntrospector introspector,
+                                   Set<String> documentedResources, Set<String> documentedOperations) {
+        Map<String, Object> paths = (Map<String, Object>) yaml.get(SwaggerValidator.PATHS);
+        if (paths == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> path : paths.entrySet()) {
+            if (!(path.getValue() instanceof Map)) {
+                continue;
+            }
+            Map<String, Object> resource = (Map<String, Object>) path.getValue();
+            String className = SwaggerValidator.getClassName(resource);
+            if (className == null) {
+                continue;
+            }
+            documentedResources.add(className);
+            String subPath;
+            try {
+                String classPath = introspector.createResourceDescriptor(className).getPath();
+                subPath = classPath != null ? ResourceIndex.subPath(ResourceIndex.normalize(classPath), ResourceIndex.normalize(path.getKey())) : null;
+            } catch (ClassNotFoundException e) {
+                subPath = null;
+            }
+            if (subPath == null) {
+                // reported by the validation
+                continue;
+            }
+            for (String operation : resource.keySet()) {
+                if (!operation.startsWith("x-")) {
+                    documentedOperations.add(operationKey(className, operation, subPath));
+                }
+            }
+        }
+    }
+
+    private static Set<String> definitionClassNames(Map<String, Object> yaml) {
+        Set<String> classNames = new HashSet<>();
+        Map<String, Object> definitions = (Map<String, Object>) yaml.get(SwaggerValidator.DEFINITIONS);
+        if (definitions != null) {
+            for (Object definition : definitions.values()) {
+                if (definition instanceof Map && SwaggerValidator.getClassName((Map<String, Object>) definition) != null) {
+                    classNames.add(SwaggerValidator.getClassName((Map<String, Object>) definition));
+                }
+            }
+        }
+        return classNames;
+    }
+
+    private static String operationKey(String className, String operation, String subPath) {
+        return className + ' ' + operation.toUpperCase(Locale.ENGLISH) + ' ' + subPath;
+    }
+
+    /**
+     * Returns the classes of the return type and of the entity parameter (the parameter without annotations)
+     */
+    private static List<String> entityClassNames(ClassFile.Member method) {
+        List<String> types = ClassFile.methodTypes(method.getSignature() != null ? method.getSignature() : method.getDescriptor());
+        List<List<ClassFile.Annotation>> parameterAnnotations = method.getParameterAnnotations();
+        List<String> classNames = new ArrayList<>();
+        for (int i = 0; i < types.size(); i++) {
+            boolean returnType = i == types.size() - 1;
+            // parameter annotations may be missing for the synthetic parameters
+            int annotationIndex = i - (types.size() - 1 - parameterAnnotations.size());
+            if (returnType || annotationIndex < 0 || parameterAnnotations.get(annotationIndex).isEmpty()) {
+                ClassFile.collectClassNames(types.get(i), classNames);
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Follows the fields of the entity classes, returns the application classes reached with the first resource using them.
+     * Classes of the JDK and JAX-RS, enums and classes missing from the class path are skipped.
+     */
+    private static Map<String, String> reachableClasses(Map<String, String> entities, BytecodeClassIntrospector introspector) {
+        Map<String, String> reached = new LinkedHashMap<>();
+        Deque<String> pending = new ArrayDeque<>(entities.keySet());
+        while (!pending.isEmpty()) {
+            String className = pending.poll();
+            if (reached.containsKey(className) || className.startsWith("java.") || className.startsWith("javax.")) {
+                continue;
+            }
+            String resource = entities.get(className);
+            List<String> fieldTypes = new ArrayList<>();
+            try {
+                ClassFile classFile = introspector.getClassFile(className);
+                if (classFile.isEnum() || classFile.isInterface()) {
+                    continue;
+                }
+                for (ClassFile searchType = classFile; searchType != null;
+                     searchType = searchType.getSuperName() != null ? introspector.getClassFile(searchType.getSuperName()) : null) {
+                    for (ClassFile.Member field : searchType.getFields()) {
+                        if (!field.isStatic()) {
+                            ClassFile.collectClassNames(field.getSignature() != null ? field.getSignature() : field.getDescriptor(), fieldTypes);
+                        }
+                    }
+                    if (searchType.getSuperName() == null || searchType.getSuperName().startsWith("java.")) {
+                        break;
+                    }
+                }
+            } catch (ClassNotFoundException e) {
+                continue;
+            }
+            reached.put(className, resource);
+            for (String fieldType : fieldTypes) {
+                if (!entities.containsKey(fieldType)) {
+                    entities.put(fieldType, resource);
+                }
+                pending.add(fieldType);
+            }
+        }
+        return reached;
+    }
+
+    private static String toPath(String normalized) {
+        return normalized.isEmpty() ? "/" : normalized;
+    }
+
+    private static URL[] toUrls(Collection<File> files) throws MalformedURLException {
+        URL[] urls = new URL[files.size()];
+        int i = 0;
+        for (File file : files) {
+            urls[i++] = file.toURI().toURL();
+        }
+        return urls;
+    }
+
+    /**
+     * @param size expected size, -1 if unknown
+     */
+    private static byte[] readFully(InputStream is, int size) throws IOException {
+        byte[] buffer = new byte[size > 0 ? size : 4096];
+        int length = 0;
+        int read;
+        while ((read = is.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                int next = is.read();
+                if (next == -1) {
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                buffer[length++] = (byte) next;
+            }
+        }
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
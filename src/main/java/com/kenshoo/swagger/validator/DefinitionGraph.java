@@ -0,0 +1,354 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Graph of the $ref dependencies between the definitions.
+ *
+ * References are collected from anywhere in the definition (properties, items, additionalProperties, allOf...).
+ * Definitions are indexed by their position in the document and the edges are kept in int adjacency arrays.
+ * Strongly connected components are found with the Tarjan algorithm, which gives the reference cycles
+ * and the order in which each definition comes after all the definitions it references.
+ *
+ * Immutable.
+ */
+final class DefinitionGraph {
+
+    private static final String REF = "$ref";
+    private static final String DEFINITIONS_REF_PREFIX = "#/definitions/";
+    private static final String PARAMETERS_REF_PREFIX = "#/parameters/";
+    private static final String RESPONSES_REF_PREFIX = "#/responses/";
+
+    private final String[] names;
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final int[] component;
+    private final int componentCount;
+    private final int[] order;
+    private final boolean[] reachable;
+    private final Set<String> undefinedReferences;
+
+    /**
+     * @param definitions the definitions section
+     * @param paths the paths section, where the reachability starts, or null if all the definitions are reachable
+     * @param parameters the parameters section, or null. The parameters referenced by the paths are reachability roots too
+     * @param responses the responses section, or null. The responses referenced by the paths are reachability roots too
+     */
+    DefinitionGraph(Map<String, Object> definitions, Map<String, Object> paths,
+                    Map<String, Object> parameters, Map<String, Object> responses) {
+        this.names = definitions.keySet().toArray(new String[definitions.size()]);
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indices.put(names[i], i);
+        }
+
+        Set<String> undefined = new LinkedHashSet<>();
+        List<int[]> adjacency = new ArrayList<>(names.length);
+        int edgeCount = 0;
+        for (String name : names) {
+            int[] targets = resolve(collectReferences(definitions.get(name)), indices, undefined);
+            adjacency.add(targets);
+            edgeCount += targets.length;
+        }
+        this.undefinedReferences = ImmutableSet.copyOf(undefined);
+
+        this.edgeOffsets = new int[names.length + 1];
+        this.edgeTargets = new int[edgeCount];
+        for (int i = 0; i < names.length; i++) {
+            int[] targets = adjacency.get(i);
+            System.arraycopy(targets, 0, edgeTargets, edgeOffsets[i], targets.length);
+            edgeOffsets[i + 1] = edgeOffsets[i] + targets.length;
+        }
+
+        this.component = new int[names.length];
+        this.componentCount = findComponents();
+        this.order = sortTopologically(componentCount);
+        this.reachable = new boolean[names.length];
+        if (paths == null) {
+            Arrays.fill(reachable, true);
+        } else {
+            Set<String> roots = collectReferences(paths);
+            roots.addAll(collectSharedReferences(paths, PARAMETERS_REF_PREFIX, parameters));
+            roots.addAll(collectSharedReferences(paths, RESPONSES_REF_PREFIX, responses));
+            markReachable(resolve(roots, indices, new LinkedHashSet<String>()));
+        }
+    }
+
+    /**
+     * Returns names of the definitions ordered so that each definition comes after the definitions it references,
+     * except within a cycle. Otherwise the document order is kept.
+     */
+    List<String> getOrder() {
+        ImmutableList.Builder<String> ordered = ImmutableList.builder();
+        for (int i : order) {
+            ordered.add(names[i]);
+        }
+        return ordered.build();
+    }
+
+    /**
+     * Returns the reference cycles, each as the names of the definitions in the document order.
+     * A definition referencing itself is a cycle of one definition.
+     */
+    List<List<String>> getCycles() {
+        int[] sizes = new int[componentCount];
+        for (int c : component) {
+            sizes[c]++;
+        }
+        Map<Integer, List<String>> cycles = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (sizes[component[i]] > 1 || referencesItself(i)) {
+                List<String> cycle = cycles.get(component[i]);
+                if (cycle == null) {
+                    cycle = new ArrayList<>();
+                    cycles.put(component[i], cycle);
+                }
+                cycle.add(names[i]);
+            }
+        }
+        return new ArrayList<>(cycles.values());
+    }
+
+    /**
+     * Returns names of the definitions that aren't referenced, directly or through other definitions, by any path
+     * or by the parameters and responses the paths reference
+     */
+    List<String> getUnreachable() {
+        List<String> unreachable = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (!reachable[i]) {
+                unreachable.add(names[i]);
+            }
+        }
+        return unreachable;
+    }
+
+    /**
+     * Returns the referenced names that are not defined
+     */
+    Set<String> getUndefinedReferences() {
+        return undefinedReferences;
+    }
+
+    private boolean referencesItself(int i) {
+        for (int e = edgeOffsets[i]; e < edgeOffsets[i + 1]; e++) {
+            if (edgeTargets[e] == i) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tarjan algorithm, without recursion so that long reference chains don't overflow the stack.
+     * Components are numbered in the reverse topological order: a component is numbered after all the components it references.
+     *
+     * @return number of the components
+     */
+    private int findComponents() {
+        int n = names.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        Arrays.fill(index, -1);
+        int nextIndex = 0;
+        int components = 0;
+        int sp = 0;
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int csp = 0;
+            callNode[csp] = root;
+            callEdge[csp++] = edgeOffsets[root];
+            index[root] = low[root] = nextIndex++;
+            stack[sp++] = root;
+            onStack[root] = true;
+            while (csp > 0) {
+                int v = callNode[csp - 1];
+                if (callEdge[csp - 1] < edgeOffsets[v + 1]) {
+                    int w = edgeTargets[callEdge[csp - 1]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = nextIndex++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        callNode[csp] = w;
+                        callEdge[csp++] = edgeOffsets[w];
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                } else {
+                    csp--;
+                    if (csp > 0) {
+                        int parent = callNode[csp - 1];
+                        low[parent] = Math.min(low[parent], low[v]);
+                    }
+                    if (low[v] == index[v]) {
+                        int w;
+                        do {
+                            w = stack[--sp];
+                            onStack[w] = false;
+                            component[w] = components;
+                        } while (w != v);
+                        components++;
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Kahn algorithm over the components, emitting first the available component that appears first in the document
+     */
+    private int[] sortTopologically(int components) {
+        final int[] firstMember = new int[components];
+        Arrays.fill(firstMember, Integer.MAX_VALUE);
+        int[] pending = new int[components];
+        List<List<Integer>> members = new ArrayList<>(components);
+        List<List<Integer>> dependents = new ArrayList<>(components);
+        for (int c = 0; c < components; c++) {
+            members.add(new ArrayList<Integer>());
+            dependents.add(new ArrayList<Integer>());
+        }
+        for (int v = 0; v < names.length; v++) {
+            firstMember[component[v]] = Math.min(firstMember[component[v]], v);
+            members.get(component[v]).add(v);
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                int dependency = component[edgeTargets[e]];
+                if (dependency != component[v]) {
+                    pending[component[v]]++;
+                    dependents.get(dependency).add(component[v]);
+                }
+            }
+        }
+        PriorityQueue<Integer> available = new PriorityQueue<>(Math.max(1, components), new Comparator<Integer>() {
+            @Override
+            public int compare(Integer c1, Integer c2) {
+                return Integer.compare(firstMember[c1], firstMember[c2]);
+            }
+        });
+        for (int c = 0; c < components; c++) {
+            if (pending[c] == 0) {
+                available.add(c);
+            }
+        }
+        int[] sorted = new int[names.length];
+        int next = 0;
+        while (!available.isEmpty()) {
+            int c = available.poll();
+            for (int v : members.get(c)) {
+                sorted[next++] = v;
+            }
+            for (int dependent : dependents.get(c)) {
+                if (--pending[dependent] == 0) {
+                    available.add(dependent);
+                }
+            }
+        }
+        return sorted;
+    }
+
+    private void markReachable(int[] roots) {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int root : roots) {
+            if (!reachable[root]) {
+                reachable[root] = true;
+                queue.add(root);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                int w = edgeTargets[e];
+                if (!reachable[w]) {
+                    reachable[w] = true;
+                    queue.add(w);
+                }
+            }
+        }
+    }
+
+    private static int[] resolve(Collection<String> references, Map<String, Integer> indices, Set<String> undefined) {
+        int[] targets = new int[references.size()];
+        int count = 0;
+        for (String reference : references) {
+            Integer target = indices.get(reference);
+            if (target == null) {
+                undefined.add(reference);
+            } else {
+                targets[count++] = target;
+            }
+        }
+        return Arrays.copyOf(targets, count);
+    }
+
+    /**
+     * Returns the definitions referenced by the entries of the section that the yaml subtree references
+     */
+    private static Set<String> collectSharedReferences(Object yaml, String prefix, Map<String, Object> section) {
+        Set<String> references = new LinkedHashSet<>();
+        if (section != null) {
+            for (String name : collectReferences(yaml, prefix)) {
+                references.addAll(collectReferences(section.get(name)));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Returns the definitions referenced anywhere in the yaml subtree, each once
+     */
+    static Set<String> collectReferences(Object yaml) {
+        return collectReferences(yaml, DEFINITIONS_REF_PREFIX);
+    }
+
+    /**
+     * Returns the names referenced with the prefix (e.g. "#/definitions/") anywhere in the yaml subtree, each once
+     */
+    private static Set<String> collectReferences(Object yaml, String prefix) {
+        Set<String> references = new LinkedHashSet<>();
+        Deque<Object> pending = new ArrayDeque<>();
+        if (yaml != null) {
+            pending.push(yaml);
+        }
+        while (!pending.isEmpty()) {
+            Object node = pending.pop();
+            if (node instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                    Object value = entry.getValue();
+                    if (REF.equals(entry.getKey()) && value instanceof String && ((String) value).startsWith(prefix)) {
+                        references.add(((String) value).substring(prefix.length()));
+                    } else if (value != null) {
+                        pending.push(value);
+                    }
+                }
+            } else if (node instanceof List) {
+                for (Object item : (List<?>) node) {
+                    if (item != null) {
+                        pending.push(item);
+                    }
+                }
+            }
+        }
+        return references;
+    }
+}
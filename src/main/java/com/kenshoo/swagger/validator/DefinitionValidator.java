@@ -1,53 +1,101 @@
 package com.kenshoo.swagger.validator;
 
-import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 
 
+/**
+ * Validates the properties of a definition, and their nested items and properties, depth first.
+ * The nested properties are validated from an explicit stack rather than recursively,
+ * so the depth of the document doesn't grow the call stack.
+ */
 class DefinitionValidator implements Validator {
 
     private final String name;
     private final Map<String, Object> definition;
     private final SwaggerValidator swaggerValidator;
+    private final EntryDiagnostics diagnostics;
+    private final Deque<Validator> pending = new ArrayDeque<>();
 
-    public DefinitionValidator(SwaggerValidator swaggerValidator, String name, Map<String, Object> definition) {
+    public DefinitionValidator(SwaggerValidator swaggerValidator, String name, Map<String, Object> definition, EntryDiagnostics diagnostics) {
         this.swaggerValidator = swaggerValidator;
         this.name = name;
         this.definition = definition;
+        this.diagnostics = diagnostics;
     }
 
     public void validate() {
         try {
-            Class<?> cls = SwaggerValidator.getClass(definition);
-            if (cls == null) {
-                handleError("{0} is not defined.", SwaggerValidator.JAVA_CLASS_TAG);
+            String className = SwaggerValidator.getClassName(definition);
+            if (className == null) {
+                handleError(Rule.JAVA_CLASS_NOT_DEFINED, SwaggerValidator.JAVA_CLASS_TAG);
+                return;
             }
-            PropertyDescriptor propertyDescriptor = getConf().createPropertyDescriptor(cls);
+            PropertyDescriptor propertyDescriptor = swaggerValidator.getIntrospector().createPropertyDescriptor(className);
+            long start = swaggerValidator.isTimed() ? System.nanoTime() : 0;
             Map<String, Object> properties = (Map<String, Object>) definition.get("properties");
+            List<Validator> validators = new ArrayList<>(properties.size());
             for (Map.Entry<String, Object> propEntry : properties.entrySet()) {
-                new PropertyValidator(this, propEntry.getKey(), (Map<String, Object>) propEntry.getValue(), propertyDescriptor).validate();
+                validators.add(new PropertyValidator(this, propEntry.getKey(), (Map<String, Object>) propEntry.getValue(), propertyDescriptor));
+            }
+            schedule(validators);
+            while (!pending.isEmpty()) {
+                pending.pop().validate();
+            }
+            if (swaggerValidator.isTimed()) {
+                swaggerValidator.getMetrics().recordStage(ValidationMetrics.Stage.RULE_EVALUATION, System.nanoTime() - start);
             }
         } catch (ClassNotFoundException e) {
-            handleError("Class not found {0}", e.getMessage());
+            handleError(Rule.CLASS_NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Schedules the validators to run next, in the given order
+     */
+    void schedule(List<Validator> validators) {
+        for (int i = validators.size() - 1; i >= 0; i--) {
+            pending.push(validators.get(i));
         }
     }
 
     public void addDefinitionToValidate(String definition) {
-        swaggerValidator.addDefinitionToValidate(definition);
+        diagnostics.addReference(definition);
+    }
+
+    /**
+     * Records a class the result depends on, see EntryDiagnostics.addClass()
+     */
+    void addClass(Class<?> cls) {
+        diagnostics.addClass(cls);
     }
 
-    public void handleError(String msg, Object... arguments) {
-        String formatted = handleWarning(msg, arguments);
-        throw new ValidationException(formatted);
+    public void handleError(Rule rule, Object... arguments) {
+        report(Severity.ERROR, null, rule.getId(), rule.getPattern(), arguments);
     }
 
-    public String handleWarning(String msg, Object... arguments) {
-        String formatted = MessageFormat.format("Definition: {0}: {1}", name, MessageFormat.format(msg, arguments));
-        System.out.println(formatted);
-        return formatted;
+    public void handleWarning(Rule rule, Object... arguments) {
+        report(Severity.WARNING, null, rule.getId(), rule.getPattern(), arguments);
+    }
+
+    Diagnostic report(Severity severity, String property, String ruleId, String pattern, Object... arguments) {
+        Diagnostic diagnostic = Diagnostic.forDefinition(severity, name, property, ruleId, pattern, arguments);
+        diagnostics.report(diagnostic);
+        return diagnostic;
     }
 
     public SwaggerValidatorConf getConf() {
         return swaggerValidator.getConf();
     }
+
+    ValidationPlan getPlan() {
+        return swaggerValidator.getPlan();
+    }
+
+    ClassIntrospector getIntrospector() {
+        return swaggerValidator.getIntrospector();
+    }
 }
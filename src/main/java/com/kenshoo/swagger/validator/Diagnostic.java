@@ -0,0 +1,116 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single problem found by the validator.
+ *
+ * Diagnostic refers either to a definition or to a path, and optionally to a property of the definition.
+ * The message is rendered lazily from the pre-parsed template of the pattern, on the first call to getMessage() or toString().
+ *
+ * Immutable, except the lazily formatted message.
+ */
+public final class Diagnostic {
+
+    private final Severity severity;
+    private final String definition;
+    private final String path;
+    private final String property;
+    private final String ruleId;
+    private final String pattern;
+    private final Object[] arguments;
+    private volatile String message;
+
+    private Diagnostic(Severity severity, String definition, String path, String property, String ruleId, String pattern, Object[] arguments) {
+        this.severity = severity;
+        this.definition = definition;
+        this.path = path;
+        this.property = property;
+        this.ruleId = ruleId;
+        this.pattern = pattern;
+        this.arguments = arguments;
+    }
+
+    static Diagnostic forDefinition(Severity severity, String definition, String property, String ruleId, String pattern, Object... arguments) {
+        return new Diagnostic(severity, definition, null, property, ruleId, pattern, arguments);
+    }
+
+    static Diagnostic create(Severity severity, String definition, String path, String property, String ruleId, String pattern, Object... arguments) {
+        return new Diagnostic(severity, definition, path, property, ruleId, pattern, arguments);
+    }
+
+    static Diagnostic forPath(Severity severity, String path, String ruleId, String pattern, Object... arguments) {
+        return new Diagnostic(severity, null, path, null, ruleId, pattern, arguments);
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Name of the definition or null if the diagnostic refers to a path
+     */
+    public String getDefinition() {
+        return definition;
+    }
+
+    /**
+     * The path or null if the diagnostic refers to a definition
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Name of the property or null if the diagnostic refers to the whole definition or path
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Id of the violated rule (See Rule), or Rule.CUSTOM_ID for the messages of the custom validators
+     */
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+
+    public List<Object> getArguments() {
+        return Collections.unmodifiableList(Arrays.asList(arguments));
+    }
+
+    /**
+     * Returns the message without the definition/path and property prefix
+     */
+    public String getMessage() {
+        String formatted = message;
+        if (formatted == null) {
+            formatted = MessageTemplate.of(pattern).render(arguments);
+            message = formatted;
+        }
+        return formatted;
+    }
+
+    /**
+     * Returns the full message, e.g. "Definition: user: Property id: Is a primitive. Only objects must be used."
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (definition != null) {
+            sb.append("Definition: ").append(definition).append(": ");
+        } else {
+            sb.append("Path: ").append(path).append(": ");
+        }
+        if (property != null) {
+            sb.append("Property ").append(property).append(": ");
+        }
+        return sb.append(getMessage()).toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * Receives the diagnostics of the fail fast validation, e.g. validateDefinitions() without a report.
+ * The diagnostics collected into a ValidationReport are not passed to the sink.
+ *
+ * The validator calls the sink from the validating thread only, and flushes it when the validation completes
+ * or fails, so an implementation may buffer the diagnostics.
+ *
+ * @see PrintStreamDiagnosticSink
+ * @see SwaggerValidatorConf#getDiagnosticSink()
+ */
+public interface DiagnosticSink {
+
+    DiagnosticSink NOOP = new DiagnosticSink() {
+        @Override
+        public void report(Diagnostic diagnostic) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    void report(Diagnostic diagnostic);
+
+    /**
+     * Called when the validation completes or fails
+     */
+    void flush();
+}
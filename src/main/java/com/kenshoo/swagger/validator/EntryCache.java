@@ -0,0 +1,21 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.Map;
+
+/**
+ * Keeps the results of validated definitions and paths, so the unchanged entries are not validated again.
+ */
+interface EntryCache {
+
+    /**
+     * Returns the diagnostics of the entry if it's unchanged since it was put, otherwise null.
+     *
+     * @param section SwaggerValidator.DEFINITIONS or SwaggerValidator.PATHS
+     */
+    EntryDiagnostics get(String section, String name, Map<String, Object> entry);
+
+    /**
+     * Stores the diagnostics of the entry, validated without failing on the first error.
+     */
+    void put(String section, String name, Map<String, Object> entry, EntryDiagnostics diagnostics);
+}
@@ -0,0 +1,85 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Collects diagnostics, referenced definitions and introspected classes of a single definition or path.
+ *
+ * In fail fast mode, reporting an error throws a ValidationException, which stops the validation of the entry.
+ */
+class EntryDiagnostics {
+
+    private final boolean failFast;
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private final List<String> references = new ArrayList<>();
+    private final Set<String> classes = new TreeSet<>();
+
+    EntryDiagnostics(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Creates already completed diagnostics, e.g. restored from ValidationIndex.
+     */
+    EntryDiagnostics(List<Diagnostic> diagnostics, List<String> references) {
+        this.failFast = false;
+        this.diagnostics.addAll(diagnostics);
+        this.references.addAll(references);
+    }
+
+    void report(Diagnostic diagnostic) {
+        diagnostics.add(diagnostic);
+        if (failFast && diagnostic.getSeverity() == Severity.ERROR) {
+            throw new ValidationException(diagnostic.toString());
+        }
+    }
+
+    void addReference(String definition) {
+        references.add(definition);
+    }
+
+    /**
+     * Records a class introspected by the validation besides x-javaClass, e.g. an enum whose constants were checked
+     */
+    void addClass(Class<?> cls) {
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (!cls.isPrimitive() && !cls.getName().startsWith("java.")) {
+            classes.add(cls.getName());
+        }
+    }
+
+    List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Names of the definitions referenced by the entry
+     */
+    List<String> getReferences() {
+        return references;
+    }
+
+    /**
+     * Binary names of the introspected classes, sorted
+     */
+    Set<String> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Returns the first error or null if there are no errors
+     */
+    Diagnostic getFirstError() {
+        for (Diagnostic diagnostic : diagnostics) {
+            if (diagnostic.getSeverity() == Severity.ERROR) {
+                return diagnostic;
+            }
+        }
+        return null;
+    }
+}
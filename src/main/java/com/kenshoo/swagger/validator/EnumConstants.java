@@ -0,0 +1,142 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+/**
+ * JVM wide cache of the serialized names of the enum constants, as Jackson writes them:
+ * the value of the @JsonValue method, the @JsonProperty name of the constant, or its name.
+ *
+ * Both com.fasterxml.jackson and org.codehaus.jackson annotations are recognized, matched by name
+ * the same as by BeanPropertyDescriptor. Enum classes are referenced weakly, so the cache doesn't prevent class unloading.
+ *
+ * The names can also be read from the class file of the enum, without running its code, except for the values
+ * of a @JsonValue method.
+ *
+ * Thread safe.
+ */
+final class EnumConstants {
+
+    private static final Set<String> JSON_VALUE = ImmutableSet.of(
+            "com.fasterxml.jackson.annotation.JsonValue", "org.codehaus.jackson.annotate.JsonValue");
+    private static final Set<String> JSON_PROPERTY = ImmutableSet.of(
+            "com.fasterxml.jackson.annotation.JsonProperty", "org.codehaus.jackson.annotate.JsonProperty");
+
+    private static final LoadingCache<Class<?>, Set<String>> constants = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Class<?>, Set<String>>() {
+                @Override
+                public Set<String> load(Class<?> enumClass) {
+                    return readConstants(enumClass);
+                }
+            });
+
+    private EnumConstants() {
+    }
+
+    /**
+     * Returns the serialized names of the constants of the enum class, in the declaration order
+     */
+    static Set<String> get(Class<?> enumClass) {
+        return constants.getUnchecked(enumClass);
+    }
+
+    /**
+     * Returns the serialized names of the constants declared by the class file, in the declaration order,
+     * or null if the enum is serialized by a @JsonValue method
+     */
+    static Set<String> read(ClassFile classFile) {
+        for (ClassFile.Member method : classFile.getMethods()) {
+            if (!method.isStatic() && method.getDescriptor().startsWith("()")) {
+                ClassFile.Annotation annotation = findAnnotation(method, JSON_VALUE);
+                // boolean elements are int constants in the class file
+                if (annotation != null && !Integer.valueOf(0).equals(annotation.getValue("value"))) {
+                    return null;
+                }
+            }
+        }
+        ImmutableSet.Builder<String> names = ImmutableSet.builder();
+        for (ClassFile.Member field : classFile.getFields()) {
+            if (field.isEnumConstant()) {
+                ClassFile.Annotation jsonProperty = findAnnotation(field, JSON_PROPERTY);
+                Object value = jsonProperty != null ? jsonProperty.getValue("value") : null;
+                names.add(value instanceof String && !((String) value).isEmpty() ? (String) value : field.getName());
+            }
+        }
+        return names.build();
+    }
+
+    private static Set<String> readConstants(Class<?> enumClass) {
+        Method jsonValue = findJsonValue(enumClass);
+        ImmutableSet.Builder<String> names = ImmutableSet.builder();
+        for (Object constant : enumClass.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name();
+            if (jsonValue != null) {
+                names.add(String.valueOf(invoke(jsonValue, constant)));
+                continue;
+            }
+            try {
+                Annotation jsonProperty = findAnnotation(enumClass.getField(name), JSON_PROPERTY);
+                Object value = jsonProperty != null ? AnnotationUtils.getValue(jsonProperty) : null;
+                names.add(value instanceof String && !((String) value).isEmpty() ? (String) value : name);
+            } catch (NoSuchFieldException e) {
+                names.add(name);
+            }
+        }
+        return names.build();
+    }
+
+    /**
+     * Returns the public method annotated with an enabled @JsonValue, or null
+     */
+    private static Method findJsonValue(Class<?> enumClass) {
+        for (Method method : enumClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterTypes().length != 0) {
+                continue;
+            }
+            Annotation annotation = findAnnotation(method, JSON_VALUE);
+            if (annotation != null && !Boolean.FALSE.equals(AnnotationUtils.getValue(annotation))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Object invoke(Method method, Object constant) {
+        try {
+            // the method of a non public enum is not accessible, though public
+            method.setAccessible(true);
+            return method.invoke(constant);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new ValidationException("Can't read " + method + " of " + constant, e);
+        }
+    }
+
+    private static ClassFile.Annotation findAnnotation(ClassFile.Member member, Set<String> types) {
+        for (ClassFile.Annotation annotation : member.getAnnotations()) {
+            if (types.contains(annotation.getType())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static Annotation findAnnotation(AnnotatedElement element, Set<String> types) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (types.contains(annotation.annotationType().getName())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+}
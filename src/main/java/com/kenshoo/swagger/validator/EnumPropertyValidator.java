@@ -1,26 +1,66 @@
 package com.kenshoo.swagger.validator;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @SinglePropValidator("enum")
 public class EnumPropertyValidator extends InnerPropertyValidator {
-    private final List<String> validValues;
+    private final List<?> validValues;
 
     public EnumPropertyValidator(PropertyValidator parent, Object validValues) {
         super(parent);
-        this.validValues = (List<String>) validValues;
+        this.validValues = (List<?>) validValues;
     }
 
     @Override
     public void validate() {
-        if (validValues == null)
-            handleError("Enum is empty!");
+        if (validValues == null || validValues.isEmpty())
+            handleError(Rule.ENUM_EMPTY);
         else if (!parent.getPropType().equals(String.class)) {
-            handleWarning("It's recommended to use String with enums!");
+            handleWarning(Rule.ENUM_NOT_STRING);
             if (parent.getPropType().isEnum()) {
-                // TODO: validate valid values
+                parent.addClass(parent.getPropType());
+                validateValues();
             } else {
-                handleError("Must be either Enum or String");
+                handleError(Rule.ENUM_INVALID_TYPE);
+            }
+        }
+    }
+
+    /**
+     * Each value must be a constant of the enum, and each constant must be listed.
+     * A BytecodeClassIntrospector reads the constants from the class file, so the code of the enum never runs.
+     */
+    private void validateValues() {
+        Class<?> enumType = parent.getPropType();
+        Set<String> constants;
+        ClassIntrospector introspector = parent.getIntrospector();
+        if (introspector instanceof BytecodeClassIntrospector) {
+            try {
+                constants = ((BytecodeClassIntrospector) introspector).getEnumConstants(enumType.getName());
+            } catch (ClassNotFoundException e) {
+                handleError(Rule.CLASS_NOT_FOUND, e.getMessage());
+                return;
+            }
+            if (constants == null) {
+                handleWarning(Rule.ENUM_VALUES_NOT_CHECKED, enumType.getName());
+                return;
+            }
+        } else {
+            constants = EnumConstants.get(enumType);
+        }
+        Set<String> values = new HashSet<>(validValues.size());
+        for (Object value : validValues) {
+            String name = String.valueOf(value);
+            values.add(name);
+            if (!constants.contains(name)) {
+                handleError(Rule.ENUM_VALUE_NOT_FOUND, name, parent.getPropType().getName());
+            }
+        }
+        for (String constant : constants) {
+            if (!values.contains(constant)) {
+                handleWarning(Rule.ENUM_CONSTANT_NOT_LISTED, constant, parent.getPropType().getName());
             }
         }
     }
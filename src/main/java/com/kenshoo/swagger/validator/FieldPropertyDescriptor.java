@@ -1,24 +1,21 @@
 package com.kenshoo.swagger.validator;
 
-import org.springframework.util.ReflectionUtils;
 
-import java.lang.reflect.Field;
+public class FieldPropertyDescriptor implements GenericPropertyDescriptor {
 
-
-public class FieldPropertyDescriptor implements PropertyDescriptor{
-
-    private final Class<?> cls;
+    private final ClassMetadata metadata;
 
     public FieldPropertyDescriptor(Class<?> cls) {
-        this.cls = cls;
+        this.metadata = ClassMetadataCache.get(cls);
     }
 
     @Override
     public Class<?> getType(String propName) {
-        Field field = ReflectionUtils.findField(cls, propName);
-        if (field != null) {
-            return field.getType();
-        }
-        return null;
+        return metadata.getFieldType(propName);
+    }
+
+    @Override
+    public Class<?> getElementType(String propName) {
+        return metadata.getFieldElementType(propName);
     }
 }
@@ -0,0 +1,15 @@
+package com.kenshoo.swagger.validator;
+
+
+/**
+ * Property descriptor that resolves also the element types of the array and collection properties,
+ * which enables the validation of 'items' against the element type.
+ */
+public interface GenericPropertyDescriptor extends PropertyDescriptor {
+
+    /**
+     * Returns the element type of an array or collection property (e.g. Foo for List&lt;Foo&gt; or Foo[]),
+     * or null if the property is not found, is not an array or collection, or its element type is unknown.
+     */
+    Class<?> getElementType(String propName);
+}
@@ -0,0 +1,272 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the validation metrics into histograms and counters, and dumps them as a text summary.
+ *
+ * Timings are kept in power of two buckets, so the percentiles are upper bounds with at most 2x error.
+ * The slowest entries are kept, up to the configured number.
+ *
+ * Example:
+ * <pre>
+ * final HistogramValidationMetrics metrics = new HistogramValidationMetrics();
+ * SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+ *     public ValidationMetrics getValidationMetrics() {
+ *         return metrics;
+ *     }
+ * };
+ * new SwaggerValidator(is, conf).validateAll();
+ * System.out.println(metrics.dump());
+ * </pre>
+ *
+ * Thread safe.
+ */
+public class HistogramValidationMetrics implements ValidationMetrics {
+
+    private static final int DEFAULT_SLOWEST_ENTRIES = 10;
+
+    private final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+    private final Histogram entries = new Histogram();
+    private final ConcurrentMap<String, AtomicLong> ruleCounts = new ConcurrentHashMap<>();
+    private final AtomicLongArray cacheHits = new AtomicLongArray(Cache.values().length);
+    private final AtomicLongArray cacheMisses = new AtomicLongArray(Cache.values().length);
+    private final int maxSlowestEntries;
+    private final PriorityQueue<EntryTiming> slowestEntries;
+
+    /**
+     * @param maxSlowestEntries number of the slowest definitions and paths to keep
+     */
+    public HistogramValidationMetrics(int maxSlowestEntries) {
+        this.maxSlowestEntries = maxSlowestEntries;
+        this.slowestEntries = new PriorityQueue<>(Math.max(1, maxSlowestEntries), EntryTiming.BY_NANOS);
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Histogram());
+        }
+    }
+
+    public HistogramValidationMetrics() {
+        this(DEFAULT_SLOWEST_ENTRIES);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordStage(Stage stage, long nanos) {
+        stages.get(stage).record(nanos);
+    }
+
+    @Override
+    public void recordEntry(String section, String name, long nanos) {
+        entries.record(nanos);
+        if (maxSlowestEntries == 0) {
+            return;
+        }
+        synchronized (slowestEntries) {
+            if (slowestEntries.size() < maxSlowestEntries) {
+                slowestEntries.add(new EntryTiming(section, name, nanos));
+            } else if (slowestEntries.peek().nanos < nanos) {
+                slowestEntries.poll();
+                slowestEntries.add(new EntryTiming(section, name, nanos));
+            }
+        }
+    }
+
+    @Override
+    public void recordDiagnostic(Diagnostic diagnostic) {
+        AtomicLong count = ruleCounts.get(diagnostic.getRuleId());
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = ruleCounts.putIfAbsent(diagnostic.getRuleId(), newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void recordCacheLookup(Cache cache, boolean hit) {
+        (hit ? cacheHits : cacheMisses).incrementAndGet(cache.ordinal());
+    }
+
+    public long getCount(Stage stage) {
+        return stages.get(stage).count.get();
+    }
+
+    public long getTotalNanos(Stage stage) {
+        return stages.get(stage).total.get();
+    }
+
+    public long getEntryCount() {
+        return entries.count.get();
+    }
+
+    /**
+     * Returns number of diagnostics reported for the rule
+     */
+    public long getRuleCount(String ruleId) {
+        AtomicLong count = ruleCounts.get(ruleId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups, or NaN if there were no lookups
+     */
+    public double getCacheHitRate(Cache cache) {
+        long hits = cacheHits.get(cache.ordinal());
+        long lookups = hits + cacheMisses.get(cache.ordinal());
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the slowest definitions and paths, the slowest first
+     */
+    public List<EntryTiming> getSlowestEntries() {
+        List<EntryTiming> slowest;
+        synchronized (slowestEntries) {
+            slowest = new ArrayList<>(slowestEntries);
+        }
+        Collections.sort(slowest, Collections.reverseOrder(EntryTiming.BY_NANOS));
+        return slowest;
+    }
+
+    /**
+     * Returns the summary of all the metrics
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ENGLISH, "%-16s %10s %12s %10s %10s %10s%n", "stage", "count", "total ms", "p50 ms", "p99 ms", "max ms"));
+        for (Stage stage : Stage.values()) {
+            stages.get(stage).append(sb, stage.name().toLowerCase(Locale.ENGLISH));
+        }
+        entries.append(sb, "entry");
+
+        sb.append(String.format(Locale.ENGLISH, "%n%-16s %10s %10s%n", "cache", "lookups", "hit rate"));
+        for (Cache cache : Cache.values()) {
+            long lookups = cacheHits.get(cache.ordinal()) + cacheMisses.get(cache.ordinal());
+            if (lookups > 0) {
+                sb.append(String.format(Locale.ENGLISH, "%-16s %10d %9.1f%%%n",
+                        cache.name().toLowerCase(Locale.ENGLISH), lookups, getCacheHitRate(cache) * 100));
+            }
+        }
+
+        if (!ruleCounts.isEmpty()) {
+            sb.append(String.format(Locale.ENGLISH, "%n%-28s %10s%n", "rule", "count"));
+            for (Map.Entry<String, AtomicLong> entry : new TreeMap<>(ruleCounts).entrySet()) {
+                sb.append(String.format(Locale.ENGLISH, "%-28s %10d%n", entry.getKey(), entry.getValue().get()));
+            }
+        }
+
+        List<EntryTiming> slowest = getSlowestEntries();
+        if (!slowest.isEmpty()) {
+            sb.append(String.format(Locale.ENGLISH, "%nslowest entries%n"));
+            for (EntryTiming entry : slowest) {
+                sb.append(String.format(Locale.ENGLISH, "%10.3f ms  %s%n", toMillis(entry.nanos), entry));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return dump();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public static final class EntryTiming {
+        private static final Comparator<EntryTiming> BY_NANOS = new Comparator<EntryTiming>() {
+            @Override
+            public int compare(EntryTiming o1, EntryTiming o2) {
+                return Long.compare(o1.nanos, o2.nanos);
+            }
+        };
+
+        private final String section;
+        private final String name;
+        private final long nanos;
+
+        private EntryTiming(String section, String name, long nanos) {
+            this.section = section;
+            this.name = name;
+            this.nanos = nanos;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return section + ": " + name;
+        }
+    }
+
+    /**
+     * Histogram with a bucket per power of two nanoseconds
+     */
+    private static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(value | 1));
+            count.incrementAndGet();
+            total.addAndGet(value);
+            long currentMax = max.get();
+            while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+                currentMax = max.get();
+            }
+        }
+
+        /**
+         * Returns the upper bound of the bucket containing the percentile
+         */
+        private long percentile(double percentile) {
+            long threshold = (long) Math.ceil(count.get() * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= threshold && seen > 0) {
+                    return Math.min(max.get(), (2L << i) - 1);
+                }
+            }
+            return max.get();
+        }
+
+        private void append(StringBuilder sb, String label) {
+            sb.append(String.format(Locale.ENGLISH, "%-16s %10d %12.3f %10.3f %10.3f %10.3f%n", label, count.get(),
+                    toMillis(total.get()), toMillis(percentile(0.5)), toMillis(percentile(0.99)), toMillis(max.get())));
+        }
+    }
+}
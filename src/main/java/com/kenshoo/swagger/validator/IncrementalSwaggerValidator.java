@@ -0,0 +1,77 @@
+package com.kenshoo.swagger.validator;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Validates swagger.yaml, skipping the definitions and paths that didn't change since the previous validation.
+ *
+ * The results are kept in the index file between the runs. An entry is validated again if its yaml,
+ * the bytecode of its x-javaClass (or of the superclasses), or any definition it references by $ref changed.
+ * Diagnostics of the skipped entries are restored from the index, so the report is the same as of the full validation.
+ *
+ * Note on synchronization: Class is not synchronized, don't share the index file between concurrent validations!
+ */
+public class IncrementalSwaggerValidator {
+
+    private final Map<String, Object> yaml;
+    private final SwaggerValidatorConf conf;
+    private final File indexFile;
+    private final ClassLoader classLoader;
+    private int skippedEntries;
+
+    /**
+     * @param classLoader reads the bytecode of the classes for the index, e.g. the class loader
+     *                    of a BytecodeClassIntrospector returned by conf
+     */
+    public IncrementalSwaggerValidator(Map<String, Object> yaml, SwaggerValidatorConf conf, File indexFile, ClassLoader classLoader) {
+        this.yaml = yaml;
+        this.conf = conf;
+        this.indexFile = indexFile;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Reads the bytecode of the classes by the class loader of the validator.
+     */
+    public IncrementalSwaggerValidator(Map<String, Object> yaml, SwaggerValidatorConf conf, File indexFile) {
+        this(yaml, conf, indexFile, SwaggerValidator.class.getClassLoader());
+    }
+
+    /**
+     * Loads yaml from input stream.
+     */
+    public IncrementalSwaggerValidator(InputStream is, SwaggerValidatorConf conf, File indexFile) {
+        this(SwaggerValidator.load(is, conf.getValidationMetrics()), conf, indexFile);
+    }
+
+    /**
+     * Loads yaml from input stream, reading the bytecode of the classes by the class loader.
+     */
+    public IncrementalSwaggerValidator(InputStream is, SwaggerValidatorConf conf, File indexFile, ClassLoader classLoader) {
+        this(SwaggerValidator.load(is, conf.getValidationMetrics()), conf, indexFile, classLoader);
+    }
+
+    /**
+     * Validates both definitions and resources without failing on the first error, then updates the index.
+     */
+    public ValidationReport validateAll() throws IOException {
+        ValidationIndex index = ValidationIndex.load(indexFile, yaml, conf, classLoader);
+        SwaggerValidator swaggerValidator = new SwaggerValidator(yaml, conf);
+        swaggerValidator.setEntryCache(index);
+        ValidationReport report = swaggerValidator.validateAll();
+        index.store(indexFile);
+        skippedEntries = index.getRestored();
+        return report;
+    }
+
+    /**
+     * Number of entries restored from the index by the last validateAll()
+     */
+    public int getSkippedEntries() {
+        return skippedEntries;
+    }
+}
@@ -9,6 +9,14 @@ public abstract class InnerPropertyValidator implements Validator {
         this.parent = parent;
     }
 
+    protected void handleError(Rule rule, Object... arguments) {
+        parent.handleError(rule, arguments);
+    }
+
+    protected void handleWarning(Rule rule, Object... arguments) {
+        parent.handleWarning(rule, arguments);
+    }
+
     protected void handleError(String msg, Object... arguments) {
         parent.handleError(msg, arguments);
     }
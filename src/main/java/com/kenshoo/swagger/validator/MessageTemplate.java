@@ -0,0 +1,144 @@
+package com.kenshoo.swagger.validator;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A MessageFormat pattern parsed once, rendered without creating a MessageFormat.
+ *
+ * Renders the same text as MessageFormat.format(): single quotes escape, '' is a quote and {n} is replaced
+ * by the n-th argument. Patterns with a format type (e.g. {0,number}) and Number or Date arguments
+ * are rendered by MessageFormat, since their text depends on the locale.
+ *
+ * Templates of the rules are parsed on startup, custom patterns on their first use.
+ *
+ * Immutable.
+ */
+final class MessageTemplate {
+
+    /**
+     * Custom validators may report a preformatted message, so the cache is bounded
+     */
+    private static final int MAX_CACHED = 1024;
+    private static final ConcurrentMap<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    /**
+     * Literal segments, segments[i] precedes the argument argumentIndexes[i]
+     */
+    private final String[] segments;
+    private final int[] argumentIndexes;
+    private final boolean simple;
+
+    private MessageTemplate(String pattern) {
+        this.pattern = pattern;
+        List<String> segments = new ArrayList<>();
+        List<Integer> argumentIndexes = new ArrayList<>();
+        boolean simple = true;
+        StringBuilder segment = new StringBuilder();
+        boolean inQuote = false;
+        int i = 0;
+        while (i < pattern.length() && simple) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    segment.append(c);
+                    i++;
+                } else {
+                    inQuote = !inQuote;
+                }
+            } else if (c == '{' && !inQuote) {
+                int end = pattern.indexOf('}', i);
+                int index = end != -1 ? parseIndex(pattern, i + 1, end) : -1;
+                if (index == -1) {
+                    simple = false;
+                } else {
+                    segments.add(segment.toString());
+                    argumentIndexes.add(index);
+                    segment.setLength(0);
+                    i = end;
+                }
+            } else {
+                segment.append(c);
+            }
+            i++;
+        }
+        segments.add(segment.toString());
+        this.simple = simple;
+        this.segments = segments.toArray(new String[segments.size()]);
+        this.argumentIndexes = new int[argumentIndexes.size()];
+        for (int j = 0; j < this.argumentIndexes.length; j++) {
+            this.argumentIndexes[j] = argumentIndexes.get(j);
+        }
+    }
+
+    /**
+     * Returns the template of the pattern, parsing it if it's not cached.
+     */
+    static MessageTemplate of(String pattern) {
+        MessageTemplate template = templates.get(pattern);
+        if (template == null) {
+            template = new MessageTemplate(pattern);
+            if (templates.size() < MAX_CACHED) {
+                templates.putIfAbsent(pattern, template);
+            }
+        }
+        return template;
+    }
+
+    String render(Object... arguments) {
+        if (!simple || !isPlain(arguments)) {
+            return MessageFormat.format(pattern, arguments);
+        }
+        if (argumentIndexes.length == 0) {
+            return segments[0];
+        }
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * argumentIndexes.length);
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            sb.append(segments[i]);
+            int index = argumentIndexes[i];
+            if (arguments == null || index >= arguments.length) {
+                sb.append('{').append(index).append('}');
+            } else {
+                sb.append(arguments[index]);
+            }
+        }
+        return sb.append(segments[argumentIndexes.length]).toString();
+    }
+
+    /**
+     * Returns the argument index of a {n} element, or -1 if the element is not a plain index
+     */
+    private static int parseIndex(String pattern, int start, int end) {
+        if (start == end || end - start > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = pattern.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    /**
+     * Whether the arguments are rendered by toString(), as MessageFormat renders all the arguments except numbers and dates
+     */
+    private static boolean isPlain(Object[] arguments) {
+        if (arguments != null) {
+            for (Object argument : arguments) {
+                if (argument instanceof Number || argument instanceof Date) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
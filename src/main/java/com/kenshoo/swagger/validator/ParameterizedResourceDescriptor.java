@@ -0,0 +1,24 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.List;
+
+/**
+ * Resource descriptor that exposes also the parameters and the return types of the resource methods,
+ * which enables the validation of the declared operation parameters and responses.
+ *
+ * The parameters and the return type of each method are resolved once per class.
+ */
+public interface ParameterizedResourceDescriptor extends ResourceDescriptor {
+
+    /**
+     * Returns the parameters of each public method handling the HTTP method on the sub-path, case insensitive.
+     * Returns an empty list if the operation is handled by a sub-resource locator or not at all.
+     */
+    List<List<ResourceParameter>> getParameters(String operation, String subPath);
+
+    /**
+     * Returns the return type of each public method handling the HTTP method on the sub-path, case insensitive,
+     * in the same order as getParameters(). Generic return types are resolved against the resource class.
+     */
+    List<ResourceReturnType> getReturnTypes(String operation, String subPath);
+}
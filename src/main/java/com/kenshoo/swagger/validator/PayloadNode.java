@@ -0,0 +1,318 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Node of a compiled payload schema, validating a single JSON value.
+ *
+ * Nodes are immutable once linked and don't allocate while validating, so they may be shared by all the threads.
+ */
+abstract class PayloadNode {
+
+    /**
+     * Maximal nesting of arrays and objects, so that a deep payload of a recursive definition fails the validation
+     * instead of overflowing the stack
+     */
+    static final int MAX_DEPTH = 1000;
+
+    private final String definition;
+    private final String property;
+
+    PayloadNode(String definition, String property) {
+        this.definition = definition;
+        this.property = property;
+    }
+
+    /**
+     * Validates the value starting at the current token of the parser.
+     * On success the parser is left on the last token of the value.
+     *
+     * @param depth number of the arrays and objects containing the value
+     * @return false if the value is not valid, in which case the result holds the error
+     */
+    abstract boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException;
+
+    /**
+     * Returns the message of the error reported by this node
+     *
+     * @param token the unexpected token
+     * @param missing bits of the missing required properties
+     */
+    abstract String getMessage(JsonToken token, long missing);
+
+    String getDefinition() {
+        return definition;
+    }
+
+    String getProperty() {
+        return property;
+    }
+
+    final boolean fail(PayloadValidationResult result, JsonToken token) {
+        result.fail(this, token, 0);
+        return false;
+    }
+
+    final boolean failTooDeep(PayloadValidationResult result, JsonToken token) {
+        result.failTooDeep(this, token);
+        return false;
+    }
+
+    /**
+     * Accepts any value
+     */
+    static final class AnyNode extends PayloadNode {
+
+        AnyNode(String definition, String property) {
+            super(definition, property);
+        }
+
+        @Override
+        boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException {
+            parser.skipChildren();
+            return true;
+        }
+
+        @Override
+        String getMessage(JsonToken token, long missing) {
+            return "Unexpected " + token;
+        }
+    }
+
+    /**
+     * Validates the swagger primitive types (string, integer, number, boolean)
+     */
+    static final class TypeNode extends PayloadNode {
+        private final String type;
+        private final Set<JsonToken> tokens;
+
+        TypeNode(String definition, String property, String type, Set<JsonToken> tokens) {
+            super(definition, property);
+            this.type = type;
+            this.tokens = tokens;
+        }
+
+        @Override
+        boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException {
+            JsonToken token = parser.getCurrentToken();
+            return tokens.contains(token) || fail(result, token);
+        }
+
+        @Override
+        String getMessage(JsonToken token, long missing) {
+            return "Expected " + type + ", but got " + token;
+        }
+    }
+
+    /**
+     * Validates that the scalar value is one of the enum values, comparing the text of the token.
+     * The token must be of the type of the schema, if any, so that e.g. "1" is not accepted for an integer enum.
+     */
+    static final class EnumNode extends PayloadNode {
+        static final Set<JsonToken> SCALARS = EnumSet.of(JsonToken.VALUE_STRING, JsonToken.VALUE_NUMBER_INT,
+                JsonToken.VALUE_NUMBER_FLOAT, JsonToken.VALUE_TRUE, JsonToken.VALUE_FALSE);
+
+        private final Set<JsonToken> tokens;
+        private final CharTable<String> values;
+        private final List<String> valueList;
+
+        /**
+         * @param tokens tokens of the type of the schema, SCALARS if it has no type
+         */
+        EnumNode(String definition, String property, Set<JsonToken> tokens, Map<String, String> values) {
+            super(definition, property);
+            this.tokens = tokens;
+            this.values = new CharTable<>(values);
+            this.valueList = new ArrayList<>(values.keySet());
+        }
+
+        @Override
+        boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException {
+            JsonToken token = parser.getCurrentToken();
+            if (!tokens.contains(token)) {
+                return fail(result, token);
+            }
+            return values.get(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()) != null
+                    || fail(result, token);
+        }
+
+        @Override
+        String getMessage(JsonToken token, long missing) {
+            return "Expected one of " + valueList + ", but got " + token;
+        }
+    }
+
+    /**
+     * Reference to a definition, resolved once all the definitions are compiled
+     */
+    static final class RefNode extends PayloadNode {
+        private final String ref;
+        private PayloadNode target;
+
+        RefNode(String definition, String property, String ref) {
+            super(definition, property);
+            this.ref = ref;
+        }
+
+        String getRef() {
+            return ref;
+        }
+
+        void link(PayloadNode target) {
+            this.target = target;
+        }
+
+        @Override
+        boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException {
+            return target.validate(parser, result, depth);
+        }
+
+        @Override
+        String getMessage(JsonToken token, long missing) {
+            return target.getMessage(token, missing);
+        }
+    }
+
+    static final class ArrayNode extends PayloadNode {
+        private final PayloadNode items;
+
+        ArrayNode(String definition, String property, PayloadNode items) {
+            super(definition, property);
+            this.items = items;
+        }
+
+        @Override
+        boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                return fail(result, parser.getCurrentToken());
+            }
+            if (depth >= MAX_DEPTH) {
+                return failTooDeep(result, JsonToken.START_ARRAY);
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    return fail(result, null);
+                }
+                if (token != JsonToken.VALUE_NULL && !items.validate(parser, result, depth + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        String getMessage(JsonToken token, long missing) {
+            return "Expected array, but got " + token;
+        }
+    }
+
+    /**
+     * Validates an object with the declared properties. Undeclared properties are either skipped
+     * or, if additionalProperties is defined, validated by its node.
+     * A null value is the same as a missing property.
+     */
+    static final class ObjectNode extends PayloadNode {
+        private final CharTable<Property> properties;
+        private final PayloadNode additionalProperties;
+        private final long required;
+        private final List<String> requiredNames;
+
+        /**
+         * @param properties property nodes by name
+         * @param requiredNames names of the required properties, at most 64
+         * @param additionalProperties node validating the undeclared properties or null to skip them
+         */
+        ObjectNode(String definition, String property, Map<String, PayloadNode> properties, List<String> requiredNames,
+                   PayloadNode additionalProperties) {
+            super(definition, property);
+            Map<String, Property> table = new LinkedHashMap<>();
+            for (Map.Entry<String, PayloadNode> entry : properties.entrySet()) {
+                int index = requiredNames.indexOf(entry.getKey());
+                table.put(entry.getKey(), new Property(entry.getValue(), index == -1 ? 0 : 1L << index));
+            }
+            long requiredBits = 0;
+            for (int i = 0; i < requiredNames.size(); i++) {
+                if (!properties.containsKey(requiredNames.get(i))) {
+                    // required but not declared, validated by additionalProperties if any
+                    table.put(requiredNames.get(i), new Property(additionalProperties, 1L << i));
+                }
+                requiredBits |= 1L << i;
+            }
+            this.properties = new CharTable<>(table);
+            this.additionalProperties = additionalProperties;
+            this.required = requiredBits;
+            this.requiredNames = requiredNames;
+        }
+
+        @Override
+        boolean validate(JsonParser parser, PayloadValidationResult result, int depth) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                return fail(result, parser.getCurrentToken());
+            }
+            if (depth >= MAX_DEPTH) {
+                return failTooDeep(result, JsonToken.START_OBJECT);
+            }
+            long present = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                Property property = properties.get(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                PayloadNode node = additionalProperties;
+                if (property != null) {
+                    present |= property.requiredBit;
+                    node = property.node;
+                }
+                if (node == null) {
+                    parser.skipChildren();
+                } else if (!node.validate(parser, result, depth + 1)) {
+                    return false;
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                return fail(result, token);
+            }
+            if ((present & required) != required) {
+                result.fail(this, token, required & ~present);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        String getMessage(JsonToken token, long missing) {
+            if (missing == 0) {
+                return "Expected object, but got " + token;
+            }
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < requiredNames.size(); i++) {
+                if ((missing & (1L << i)) != 0) {
+                    names.add(requiredNames.get(i));
+                }
+            }
+            return "Missing required properties " + names;
+        }
+
+        private static final class Property {
+            private final PayloadNode node;
+            private final long requiredBit;
+
+            private Property(PayloadNode node, long requiredBit) {
+                this.node = node;
+                this.requiredBit = requiredBit;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Compiled definition, validating JSON payloads.
+ *
+ * Obtain an instance from PayloadValidator once and keep it, to avoid the lookup by the definition name on each payload.
+ *
+ * Thread safe.
+ */
+public final class PayloadSchema {
+
+    private final String definition;
+    private final PayloadNode root;
+
+    PayloadSchema(String definition, PayloadNode root) {
+        this.definition = definition;
+        this.root = root;
+    }
+
+    public String getDefinition() {
+        return definition;
+    }
+
+    PayloadNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Validates the JSON value read by the parser, starting at its current token, or at the next token if the parser
+     * has no current token yet. Stops on the first error, leaving the parser in the middle of the value.
+     * The validation doesn't allocate, so it may be used on each request.
+     *
+     * @param result reset and filled with the error, if any
+     * @return true if the value is valid
+     * @throws IOException if the JSON can't be read or is malformed
+     */
+    public boolean validate(JsonParser parser, PayloadValidationResult result) throws IOException {
+        result.reset();
+        if (parser.getCurrentToken() == null && parser.nextToken() == null) {
+            return root.fail(result, null);
+        }
+        return root.validate(parser, result, 0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Result of a payload validation: valid, or the first error found.
+ *
+ * The result is reusable: it's reset by each validation and records the error without allocating,
+ * the message is built only when requested. Keep an instance per thread (or per request) to validate without garbage.
+ *
+ * Not thread safe.
+ */
+public final class PayloadValidationResult {
+
+    private PayloadNode node;
+    private JsonToken token;
+    private long missing;
+    private boolean tooDeep;
+
+    void reset() {
+        node = null;
+        token = null;
+        missing = 0;
+        tooDeep = false;
+    }
+
+    void fail(PayloadNode node, JsonToken token, long missing) {
+        this.node = node;
+        this.token = token;
+        this.missing = missing;
+        this.tooDeep = false;
+    }
+
+    /**
+     * The value of the node is nested deeper than PayloadNode.MAX_DEPTH
+     */
+    void failTooDeep(PayloadNode node, JsonToken token) {
+        fail(node, token, 0);
+        this.tooDeep = true;
+    }
+
+    public boolean isValid() {
+        return node == null;
+    }
+
+    /**
+     * Returns the definition containing the invalid value or null if valid
+     */
+    public String getDefinition() {
+        return node != null ? node.getDefinition() : null;
+    }
+
+    /**
+     * Returns the property (e.g. "a.b[]") containing the invalid value, or null if the value of the definition itself is invalid
+     */
+    public String getProperty() {
+        return node != null ? node.getProperty() : null;
+    }
+
+    /**
+     * Returns the error message or null if valid
+     */
+    public String getMessage() {
+        if (node == null) {
+            return null;
+        }
+        return tooDeep ? "Nested deeper than " + PayloadNode.MAX_DEPTH + " arrays and objects" : node.getMessage(token, missing);
+    }
+
+    @Override
+    public String toString() {
+        if (node == null) {
+            return "Valid";
+        }
+        StringBuilder sb = new StringBuilder("Definition: ").append(node.getDefinition()).append(": ");
+        if (node.getProperty() != null) {
+            sb.append("Property ").append(node.getProperty()).append(": ");
+        }
+        return sb.append(getMessage()).toString();
+    }
+}
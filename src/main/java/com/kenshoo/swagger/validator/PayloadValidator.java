@@ -0,0 +1,163 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates JSON payloads (e.g. requests and responses in JAX-RS filters) against the definitions of swagger.yaml.
+ *
+ * Each definition is compiled once into a tree of nodes: 'type', 'enum', '$ref', 'items', 'properties', 'required'
+ * and 'additionalProperties' are supported, the rest of the schema keywords are ignored. The enum values are hashed
+ * and the references resolved on compilation, so the validation reads the Jackson token stream without building a tree
+ * and without allocating.
+ *
+ * Null values are accepted in place of any property or array item, but not as a value of a required property.
+ * Properties that are not declared are skipped, unless additionalProperties is defined.
+ * An enum value must also be of the type of its schema, if any. Values nested deeper than 1000 arrays and objects
+ * fail the validation.
+ *
+ * Example:
+ * <pre>
+ * PayloadSchema schema = new PayloadValidator(getClass().getResourceAsStream("/swagger.yaml")).getSchema("user");
+ * ...
+ * PayloadValidationResult result = new PayloadValidationResult();
+ * if (!schema.validate(jsonFactory.createParser(entityStream), result)) {
+ *     throw new BadRequestException(result.toString());
+ * }
+ * </pre>
+ *
+ * Thread safe.
+ */
+public class PayloadValidator {
+
+    private static final Map<String, Set<JsonToken>> TYPE_TOKENS = ImmutableMap.<String, Set<JsonToken>>of(
+            "string", EnumSet.of(JsonToken.VALUE_STRING),
+            "integer", EnumSet.of(JsonToken.VALUE_NUMBER_INT),
+            "number", EnumSet.of(JsonToken.VALUE_NUMBER_INT, JsonToken.VALUE_NUMBER_FLOAT),
+            "boolean", EnumSet.of(JsonToken.VALUE_TRUE, JsonToken.VALUE_FALSE));
+    private static final int MAX_REQUIRED = Long.SIZE;
+
+    private final Map<String, PayloadSchema> schemas;
+
+    /**
+     * Compiles the definitions of the loaded swagger.yaml
+     *
+     * @throws ValidationException if a definition references an undefined one
+     */
+    public PayloadValidator(Map<String, Object> yaml) {
+        Map<String, Object> definitions = (Map<String, Object>) yaml.get(SwaggerValidator.DEFINITIONS);
+        if (definitions == null) {
+            definitions = Collections.emptyMap();
+        }
+        List<PayloadNode.RefNode> refs = new ArrayList<>();
+        Map<String, PayloadSchema> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> definition : definitions.entrySet()) {
+            PayloadNode root = compile((Map<String, Object>) definition.getValue(), definition.getKey(), null, refs);
+            compiled.put(definition.getKey(), new PayloadSchema(definition.getKey(), root));
+        }
+        for (PayloadNode.RefNode ref : refs) {
+            PayloadSchema target = compiled.get(ref.getRef());
+            if (target == null) {
+                throw new ValidationException("Definition: " + ref.getDefinition() + ": Undefined reference: " + ref.getRef());
+            }
+            ref.link(target.getRoot());
+        }
+        this.schemas = ImmutableMap.copyOf(compiled);
+    }
+
+    /**
+     * Loads swagger.yaml or swagger.json from input stream and compiles its definitions
+     */
+    public PayloadValidator(InputStream is) {
+        this(SpecReader.read(is));
+    }
+
+    /**
+     * Returns the compiled definition
+     *
+     * @throws IllegalArgumentException if there is no such definition
+     */
+    public PayloadSchema getSchema(String definition) {
+        PayloadSchema schema = schemas.get(definition);
+        if (schema == null) {
+            throw new IllegalArgumentException("Undefined definition " + definition);
+        }
+        return schema;
+    }
+
+    /**
+     * Validates the JSON value against the definition.
+     *
+     * @see PayloadSchema#validate(JsonParser, PayloadValidationResult)
+     */
+    public boolean validate(String definition, JsonParser parser, PayloadValidationResult result) throws IOException {
+        return getSchema(definition).validate(parser, result);
+    }
+
+    private static PayloadNode compile(Map<String, Object> schema, String definition, String property, List<PayloadNode.RefNode> refs) {
+        Object ref = schema.get("$ref");
+        if (ref != null) {
+            PayloadNode.RefNode refNode = new PayloadNode.RefNode(definition, property, ((String) ref).replace("#/definitions/", ""));
+            refs.add(refNode);
+            return refNode;
+        }
+        String type = (String) schema.get("type");
+        Object enumValues = schema.get("enum");
+        if (enumValues instanceof List) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (Object value : (List<?>) enumValues) {
+                values.put(String.valueOf(value), String.valueOf(value));
+            }
+            Set<JsonToken> tokens = TYPE_TOKENS.get(type);
+            return new PayloadNode.EnumNode(definition, property, tokens != null ? tokens : PayloadNode.EnumNode.SCALARS, values);
+        }
+        if ("array".equals(type)) {
+            Map<String, Object> items = (Map<String, Object>) schema.get("items");
+            String itemsProperty = (property != null ? property : "") + "[]";
+            PayloadNode itemsNode = items != null
+                    ? compile(items, definition, itemsProperty, refs)
+                    : new PayloadNode.AnyNode(definition, itemsProperty);
+            return new PayloadNode.ArrayNode(definition, property, itemsNode);
+        }
+        if ("object".equals(type) || schema.containsKey("properties") || schema.get("additionalProperties") instanceof Map) {
+            return compileObject(schema, definition, property, refs);
+        }
+        Set<JsonToken> tokens = TYPE_TOKENS.get(type);
+        if (tokens != null) {
+            return new PayloadNode.TypeNode(definition, property, type, tokens);
+        }
+        return new PayloadNode.AnyNode(definition, property);
+    }
+
+    private static PayloadNode compileObject(Map<String, Object> schema, String definition, String property, List<PayloadNode.RefNode> refs) {
+        Map<String, PayloadNode> properties = new LinkedHashMap<>();
+        Map<String, Object> declared = (Map<String, Object>) schema.get("properties");
+        if (declared != null) {
+            for (Map.Entry<String, Object> entry : declared.entrySet()) {
+                String child = property != null ? property + "." + entry.getKey() : entry.getKey();
+                properties.put(entry.getKey(), compile((Map<String, Object>) entry.getValue(), definition, child, refs));
+            }
+        }
+        List<String> required = schema.get("required") instanceof List ? (List<String>) schema.get("required") : Collections.<String>emptyList();
+        if (required.size() > MAX_REQUIRED) {
+            throw new ValidationException("Definition: " + definition + ": More than " + MAX_REQUIRED + " required properties are not supported");
+        }
+        PayloadNode additionalProperties = null;
+        if (schema.get("additionalProperties") instanceof Map) {
+            String child = (property != null ? property + "." : "") + "*";
+            additionalProperties = compile((Map<String, Object>) schema.get("additionalProperties"), definition, child, refs);
+        }
+        return new PayloadNode.ObjectNode(definition, property, properties, new ArrayList<>(required), additionalProperties);
+    }
+}
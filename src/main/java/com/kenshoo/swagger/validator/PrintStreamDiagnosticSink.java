@@ -0,0 +1,49 @@
+package com.kenshoo.swagger.validator;
+
+import java.io.PrintStream;
+
+/**
+ * Prints the diagnostics to a stream, one per line, in batches: the lines are buffered
+ * and written by a single print once the buffer is full or the sink is flushed.
+ *
+ * Note on synchronization: Class is not synchronized, a single validator uses it.
+ */
+public class PrintStreamDiagnosticSink implements DiagnosticSink {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private final PrintStream out;
+    private final int bufferSize;
+    private final StringBuilder buffer;
+
+    /**
+     * @param bufferSize number of characters buffered before the lines are printed
+     */
+    public PrintStreamDiagnosticSink(PrintStream out, int bufferSize) {
+        this.out = out;
+        this.bufferSize = bufferSize;
+        this.buffer = new StringBuilder();
+    }
+
+    public PrintStreamDiagnosticSink(PrintStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    @Override
+    public void report(Diagnostic diagnostic) {
+        buffer.append(diagnostic).append(LINE_SEPARATOR);
+        if (buffer.length() >= bufferSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (buffer.length() > 0) {
+            out.print(buffer);
+            buffer.setLength(0);
+        }
+        out.flush();
+    }
+}
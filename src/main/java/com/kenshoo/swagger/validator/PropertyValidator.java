@@ -1,70 +1,156 @@
 package com.kenshoo.swagger.validator;
 
-import java.lang.reflect.Constructor;
-import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 
+/**
+ * Validates a property of a definition, then schedules the validation of its 'items' and inline 'properties'
+ * on the definition validator. The nested properties are named by their path, e.g. lines[] or address.city.
+ */
 class PropertyValidator implements Validator {
 
+    /**
+     * Items and properties nested deeper are reported rather than validated
+     */
+    static final int MAX_NESTING_DEPTH = 64;
+
     private final DefinitionValidator definitionValidator;
     private final String propName;
     private final Map<String, Object> property;
     private final Class<?> propType;
+    private final Class<?> elementType;
+    private final int depth;
 
     public PropertyValidator(DefinitionValidator definitionValidator, String propName, Map<String, Object> property, PropertyDescriptor propertyDescriptor) {
+        this(definitionValidator, propName, property, propertyDescriptor.getType(propName),
+                propertyDescriptor instanceof GenericPropertyDescriptor ? ((GenericPropertyDescriptor) propertyDescriptor).getElementType(propName) : null,
+                0);
+    }
+
+    private PropertyValidator(DefinitionValidator definitionValidator, String propName, Map<String, Object> property,
+                              Class<?> propType, Class<?> elementType, int depth) {
         this.definitionValidator = definitionValidator;
         this.propName = propName;
         this.property = property;
-        this.propType = propertyDescriptor.getType(propName);
+        this.propType = propType;
+        this.elementType = elementType;
+        this.depth = depth;
     }
 
     public void validate() {
         if (propType == null) {
-            definitionValidator.handleError("Property {0} does not exist.", propName);
+            handleError(Rule.PROPERTY_NOT_FOUND);
+            return;
         }
-        Validator validator = null;
-        for (Class<? extends Validator> cls : definitionValidator.getConf().getMutualExclusionPropertyValidators()) {
-            SinglePropValidator spvAnnotation = cls.getAnnotation(SinglePropValidator.class);
-            Object val = property.get(spvAnnotation.value());
+        ValidationPlan.PropertyValidatorFactory selected = null;
+        Object selectedValue = null;
+        for (ValidationPlan.PropertyValidatorFactory factory : definitionValidator.getPlan().getPropertyValidatorFactories()) {
+            Object val = property.get(factory.getKey());
             if (val != null) {
-                if (validator != null) {
-                    definitionValidator.handleError("Property {0} is not defined well. Define either $ref, or type, or enum.", propName);
-                }
-                try {
-                    Constructor<? extends Validator> constructor = cls.getDeclaredConstructor(PropertyValidator.class, Object.class);
-                    constructor.setAccessible(true);
-                    validator = constructor.newInstance(this, val);
-                } catch (RuntimeException e) {
-                    throw e;
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+                if (selected != null) {
+                    handleError(Rule.PROPERTY_NOT_WELL_DEFINED);
+                    return;
                 }
+                selected = factory;
+                selectedValue = val;
             }
         }
-        if (validator != null) {
-            validator.validate();
+        if (selected != null) {
+            selected.create(this, selectedValue).validate();
+            validateNested();
         } else {
-            definitionValidator.handleError("Property {0} is not defined well. Define either $ref, or type, or enum.", propName);
+            handleError(Rule.PROPERTY_NOT_WELL_DEFINED);
         }
     }
 
-    public void handleError(String msg, Object... arguments) {
-        definitionValidator.handleError(preformatMessage(msg), arguments);
+    /**
+     * Schedules the validation of 'items' against the element type and of the inline 'properties' against the fields
+     * of the property type. Items of a collection whose element type is unknown are not validated.
+     * The property type is recorded, since the result depends on its fields.
+     */
+    private void validateNested() {
+        Object items = property.get("items");
+        Object properties = property.get("properties");
+        if (!(items instanceof Map) && !(properties instanceof Map)) {
+            return;
+        }
+        if (depth >= MAX_NESTING_DEPTH) {
+            handleError(Rule.NESTING_TOO_DEEP, MAX_NESTING_DEPTH);
+            return;
+        }
+        List<Validator> nested = new ArrayList<>();
+        if (items instanceof Map && elementType != null) {
+            nested.add(new PropertyValidator(definitionValidator, propName + "[]", (Map<String, Object>) items,
+                    elementType, elementType.isArray() ? elementType.getComponentType() : null, depth + 1));
+        }
+        if (properties instanceof Map && isObject(propType)) {
+            addClass(propType);
+            PropertyDescriptor descriptor;
+            try {
+                descriptor = definitionValidator.getIntrospector().createPropertyDescriptor(propType.getName());
+            } catch (ClassNotFoundException e) {
+                handleError(Rule.CLASS_NOT_FOUND, e.getMessage());
+                return;
+            }
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) properties).entrySet()) {
+                String name = entry.getKey();
+                nested.add(new PropertyValidator(definitionValidator, propName + "." + name, (Map<String, Object>) entry.getValue(),
+                        descriptor.getType(name),
+                        descriptor instanceof GenericPropertyDescriptor ? ((GenericPropertyDescriptor) descriptor).getElementType(name) : null,
+                        depth + 1));
+            }
+        }
+        definitionValidator.schedule(nested);
     }
 
-    public String handleWarning(String msg, Object... arguments) {
-        return definitionValidator.handleWarning(preformatMessage(msg), arguments);
+    /**
+     * Whether the properties of the type are its fields, e.g. not of a String or a Map
+     */
+    static boolean isObject(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isEnum() && !type.getName().startsWith("java.");
     }
 
-    private String preformatMessage(String msg) {
-        return MessageFormat.format("Property {0}: {1}", propName, msg);
+    public void handleError(Rule rule, Object... arguments) {
+        definitionValidator.report(Severity.ERROR, propName, rule.getId(), rule.getPattern(), arguments);
+    }
+
+    public void handleWarning(Rule rule, Object... arguments) {
+        definitionValidator.report(Severity.WARNING, propName, rule.getId(), rule.getPattern(), arguments);
+    }
+
+    /**
+     * Reports an error with a custom message
+     */
+    public void handleError(String msg, Object... arguments) {
+        definitionValidator.report(Severity.ERROR, propName, Rule.CUSTOM_ID, msg, arguments);
+    }
+
+    /**
+     * Reports a warning with a custom message
+     *
+     * @return the formatted warning
+     */
+    public String handleWarning(String msg, Object... arguments) {
+        return definitionValidator.report(Severity.WARNING, propName, Rule.CUSTOM_ID, msg, arguments).toString();
     }
 
     public void addDefinitionToValidate(String def) {
         definitionValidator.addDefinitionToValidate(def);
     }
 
+    /**
+     * Records a class the result depends on besides x-javaClass, so that a cached result is dropped when it changes
+     */
+    void addClass(Class<?> cls) {
+        definitionValidator.addClass(cls);
+    }
+
+    ClassIntrospector getIntrospector() {
+        return definitionValidator.getIntrospector();
+    }
+
     public Class<?> getPropType() {
         return propType;
     }
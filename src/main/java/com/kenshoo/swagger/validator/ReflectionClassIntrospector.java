@@ -0,0 +1,59 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * Loads the classes and introspects them using reflection.
+ *
+ * This is the default introspector. Classes are loaded (but not initialized) by the class loader of the validator,
+ * and the property descriptors are created by SwaggerValidatorConf.createPropertyDescriptor().
+ */
+public class ReflectionClassIntrospector implements ClassIntrospector {
+
+    private final SwaggerValidatorConf conf;
+    private final ValidationMetrics metrics;
+
+    public ReflectionClassIntrospector(SwaggerValidatorConf conf) {
+        this.conf = conf;
+        this.metrics = conf.getValidationMetrics();
+    }
+
+    @Override
+    public PropertyDescriptor createPropertyDescriptor(String className) throws ClassNotFoundException {
+        Class<?> cls = forName(className);
+        if (!metrics.isEnabled()) {
+            return conf.createPropertyDescriptor(cls);
+        }
+        long start = startIntrospection(cls);
+        PropertyDescriptor propertyDescriptor = conf.createPropertyDescriptor(cls);
+        metrics.recordStage(ValidationMetrics.Stage.INTROSPECTION, System.nanoTime() - start);
+        return propertyDescriptor;
+    }
+
+    @Override
+    public ResourceDescriptor createResourceDescriptor(String className) throws ClassNotFoundException {
+        Class<?> cls = forName(className);
+        if (!metrics.isEnabled()) {
+            return ClassMetadataCache.get(cls);
+        }
+        long start = startIntrospection(cls);
+        ClassMetadata metadata = ClassMetadataCache.get(cls);
+        metrics.recordStage(ValidationMetrics.Stage.INTROSPECTION, System.nanoTime() - start);
+        return metadata;
+    }
+
+    private long startIntrospection(Class<?> cls) {
+        metrics.recordCacheLookup(ValidationMetrics.Cache.CLASS_METADATA, ClassMetadataCache.getIfPresent(cls) != null);
+        return System.nanoTime();
+    }
+
+    private Class<?> forName(String className) throws ClassNotFoundException {
+        if (!metrics.isEnabled()) {
+            return ClassMetadataCache.forName(className, SwaggerValidator.class.getClassLoader());
+        }
+        long start = System.nanoTime();
+        try {
+            return ClassMetadataCache.forName(className, SwaggerValidator.class.getClassLoader());
+        } finally {
+            metrics.recordStage(ValidationMetrics.Stage.CLASS_LOADING, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.kenshoo.swagger.validator;
+
+
+/**
+ * Describes the JAX-RS resource class.
+ *
+ * Sub-paths are relative to the class level @Path and normalized: a single leading slash, no trailing slash
+ * and template parameters without their regular expressions (e.g. "/{id}/items"). The class path itself is "".
+ */
+public interface ResourceDescriptor {
+
+    /**
+     * Returns name of the resource class
+     */
+    String getName();
+
+    /**
+     * Returns the value of the class level @Path annotation or null if the class is not annotated
+     */
+    String getPath();
+
+    /**
+     * Returns true if at least one public method is annotated with the given HTTP method (e.g. GET, POST), case insensitive
+     */
+    boolean hasOperation(String operation);
+
+    /**
+     * Returns true if the given HTTP method on the sub-path is handled by a public method, case insensitive
+     */
+    boolean hasOperation(String operation, String subPath);
+
+    /**
+     * Returns true if at least one public method is annotated with @Path matching the sub-path
+     */
+    boolean hasMethodPath(String subPath);
+}
@@ -0,0 +1,214 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the resource methods of a single class by (sub-path, HTTP method), built once per class.
+ *
+ * Paths are normalized before indexing and lookup, so "/{id}", "{id}/" and "{id: [0-9]+}" are the same sub-path.
+ * Methods annotated with @Path but without an HTTP method are sub-resource locators: every operation
+ * on their sub-path, or below it, is considered handled, since it's implemented by the returned resource.
+ *
+ * Immutable.
+ *
+ * @param <M> type of the indexed methods (e.g. java.lang.reflect.Method)
+ */
+final class ResourceIndex<M> {
+
+    private static final String ROOT = "";
+
+    private final Map<String, ImmutableListMultimap<String, M>> methodsBySubPath;
+    private final ImmutableListMultimap<String, M> methodsByOperation;
+    private final Set<String> locators;
+
+    private ResourceIndex(Map<String, ImmutableListMultimap<String, M>> methodsBySubPath,
+                          ImmutableListMultimap<String, M> methodsByOperation, Set<String> locators) {
+        this.methodsBySubPath = methodsBySubPath;
+        this.methodsByOperation = methodsByOperation;
+        this.locators = locators;
+    }
+
+    /**
+     * Returns the methods of the HTTP method (e.g. GET, POST) under any sub-path, case insensitive
+     */
+    public List<M> getMethods(String operation) {
+        return methodsByOperation.get(operation.toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns the methods of the HTTP method (e.g. GET, POST) on the normalized sub-path, case insensitive
+     */
+    public List<M> getMethods(String operation, String subPath) {
+        ImmutableListMultimap<String, M> methods = methodsBySubPath.get(subPath);
+        if (methods == null) {
+            return ImmutableList.of();
+        }
+        return methods.get(operation.toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns true if the HTTP method on the normalized sub-path is handled either by a resource method
+     * or by a sub-resource locator
+     */
+    public boolean hasOperation(String operation, String subPath) {
+        return !getMethods(operation, subPath).isEmpty() || isLocated(subPath);
+    }
+
+    /**
+     * Returns the normalized sub-paths of the resource methods, the root as an empty string
+     */
+    public Set<String> getSubPaths() {
+        return methodsBySubPath.keySet();
+    }
+
+    /**
+     * Returns the methods on the normalized sub-path by HTTP method (upper case)
+     */
+    public ListMultimap<String, M> getMethodsBySubPath(String subPath) {
+        ImmutableListMultimap<String, M> methods = methodsBySubPath.get(subPath);
+        return methods != null ? methods : ImmutableListMultimap.<String, M>of();
+    }
+
+    /**
+     * Returns true if at least one method is annotated with the normalized sub-path or a locator handles it
+     */
+    public boolean hasSubPath(String subPath) {
+        return methodsBySubPath.containsKey(subPath) || isLocated(subPath);
+    }
+
+    private boolean isLocated(String subPath) {
+        for (String locator : locators) {
+            if (isPrefix(locator, subPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes the path template: a single leading slash, no trailing or duplicate slashes,
+     * and the template parameters without their regular expressions ("{id: [0-9]+}" becomes "{id}").
+     * The root path is normalized to an empty string.
+     */
+    static String normalize(String path) {
+        if (path == null) {
+            return ROOT;
+        }
+        StringBuilder normalized = new StringBuilder(path.length() + 1);
+        int i = 0;
+        while (i < path.length()) {
+            if (path.charAt(i) == '/') {
+                i++;
+                continue;
+            }
+            normalized.append('/');
+            while (i < path.length() && path.charAt(i) != '/') {
+                char c = path.charAt(i);
+                if (c == '{') {
+                    int end = templateEnd(path, i);
+                    int colon = path.indexOf(':', i);
+                    int nameEnd = colon != -1 && colon < end ? colon : end;
+                    normalized.append('{').append(path.substring(i + 1, nameEnd).trim()).append('}');
+                    i = end + 1;
+                } else {
+                    normalized.append(c);
+                    i++;
+                }
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Returns index of the brace closing the template parameter, skipping the braces of its regular expression
+     */
+    private static int templateEnd(String path, int start) {
+        int depth = 0;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return path.length() - 1;
+    }
+
+    /**
+     * Returns the part of the normalized path following the normalized class path, or null if the path
+     * doesn't contain the class path. The class path may be preceded by other segments (e.g. a base path).
+     */
+    static String subPath(String classPath, String path) {
+        int from = 0;
+        while (true) {
+            int index = path.indexOf(classPath, from);
+            if (index == -1) {
+                return null;
+            }
+            // normalized class path starts with a slash, so it's enough to check where it ends
+            int end = index + classPath.length();
+            if (end == path.length() || path.charAt(end) == '/') {
+                return path.substring(end);
+            }
+            from = index + 1;
+        }
+    }
+
+    private static boolean isPrefix(String prefix, String subPath) {
+        return subPath.startsWith(prefix) && (subPath.length() == prefix.length() || subPath.charAt(prefix.length()) == '/');
+    }
+
+    static <M> Builder<M> builder() {
+        return new Builder<>();
+    }
+
+    static final class Builder<M> {
+        private final Map<String, ImmutableListMultimap.Builder<String, M>> methodsBySubPath = new HashMap<>();
+        private final ImmutableListMultimap.Builder<String, M> methodsByOperation = ImmutableListMultimap.builder();
+        private final ImmutableSet.Builder<String> locators = ImmutableSet.builder();
+
+        /**
+         * Adds a method.
+         *
+         * @param operation HTTP method or null for a sub-resource locator (or a method which is not a resource method)
+         * @param methodPath value of the method level @Path or null
+         */
+        Builder<M> add(String operation, String methodPath, M method) {
+            if (operation == null) {
+                if (methodPath != null) {
+                    locators.add(normalize(methodPath));
+                }
+                return this;
+            }
+            String subPath = normalize(methodPath);
+            String key = operation.toUpperCase(Locale.ENGLISH);
+            ImmutableListMultimap.Builder<String, M> methods = methodsBySubPath.get(subPath);
+            if (methods == null) {
+                methods = ImmutableListMultimap.builder();
+                methodsBySubPath.put(subPath, methods);
+            }
+            methods.put(key, method);
+            methodsByOperation.put(key, method);
+            return this;
+        }
+
+        ResourceIndex<M> build() {
+            ImmutableMap.Builder<String, ImmutableListMultimap<String, M>> bySubPath = ImmutableMap.builder();
+            for (Map.Entry<String, ImmutableListMultimap.Builder<String, M>> entry : methodsBySubPath.entrySet()) {
+                bySubPath.put(entry.getKey(), entry.getValue().build());
+            }
+            return new ResourceIndex<>(bySubPath.build(), methodsByOperation.build(), locators.build());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A parameter of a resource method: where JAX-RS reads it from, its name and its Java type.
+ *
+ * Locations are named as the swagger 'in' values: "path", "query", "header", "formData" and "body"
+ * (for the entity parameter, the one without a JAX-RS annotation), and "cookie", "matrix", "bean" and "context"
+ * for the parameters swagger can't declare.
+ *
+ * Immutable.
+ */
+public final class ResourceParameter {
+
+    /**
+     * Location by the binary name of the JAX-RS annotation
+     */
+    static final Map<String, String> LOCATIONS = ImmutableMap.<String, String>builder()
+            .put("javax.ws.rs.PathParam", "path")
+            .put("javax.ws.rs.QueryParam", "query")
+            .put("javax.ws.rs.HeaderParam", "header")
+            .put("javax.ws.rs.FormParam", "formData")
+            .put("javax.ws.rs.CookieParam", "cookie")
+            .put("javax.ws.rs.MatrixParam", "matrix")
+            .put("javax.ws.rs.BeanParam", "bean")
+            .put("javax.ws.rs.core.Context", "context")
+            .build();
+    static final String BODY = "body";
+
+    private static final Set<String> INTEGERS = ImmutableSet.of("int", "long", "short", "byte", "java.lang.Integer",
+            "java.lang.Long", "java.lang.Short", "java.lang.Byte", "java.math.BigInteger");
+    private static final Set<String> NUMBERS = ImmutableSet.of("float", "double", "java.lang.Float", "java.lang.Double",
+            "java.math.BigDecimal");
+    private static final Set<String> BOOLEANS = ImmutableSet.of("boolean", "java.lang.Boolean");
+    private static final Set<String> COLLECTIONS = ImmutableSet.of("java.util.List", "java.util.Set", "java.util.SortedSet",
+            "java.util.Collection");
+
+    private final String location;
+    private final String name;
+    private final String typeName;
+
+    /**
+     * @param name value of the annotation, null for the parameters without a name (e.g. the entity)
+     * @param typeName name of the type as returned by Class.getName(), e.g. "int" or "java.lang.String"
+     */
+    ResourceParameter(String location, String name, String typeName) {
+        this.location = location;
+        this.name = name;
+        this.typeName = typeName;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns the value of the annotation (e.g. "id" of @PathParam("id")), or null for the entity, bean and context parameters
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Returns the swagger type the parameter is converted from: "integer", "number", "boolean", "array" or "string".
+     * JAX-RS converts any other type from a string, e.g. by valueOf(String).
+     */
+    public String getSwaggerType() {
+        if (INTEGERS.contains(typeName)) {
+            return "integer";
+        }
+        if (NUMBERS.contains(typeName)) {
+            return "number";
+        }
+        if (BOOLEANS.contains(typeName)) {
+            return "boolean";
+        }
+        if (typeName.startsWith("[") || COLLECTIONS.contains(typeName)) {
+            return "array";
+        }
+        return "string";
+    }
+
+    @Override
+    public String toString() {
+        return location + (name != null ? " " + name : "") + ": " + typeName;
+    }
+}
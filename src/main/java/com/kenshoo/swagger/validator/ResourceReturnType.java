@@ -0,0 +1,38 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * The return type of a resource method, with the element type of an array or collection,
+ * e.g. "java.util.List" and "com.x.Foo" for List&lt;Foo&gt;. Names are as returned by Class.getName().
+ *
+ * Immutable.
+ */
+public final class ResourceReturnType {
+
+    private final String typeName;
+    private final String elementTypeName;
+
+    ResourceReturnType(String typeName, String elementTypeName) {
+        this.typeName = typeName;
+        this.elementTypeName = elementTypeName;
+    }
+
+    /**
+     * Returns the name of the raw type, or null if it's a type variable that can't be resolved
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Returns the name of the element type of an array or collection, "java.lang.Object" if it's unknown,
+     * or null if the type is not an array or collection
+     */
+    public String getElementTypeName() {
+        return elementTypeName;
+    }
+
+    @Override
+    public String toString() {
+        return elementTypeName != null ? typeName + "<" + elementTypeName + ">" : String.valueOf(typeName);
+    }
+}
@@ -2,34 +2,48 @@ package com.kenshoo.swagger.validator;
 
 import com.google.common.collect.ImmutableSet;
 
-import javax.ws.rs.HttpMethod;
-import javax.ws.rs.Path;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 
 class ResourceValidator implements Validator {
 
+    private final SwaggerValidator swaggerValidator;
     private final String path;
     private final Map<String, Object> resource;
+    private final EntryDiagnostics diagnostics;
     public final static Set<String> forbiddenOperations = ImmutableSet.<String>of("options", "head");
+    static final String PARAMETER_REF_PREFIX = "#/parameters/";
+    private static final String DEFINITION_REF_PREFIX = "#/definitions/";
+    /**
+     * Return types that don't tell the type of the entity
+     */
+    private static final Set<String> untypedReturnTypes = ImmutableSet.of("void", "java.lang.Object", "javax.ws.rs.core.Response");
 
-    public ResourceValidator(String path, Map<String, Object> resource) {
+    public ResourceValidator(SwaggerValidator swaggerValidator, String path, Map<String, Object> resource, EntryDiagnostics diagnostics) {
+        this.swaggerValidator = swaggerValidator;
         this.path = path;
         this.resource = resource;
+        this.diagnostics = diagnostics;
     }
 
     @Override
     public void validate() {
         try {
-            Class<?> cls = SwaggerValidator.getClass(resource);
-            if (cls == null) {
-                handleError("{0} is not defined.", SwaggerValidator.JAVA_CLASS_TAG);
+            String className = SwaggerValidator.getClassName(resource);
+            if (className == null) {
+                handleError(Rule.JAVA_CLASS_NOT_DEFINED, SwaggerValidator.JAVA_CLASS_TAG);
+                return;
             }
-            validatePathAnnotation(cls, path);
+            ResourceDescriptor descriptor = swaggerValidator.getIntrospector().createResourceDescriptor(className);
+            long start = swaggerValidator.isTimed() ? System.nanoTime() : 0;
+            String subPath = validatePathAnnotation(descriptor, path);
+            boolean validateParameters = subPath != null && descriptor instanceof ParameterizedResourceDescriptor
+                    && swaggerValidator.getConf().isParameterValidationEnabled();
+            boolean validateResponses = subPath != null && descriptor instanceof ParameterizedResourceDescriptor
+                    && swaggerValidator.getConf().isResponseValidationEnabled();
             for (Map.Entry<String, Object> entry : resource.entrySet()) {
                 String key = entry.getKey();
                 if (key.startsWith("x-")) {
@@ -37,77 +51,218 @@ class ResourceValidator implements Validator {
                     continue;
                 }
                 if (key.equalsIgnoreCase("parameters")) {
-                    // parameters are not checked
+                    // validated along with the parameters of each operation, if enabled
+                    if (validateParameters) {
+                        collectParameters(entry.getValue(), new LinkedHashMap<String, Map<String, Object>>(), true);
+                    }
                     continue;
                 }
                 if (forbiddenOperations.contains(key.toLowerCase())) {
-                    handleWarning("Operation {0} should not be defined. It's provided by the container.", key);
+                    handleWarning(Rule.FORBIDDEN_OPERATION, key);
                     continue;
                 }
-                if (!isOperationAnnotatedMethodExists(cls, key)) {
-                    handleError("Method annotated with {0} operation not found in class {1}", key, cls);
+                boolean operationExists = subPath != null ? descriptor.hasOperation(key, subPath) : descriptor.hasOperation(key);
+                if (!operationExists) {
+                    handleError(Rule.OPERATION_NOT_FOUND, key, descriptor.getName());
                 } else {
                     // operation exists, check that it has tags
                     Map<String, Object> operation = (Map<String, Object>) entry.getValue();
                     if (!operation.containsKey("tags")) {
-                        handleError("Tags must be defined for operation: {0}", key);
+                        handleError(Rule.OPERATION_NOT_TAGGED, key);
+                    }
+                    if (validateParameters) {
+                        validateParameters((ParameterizedResourceDescriptor) descriptor, key, subPath, operation);
+                    }
+                    if (validateResponses) {
+                        validateResponses((ParameterizedResourceDescriptor) descriptor, key, subPath, operation);
                     }
                 }
             }
+            if (swaggerValidator.isTimed()) {
+                swaggerValidator.getMetrics().recordStage(ValidationMetrics.Stage.RULE_EVALUATION, System.nanoTime() - start);
+            }
         } catch (ClassNotFoundException e) {
-            handleError("Class not found {0}", e.getMessage());
+            handleError(Rule.CLASS_NOT_FOUND, e.getMessage());
         }
     }
 
-    private void validatePathAnnotation(Class<?> cls, String path) {
-        Path pathAnnotation = cls.getAnnotation(Path.class);
-        if (pathAnnotation == null) {
-            handleError("Path annotation not found on {0}", cls);
+    /**
+     * Validates that the path matches the @Path annotations of the class and of its methods.
+     *
+     * @return the normalized sub-path of the class, or null if the path doesn't match any of the methods
+     */
+    private String validatePathAnnotation(ResourceDescriptor descriptor, String path) {
+        String classPath = descriptor.getPath();
+        if (classPath == null) {
+            handleError(Rule.PATH_ANNOTATION_NOT_FOUND, descriptor.getName());
+            return null;
         }
 
-        if (path.contains(pathAnnotation.value())) {
-            String methodPath = path.replace(pathAnnotation.value(), "");
-            if (methodPath.length() > 0) {
-                for (Method m : cls.getMethods()) {
-                    pathAnnotation = m.getAnnotation(Path.class);
-                    if (pathAnnotation != null && pathAnnotation.value().equals(methodPath)) {
-                        return;
-                    }
+        String subPath = ResourceIndex.subPath(ResourceIndex.normalize(classPath), ResourceIndex.normalize(path));
+        if (subPath == null) {
+            handleError(Rule.PATH_MISMATCH, classPath, path);
+            return null;
+        }
+        if (subPath.length() > 0 && !descriptor.hasMethodPath(subPath)) {
+            handleError(Rule.METHOD_PATH_NOT_FOUND, path);
+            return null;
+        }
+        return subPath;
+    }
+
+    /**
+     * Validates the parameters of the operation, including the parameters of the path, against the resource methods.
+     * A parameter is valid if it matches a parameter of any of the methods handling the operation.
+     */
+    private void validateParameters(ParameterizedResourceDescriptor descriptor, String operationName, String subPath,
+                                    Map<String, Object> operation) {
+        List<List<ResourceParameter>> methods = descriptor.getParameters(operationName, subPath);
+        if (methods.isEmpty()) {
+            // handled by a sub-resource locator
+            return;
+        }
+        Map<String, Map<String, Object>> parameters = new LinkedHashMap<>();
+        // undefined references of the path parameters are reported once, not per operation
+        collectParameters(resource.get("parameters"), parameters, false);
+        collectParameters(operation.get("parameters"), parameters, true);
+        for (Map<String, Object> parameter : parameters.values()) {
+            validateParameter(methods, operationName, descriptor.getName(), parameter);
+        }
+    }
+
+    /**
+     * Collects the parameters by location and name, an operation parameter overrides the path parameter.
+     * References to other documents are skipped.
+     *
+     * @param reportUndefined whether to report the local references that can't be resolved
+     */
+    private void collectParameters(Object declared, Map<String, Map<String, Object>> parameters, boolean reportUndefined) {
+        if (!(declared instanceof List)) {
+            return;
+        }
+        for (Object item : (List<?>) declared) {
+            Object parameter = item;
+            if (item instanceof Map && ((Map<?, ?>) item).get("$ref") instanceof String) {
+                String ref = (String) ((Map<?, ?>) item).get("$ref");
+                parameter = ref.startsWith(PARAMETER_REF_PREFIX)
+                        ? swaggerValidator.getParameters().get(ref.substring(PARAMETER_REF_PREFIX.length())) : null;
+                if (parameter == null && reportUndefined && ref.startsWith("#") && swaggerValidator.isParametersRead()) {
+                    handleError(Rule.UNDEFINED_PARAMETER_REFERENCE, ref);
+                }
+            }
+            if (parameter instanceof Map) {
+                Map<String, Object> map = (Map<String, Object>) parameter;
+                parameters.put(map.get("in") + "\n" + map.get("name"), map);
+            }
+        }
+    }
+
+    private void validateParameter(List<List<ResourceParameter>> methods, String operationName, String className,
+                                   Map<String, Object> parameter) {
+        Object name = parameter.get("name");
+        Object in = parameter.get("in");
+        if (!(name instanceof String) || !(in instanceof String)) {
+            return;
+        }
+        Object type = parameter.get("type");
+        boolean typeChecked = type instanceof String && !"file".equals(type);
+        ResourceParameter typeMismatch = null;
+        ResourceParameter locationMismatch = null;
+        for (List<ResourceParameter> method : methods) {
+            for (ResourceParameter resourceParameter : method) {
+                String location = resourceParameter.getLocation();
+                if (location.equals("bean")
+                        || ResourceParameter.BODY.equals(location) && (in.equals(ResourceParameter.BODY) || in.equals("formData"))) {
+                    // a bean parameter may read any parameter, an entity the whole body or form
+                    return;
+                }
+                if (!name.equals(resourceParameter.getName())) {
+                    continue;
+                }
+                if (!location.equals(in)) {
+                    locationMismatch = resourceParameter;
+                } else if (typeChecked && !type.equals(resourceParameter.getSwaggerType())) {
+                    typeMismatch = resourceParameter;
+                } else {
+                    return;
                 }
-                handleError("No path annotation matches {0}", path);
             }
+        }
+        if (typeMismatch != null) {
+            handleError(Rule.PARAMETER_TYPE_MISMATCH, name, operationName, typeMismatch.getTypeName(), type);
+        } else if (locationMismatch != null) {
+            handleError(Rule.PARAMETER_LOCATION_MISMATCH, name, operationName, in, locationMismatch.getLocation());
         } else {
-            handleError("Path {0} on annotation does not match {1}", pathAnnotation.value(), path);
+            handleError(Rule.PARAMETER_NOT_FOUND, name, in, operationName, className);
         }
     }
 
     /**
-     * returns true if at least one public method with the relevant annotation exists
-     * @param cls
-     * @param operation
-     * @return
+     * Validates the schemas of the 2xx responses against the return types of the methods handling the operation.
+     * Definitions are matched by their x-javaClass, the definitions themselves are validated separately.
      */
-    private boolean isOperationAnnotatedMethodExists(Class<?> cls, String operation) {
-        for (Method m : cls.getMethods()) {
-            Annotation[] annotations = m.getDeclaredAnnotations();
-            for (Annotation ann : annotations) {
-                HttpMethod httpMethod = ann.annotationType().getAnnotation(HttpMethod.class);
-                if (httpMethod != null && httpMethod.value().equalsIgnoreCase(operation)) {
-                    return true;
-                }
+    private void validateResponses(ParameterizedResourceDescriptor descriptor, String operationName, String subPath,
+                                   Map<String, Object> operation) {
+        if (!(operation.get("responses") instanceof Map)) {
+            return;
+        }
+        List<ResourceReturnType> returnTypes = descriptor.getReturnTypes(operationName, subPath);
+        for (ResourceReturnType returnType : returnTypes) {
+            if (returnType.getTypeName() == null || untypedReturnTypes.contains(returnType.getTypeName())) {
+                return;
+            }
+        }
+        if (returnTypes.isEmpty()) {
+            // handled by a sub-resource locator
+            return;
+        }
+        for (Map.Entry<String, Object> response : ((Map<String, Object>) operation.get("responses")).entrySet()) {
+            if (!String.valueOf(response.getKey()).startsWith("2") || !(response.getValue() instanceof Map)) {
+                continue;
+            }
+            Object schema = ((Map<String, Object>) response.getValue()).get("schema");
+            if (!(schema instanceof Map)) {
+                continue;
+            }
+            boolean array = "array".equals(((Map<String, Object>) schema).get("type"));
+            Object items = ((Map<String, Object>) schema).get("items");
+            String className = getDefinitionClassName(array && items instanceof Map ? (Map<String, Object>) items : (Map<String, Object>) schema);
+            if (className == null || matchesReturnType(returnTypes, className, array)) {
+                continue;
+            }
+            handleError(Rule.RESPONSE_TYPE_MISMATCH, response.getKey(), operationName,
+                    array ? "an array of " + className : className, returnTypes.get(0));
+        }
+    }
+
+    /**
+     * Returns the x-javaClass of the definition referenced by the schema, or null
+     */
+    private String getDefinitionClassName(Map<String, Object> schema) {
+        Object ref = schema.get("$ref");
+        if (!(ref instanceof String) || !((String) ref).startsWith(DEFINITION_REF_PREFIX)) {
+            return null;
+        }
+        Object definition = swaggerValidator.getDefinitions().get(((String) ref).substring(DEFINITION_REF_PREFIX.length()));
+        return definition instanceof Map ? SwaggerValidator.getClassName((Map<String, Object>) definition) : null;
+    }
+
+    private static boolean matchesReturnType(List<ResourceReturnType> returnTypes, String className, boolean array) {
+        for (ResourceReturnType returnType : returnTypes) {
+            String elementType = returnType.getElementTypeName();
+            if (array ? elementType != null && (elementType.equals(className) || untypedReturnTypes.contains(elementType))
+                    : returnType.getTypeName().equals(className)) {
+                return true;
             }
         }
         return false;
     }
 
-    public void handleError(String msg, Object... arguments) {
-        String formatted = handleWarning(msg, arguments);
-        throw new ValidationException(formatted);
+    public void handleError(Rule rule, Object... arguments) {
+        diagnostics.report(Diagnostic.forPath(Severity.ERROR, path, rule.getId(), rule.getPattern(), arguments));
     }
 
-    public String handleWarning(String msg, Object... arguments) {
-        String formatted = MessageFormat.format("Path: {0}: {1}", path, MessageFormat.format(msg, arguments));
-        System.out.println(formatted);
-        return formatted;
+    public void handleWarning(Rule rule, Object... arguments) {
+        diagnostics.report(Diagnostic.forPath(Severity.WARNING, path, rule.getId(), rule.getPattern(), arguments));
     }
 }
@@ -0,0 +1,70 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.Locale;
+
+/**
+ * Validation rules reported by the validator.
+ *
+ * Each rule has a stable id (e.g. "forbidden-type") and a MessageFormat pattern of its message.
+ */
+public enum Rule {
+    JAVA_CLASS_NOT_DEFINED("{0} is not defined."),
+    CLASS_NOT_FOUND("Class not found {0}"),
+    UNDEFINED_REFERENCE("Referenced, but not defined."),
+    REFERENCE_CYCLE("Is part of a reference cycle: {0}"),
+    UNREACHABLE_DEFINITION("Is not referenced by any path, neither directly nor through other definitions."),
+    PROPERTY_NOT_FOUND("Does not exist."),
+    PROPERTY_NOT_WELL_DEFINED("Is not defined well. Define either $ref, or type, or enum."),
+    ENUM_EMPTY("Enum is empty!"),
+    ENUM_NOT_STRING("It's recommended to use String with enums!"),
+    ENUM_INVALID_TYPE("Must be either Enum or String"),
+    ENUM_VALUE_NOT_FOUND("Enum value {0} is not a constant of {1}"),
+    ENUM_CONSTANT_NOT_LISTED("Constant {0} of {1} is not listed in enum"),
+    ENUM_VALUES_NOT_CHECKED("Values of {0} are not checked, as they are serialized by a @JsonValue method"),
+    UNVALIDATED_TYPE("Unvalidated property. Should String be used? Or may be the tool needs an improvement!"),
+    ENUM_DECLARED_AS_TYPE("Is enum. Declare it using 'enum' instead of type, or use String."),
+    UNRECOMMENDED_TYPE("Unrecommended type: {0}. Prefer using String."),
+    ARRAY_TYPE_MISMATCH("Is an array. Does not match {0}"),
+    ARRAY_ITEMS_MISSING("Items is required for 'array'"),
+    OBJECT_TYPE_MISMATCH("Has properties. Does not match {0}"),
+    NESTING_TOO_DEEP("Is nested deeper than {0} levels"),
+    FORBIDDEN_TYPE("Type {0} is forbidden to use. Use String instead."),
+    PRIMITIVE_TYPE("Is a primitive. Only objects must be used."),
+    FORBIDDEN_OPERATION("Operation {0} should not be defined. It's provided by the container."),
+    UNDEFINED_PARAMETER_REFERENCE("Parameter {0} is referenced, but not defined."),
+    PARAMETER_NOT_FOUND("Parameter {0} in {1} of operation {2} not found in {3}"),
+    PARAMETER_LOCATION_MISMATCH("Parameter {0} of operation {1} is declared in {2}, but annotated in {3}"),
+    PARAMETER_TYPE_MISMATCH("Parameter {0} of operation {1} is {2}. Does not match {3}"),
+    RESPONSE_TYPE_MISMATCH("Response {0} of operation {1} is {2}. Does not match the return type {3}"),
+    OPERATION_NOT_FOUND("Method annotated with {0} operation not found in class {1}"),
+    OPERATION_NOT_TAGGED("Tags must be defined for operation: {0}"),
+    PATH_ANNOTATION_NOT_FOUND("Path annotation not found on {0}"),
+    METHOD_PATH_NOT_FOUND("No path annotation matches {0}"),
+    PATH_MISMATCH("Path {0} on annotation does not match {1}"),
+    UNDOCUMENTED_RESOURCE("Resource {0} is not documented by any path"),
+    UNDOCUMENTED_OPERATION("Operation {0} of {1} is not documented"),
+    UNDOCUMENTED_CLASS("Is used by {0}, but no definition documents it");
+
+    /**
+     * Rule id of the messages reported by custom validators
+     */
+    public static final String CUSTOM_ID = "custom";
+
+    private final String id;
+    private final String pattern;
+
+    Rule(String pattern) {
+        this.id = name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+        this.pattern = pattern;
+        // parses the template on startup
+        MessageTemplate.of(pattern);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+}
@@ -0,0 +1,15 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * Severity of a Diagnostic
+ */
+public enum Severity {
+    /**
+     * Spec doesn't match the code. Fails the validation.
+     */
+    ERROR,
+    /**
+     * Spec matches the code, but doesn't follow the guidelines.
+     */
+    WARNING
+}
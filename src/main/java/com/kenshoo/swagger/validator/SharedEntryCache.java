@@ -0,0 +1,81 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In memory cache of the validated entries, shared by the validators of several specs.
+ *
+ * Entries are keyed by the section, name and a hash of the yaml subtree, together with the yaml of the definitions
+ * and parameters it references by $ref, directly or transitively, as resolved in its own spec.
+ * Since all the specs are validated with the same configuration and class loader, an entry with the same key
+ * has the same diagnostics in any spec. Two specs may still validate the same entry at the same time,
+ * in which case the first result is kept.
+ *
+ * Each spec uses its own view, see forSpec().
+ *
+ * Thread safe.
+ */
+class SharedEntryCache {
+
+    private static final HashFunction hashFunction = Hashing.murmur3_128();
+
+    private final ConcurrentMap<HashCode, EntryDiagnostics> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /**
+     * Returns the cache of the entries of the spec, resolving their references in the spec
+     */
+    EntryCache forSpec(Map<String, Object> yaml) {
+        return new SpecEntryCache(yaml);
+    }
+
+    /**
+     * Number of entries found in the cache
+     */
+    int getHits() {
+        return hits.get();
+    }
+
+    private final class SpecEntryCache implements EntryCache {
+        private final Map<String, Object> definitions;
+        private final Map<String, Object> parameters;
+
+        private SpecEntryCache(Map<String, Object> yaml) {
+            this.definitions = SwaggerValidator.getSection(yaml, SwaggerValidator.DEFINITIONS);
+            this.parameters = SwaggerValidator.getSection(yaml, SwaggerValidator.PARAMETERS);
+        }
+
+        @Override
+        public EntryDiagnostics get(String section, String name, Map<String, Object> entry) {
+            EntryDiagnostics diagnostics = entries.get(hashEntry(section, name, entry));
+            if (diagnostics != null) {
+                hits.incrementAndGet();
+            }
+            return diagnostics;
+        }
+
+        @Override
+        public void put(String section, String name, Map<String, Object> entry, EntryDiagnostics diagnostics) {
+            entries.putIfAbsent(hashEntry(section, name, entry), diagnostics);
+        }
+
+        private HashCode hashEntry(String section, String name, Map<String, Object> entry) {
+            Hasher hasher = hashFunction.newHasher();
+            hasher.putString(section).putChar('\n').putString(name);
+            ValidationIndex.hashYaml(hasher, entry);
+            for (String reference : ValidationIndex.referencedDefinitions(entry, definitions, parameters)) {
+                hasher.putChar('\n').putString(reference);
+                ValidationIndex.hashYaml(hasher, ValidationIndex.resolve(reference, definitions, parameters));
+            }
+            return hasher.hash();
+        }
+    }
+}
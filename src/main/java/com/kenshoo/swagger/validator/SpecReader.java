@@ -0,0 +1,125 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses swagger.yaml or swagger.json, detecting the format by the first characters of the document.
+ *
+ * A document starting with '{' followed by a quoted key or '}' is read from the stream by the Jackson streaming parser,
+ * which is several times faster than SnakeYAML. Any other document, including a YAML flow mapping with unquoted keys,
+ * is parsed by SnakeYAML. YAML comments are accepted in JSON too.
+ * It's parsed into the same structure SnakeYAML returns for the same content: LinkedHashMap, ArrayList, String,
+ * Integer, Long or BigInteger, Double, Boolean and null, so the validators can't tell the formats apart.
+ *
+ * Thread safe.
+ */
+final class SpecReader {
+
+    private static final JsonFactory jsonFactory = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .enable(JsonParser.Feature.ALLOW_YAML_COMMENTS);
+    /**
+     * Maximum number of leading bytes read to detect the format
+     */
+    private static final int DETECTION_LIMIT = 4096;
+
+    private SpecReader() {
+    }
+
+    /**
+     * Parses the document, returns null if it's empty.
+     *
+     * @throws ValidationException if the document can't be read
+     */
+    static Map<String, Object> read(InputStream is) {
+        InputStream in = is.markSupported() ? is : new BufferedInputStream(is);
+        try {
+            if (isJson(in)) {
+                try (JsonParser parser = jsonFactory.createParser(in)) {
+                    Map<String, Object> yaml = (Map<String, Object>) readValue(parser, parser.nextToken());
+                    if (parser.nextToken() != null) {
+                        throw new ValidationException("Unexpected content after the JSON document at " + parser.getCurrentLocation());
+                    }
+                    return yaml;
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Can't read spec", e);
+        }
+        return (Map<String, Object>) new Yaml().load(in);
+    }
+
+    /**
+     * Returns true if the document opens a JSON object: '{', after the white space and the byte order mark,
+     * followed by a quoted key or '}'. Otherwise it may be a YAML flow mapping.
+     */
+    private static boolean isJson(InputStream in) throws IOException {
+        in.mark(DETECTION_LIMIT);
+        try {
+            boolean opened = false;
+            for (int i = 0; i < DETECTION_LIMIT; i++) {
+                int b = in.read();
+                if (opened && (b == '"' || b == '}')) {
+                    return true;
+                }
+                if (!opened && b == '{') {
+                    opened = true;
+                } else if (!isWhiteSpace(b) && (opened || (b != 0xEF && b != 0xBB && b != 0xBF))) {
+                    return false;
+                }
+            }
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private static boolean isWhiteSpace(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    map.put(name, readValue(parser, parser.nextToken()));
+                }
+                return map;
+            case START_ARRAY:
+                List<Object> list = new ArrayList<>();
+                JsonToken item;
+                while ((item = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser, item));
+                }
+                return list;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                // same as SnakeYAML: Integer if it fits, then Long, then BigInteger
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new ValidationException("Unexpected JSON token " + token + " at " + parser.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.kenshoo.swagger.validator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Parsed swagger.yaml stored in a compact binary file, which is memory mapped instead of parsed again.
+ *
+ * The file is written once by write() and then opened by open() in constant time: nothing is read until accessed.
+ * getYaml() returns read only Map and List views decoding the mapped file on access, so the document
+ * stays off-heap and may be passed to SwaggerValidator as any parsed yaml.
+ *
+ * Format (all numbers big endian):
+ * <pre>
+ * header:  magic, version, root node offset, string count, string offsets position, string hash table position
+ * nodes:   map:    'm', size, size * (key string index, value node offset), size * entry index sorted by key string index
+ *          list:   'l', size, size * value node offset
+ *          scalar: 's' string index | 'i' int | 'j' long | 'b' BigInteger string index | 'd' double | 't' | 'f' | 'D' millis | 'n'
+ * strings: string count * offset, then each string as length and UTF-16 chars, each distinct string once
+ * hash table of the strings: capacity, capacity * (string index + 1 or 0 for an empty slot), linear probing
+ * </pre>
+ *
+ * Thread safe.
+ */
+public final class SpecSnapshot {
+
+    private static final int MAGIC = 0x53565353;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 6 * 4;
+
+    private static final byte MAP = 'm';
+    private static final byte LIST = 'l';
+    private static final byte STRING = 's';
+    private static final byte INT = 'i';
+    private static final byte LONG = 'j';
+    private static final byte BIG_INTEGER = 'b';
+    private static final byte DOUBLE = 'd';
+    private static final byte TRUE = 't';
+    private static final byte FALSE = 'f';
+    private static final byte DATE = 'D';
+    private static final byte NULL = 'n';
+
+    private final ByteBuffer buffer;
+    private final int root;
+    private final int stringOffsets;
+    private final int hashTable;
+    private final int hashMask;
+
+    private SpecSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a spec snapshot or of a different version");
+        }
+        this.root = buffer.getInt(8);
+        this.stringOffsets = buffer.getInt(16);
+        this.hashTable = buffer.getInt(20) + 4;
+        this.hashMask = buffer.getInt(hashTable - 4) - 1;
+    }
+
+    /**
+     * Maps the snapshot file into memory. The file must not be modified while the snapshot is in use.
+     */
+    public static SpecSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new SpecSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the parsed yaml (as returned by SnakeYAML) to the snapshot file.
+     *
+     * @throws ValidationException if the yaml contains a value of an unsupported type (e.g. binary)
+     */
+    public static void write(Map<String, Object> yaml, File file) throws IOException {
+        Writer writer = new Writer();
+        int root = writer.writeNode(yaml);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            writer.writeTo(out, root);
+        }
+    }
+
+    /**
+     * Returns the root of the document
+     */
+    public Map<String, Object> getYaml() {
+        return (Map<String, Object>) decode(root);
+    }
+
+    private Object decode(int offset) {
+        switch (buffer.get(offset)) {
+            case MAP:
+                return new MapView(offset);
+            case LIST:
+                return new ListView(offset);
+            case STRING:
+                return string(buffer.getInt(offset + 1));
+            case INT:
+                return buffer.getInt(offset + 1);
+            case LONG:
+                return buffer.getLong(offset + 1);
+            case BIG_INTEGER:
+                return new BigInteger(string(buffer.getInt(offset + 1)));
+            case DOUBLE:
+                return buffer.getDouble(offset + 1);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case DATE:
+                return new Date(buffer.getLong(offset + 1));
+            case NULL:
+                return null;
+            default:
+                throw new IllegalStateException("Corrupted spec snapshot at " + offset);
+        }
+    }
+
+    private String string(int index) {
+        int position = buffer.getInt(stringOffsets + 4 * index);
+        char[] chars = new char[buffer.getInt(position)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(position + 4 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns index of the string or -1 if the snapshot doesn't contain the string
+     */
+    private int indexOf(String string) {
+        for (int slot = spread(string.hashCode()) & hashMask; ; slot = (slot + 1) & hashMask) {
+            int index = buffer.getInt(hashTable + 4 * slot) - 1;
+            if (index == -1 || stringEquals(index, string)) {
+                return index;
+            }
+        }
+    }
+
+    private boolean stringEquals(int index, String string) {
+        int position = buffer.getInt(stringOffsets + 4 * index);
+        if (buffer.getInt(position) != string.length()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (buffer.getChar(position + 4 + 2 * i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Read only view of a map node. Keys are looked up by a binary search over the entries sorted by key string index.
+     */
+    private final class MapView extends AbstractMap<String, Object> {
+        private final int size;
+        private final int entries;
+        private final int sorted;
+
+        private MapView(int offset) {
+            this.size = buffer.getInt(offset + 1);
+            this.entries = offset + 5;
+            this.sorted = entries + 8 * size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int entry = find(key);
+            return entry == -1 ? null : decode(buffer.getInt(entries + 8 * entry + 4));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) != -1;
+        }
+
+        /**
+         * Returns index of the entry or -1 if the map doesn't contain the key
+         */
+        private int find(Object key) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+            int string = indexOf((String) key);
+            if (string == -1) {
+                return -1;
+            }
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int entry = buffer.getInt(sorted + 4 * mid);
+                int midString = buffer.getInt(entries + 8 * entry);
+                if (midString < string) {
+                    low = mid + 1;
+                } else if (midString > string) {
+                    high = mid - 1;
+                } else {
+                    return entry;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            int entry = entries + 8 * next++;
+                            return new SimpleImmutableEntry<>(string(buffer.getInt(entry)), decode(buffer.getInt(entry + 4)));
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private final class ListView extends AbstractList<Object> implements RandomAccess {
+        private final int size;
+        private final int values;
+
+        private ListView(int offset) {
+            this.size = buffer.getInt(offset + 1);
+            this.values = offset + 5;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return decode(buffer.getInt(values + 4 * index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Writes the nodes children first, so that a node is written after the nodes it points to,
+     * and interns the strings. The header, strings and hash table are written at the end.
+     */
+    private static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream nodes = new DataOutputStream(bytes);
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+        /**
+         * @return offset of the node in the file
+         */
+        private int writeNode(Object value) throws IOException {
+            if (value instanceof Map) {
+                return writeMap((Map<?, ?>) value);
+            }
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                int[] values = new int[list.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = writeNode(list.get(i));
+                }
+                int offset = offset();
+                nodes.writeByte(LIST);
+                nodes.writeInt(values.length);
+                for (int v : values) {
+                    nodes.writeInt(v);
+                }
+                return offset;
+            }
+            int offset = offset();
+            if (value == null) {
+                nodes.writeByte(NULL);
+            } else if (value instanceof String) {
+                nodes.writeByte(STRING);
+                nodes.writeInt(intern((String) value));
+            } else if (value instanceof Integer) {
+                nodes.writeByte(INT);
+                nodes.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                nodes.writeByte(LONG);
+                nodes.writeLong((Long) value);
+            } else if (value instanceof BigInteger) {
+                nodes.writeByte(BIG_INTEGER);
+                nodes.writeInt(intern(value.toString()));
+            } else if (value instanceof Double) {
+                nodes.writeByte(DOUBLE);
+                nodes.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                nodes.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Date) {
+                nodes.writeByte(DATE);
+                nodes.writeLong(((Date) value).getTime());
+            } else {
+                throw new ValidationException("Unsupported yaml value of " + value.getClass().getName());
+            }
+            return offset;
+        }
+
+        private int writeMap(Map<?, ?> map) throws IOException {
+            final int[] keys = new int[map.size()];
+            int[] values = new int[map.size()];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keys[i] = intern(String.valueOf(entry.getKey()));
+                values[i++] = writeNode(entry.getValue());
+            }
+            Integer[] sorted = new Integer[keys.length];
+            for (int e = 0; e < sorted.length; e++) {
+                sorted[e] = e;
+            }
+            Arrays.sort(sorted, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer e1, Integer e2) {
+                    return Integer.compare(keys[e1], keys[e2]);
+                }
+            });
+            int offset = offset();
+            nodes.writeByte(MAP);
+            nodes.writeInt(keys.length);
+            for (int e = 0; e < keys.length; e++) {
+                nodes.writeInt(keys[e]);
+                nodes.writeInt(values[e]);
+            }
+            for (int e : sorted) {
+                nodes.writeInt(e);
+            }
+            return offset;
+        }
+
+        private int intern(String string) {
+            Integer index = strings.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.put(string, index);
+            }
+            return index;
+        }
+
+        private int offset() {
+            return HEADER_SIZE + nodes.size();
+        }
+
+        private void writeTo(DataOutputStream out, int root) throws IOException {
+            int stringOffsets = offset();
+            int stringData = stringOffsets + 4 * strings.size();
+            int hashTable = stringData;
+            for (String string : strings.keySet()) {
+                hashTable += 4 + 2 * string.length();
+            }
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(root);
+            out.writeInt(strings.size());
+            out.writeInt(stringOffsets);
+            out.writeInt(hashTable);
+            bytes.writeTo(out);
+
+            int position = stringData;
+            for (String string : strings.keySet()) {
+                out.writeInt(position);
+                position += 4 + 2 * string.length();
+            }
+            for (String string : strings.keySet()) {
+                out.writeInt(string.length());
+                out.writeChars(string);
+            }
+
+            // at most half full, so the probing always reaches an empty slot
+            int capacity = Integer.highestOneBit(Math.max(1, strings.size()) * 2 - 1) << 1;
+            int[] slots = new int[capacity];
+            for (Map.Entry<String, Integer> entry : strings.entrySet()) {
+                int slot = spread(entry.getKey().hashCode()) & (capacity - 1);
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                slots[slot] = entry.getValue() + 1;
+            }
+            out.writeInt(capacity);
+            for (int slot : slots) {
+                out.writeInt(slot);
+            }
+        }
+    }
+}
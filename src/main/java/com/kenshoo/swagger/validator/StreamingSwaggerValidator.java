@@ -0,0 +1,166 @@
+package com.kenshoo.swagger.validator;
+
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates swagger.yaml while reading it, without loading the whole document into memory.
+ *
+ * Each entry of 'definitions' and 'paths' is parsed, validated and discarded before the next one is read,
+ * so the peak memory is bounded by the largest entry. Use it for very large documents,
+ * otherwise prefer SwaggerValidator, which keeps the parsed document.
+ *
+ * Definitions and resources are validated in a single pass, in the order they appear in the document.
+ * Since the document is never loaded whole, reference cycles and unreachable definitions are not reported.
+ *
+ * The top level 'parameters' section is kept, as well as the x-javaClass of each definition, so that parameter
+ * and response validation can resolve the references to them. Only the sections that precede 'paths'
+ * are resolved: a parameter reference read earlier is not checked, nor is a response referencing a definition
+ * that follows its path. Put 'parameters' and 'definitions' before 'paths' to validate them fully.
+ *
+ * Note on synchronization: Class is thread safe if the configuration is.
+ */
+public class StreamingSwaggerValidator {
+
+    private final SwaggerValidatorConf conf;
+
+    public StreamingSwaggerValidator(SwaggerValidatorConf conf) {
+        this.conf = conf;
+    }
+
+    public StreamingSwaggerValidator() {
+        this(SwaggerValidatorConf.getDefault());
+    }
+
+    /**
+     * Validates definitions and resources, failing on the first error.
+     */
+    public void validate(InputStream is) {
+        validate(is, null);
+    }
+
+    /**
+     * Validates definitions and resources without failing on the first error.
+     */
+    public ValidationReport validateAll(InputStream is) {
+        ValidationReport report = new ValidationReport();
+        validate(is, report);
+        return report;
+    }
+
+    /**
+     * @param report null for the fail fast validation
+     */
+    private void validate(InputStream is, ValidationReport report) {
+        // the sections referenced by the paths, filled while reading
+        Map<String, Object> yaml = new ConcurrentHashMap<>();
+        Map<String, Object> definitions = new ConcurrentHashMap<>();
+        yaml.put(SwaggerValidator.DEFINITIONS, definitions);
+        SwaggerValidator swaggerValidator = new SwaggerValidator(yaml, conf);
+        swaggerValidator.setParametersRead(false);
+        StreamingYamlReader reader = new StreamingYamlReader(new UnicodeReader(is));
+        ValidationMetrics metrics = swaggerValidator.getMetrics();
+        Set<String> definedNames = new HashSet<>();
+        try {
+            for (String section = nextSection(reader, metrics); section != null; section = nextSection(reader, metrics)) {
+                if (section.equals(SwaggerValidator.DEFINITIONS)) {
+                    swaggerValidator.validateDefinitionEntries(keepJavaClasses(sectionEntries(reader, metrics), definitions),
+                            definedNames, report);
+                } else if (section.equals(SwaggerValidator.PATHS)) {
+                    swaggerValidator.validateResourceEntries(sectionEntries(reader, metrics), report);
+                } else if (section.equals(SwaggerValidator.PARAMETERS)) {
+                    long start = metrics.isEnabled() ? System.nanoTime() : 0;
+                    Object parameters = reader.readSection();
+                    // an empty section is read as null
+                    yaml.put(SwaggerValidator.PARAMETERS, parameters != null ? parameters : Collections.emptyMap());
+                    swaggerValidator.setParametersRead(true);
+                    if (metrics.isEnabled()) {
+                        metrics.recordStage(ValidationMetrics.Stage.YAML_PARSE, System.nanoTime() - start);
+                    }
+                } else {
+                    long start = metrics.isEnabled() ? System.nanoTime() : 0;
+                    reader.skipSection();
+                    if (metrics.isEnabled()) {
+                        metrics.recordStage(ValidationMetrics.Stage.YAML_PARSE, System.nanoTime() - start);
+                    }
+                }
+            }
+            swaggerValidator.validateReferences(definedNames, report);
+        } finally {
+            swaggerValidator.flushDiagnostics();
+        }
+    }
+
+    /**
+     * Keeps the x-javaClass of each definition the iterator returns, in place of the definition
+     */
+    private static Iterator<Map.Entry<Object, Object>> keepJavaClasses(final Iterator<Map.Entry<Object, Object>> entries,
+                                                                      final Map<String, Object> definitions) {
+        return new Iterator<Map.Entry<Object, Object>>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                Map.Entry<Object, Object> entry = entries.next();
+                Object className = entry.getValue() instanceof Map ? ((Map<?, ?>) entry.getValue()).get(SwaggerValidator.JAVA_CLASS_TAG) : null;
+                definitions.put(String.valueOf(entry.getKey()), className != null
+                        ? Collections.singletonMap(SwaggerValidator.JAVA_CLASS_TAG, className) : Collections.emptyMap());
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static String nextSection(StreamingYamlReader reader, ValidationMetrics metrics) {
+        if (!metrics.isEnabled()) {
+            return reader.nextSection();
+        }
+        long start = System.nanoTime();
+        String section = reader.nextSection();
+        metrics.recordStage(ValidationMetrics.Stage.YAML_PARSE, System.nanoTime() - start);
+        return section;
+    }
+
+    /**
+     * Returns the entries of the section, recording the time of materializing each entry as the yaml parse time
+     */
+    private static Iterator<Map.Entry<Object, Object>> sectionEntries(StreamingYamlReader reader, final ValidationMetrics metrics) {
+        final Iterator<Map.Entry<Object, Object>> entries = reader.sectionEntries();
+        if (!metrics.isEnabled()) {
+            return entries;
+        }
+        return new Iterator<Map.Entry<Object, Object>>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                long start = System.nanoTime();
+                Map.Entry<Object, Object> entry = entries.next();
+                metrics.recordStage(ValidationMetrics.Stage.YAML_PARSE, System.nanoTime() - start);
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
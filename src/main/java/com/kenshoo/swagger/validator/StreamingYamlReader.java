@@ -0,0 +1,304 @@
+package com.kenshoo.swagger.validator;
+
+import org.yaml.snakeyaml.constructor.Construct;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.Reader;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Reads a yaml document incrementally, using the SnakeYAML events instead of loading the whole document.
+ *
+ * The top level mapping is traversed section by section (e.g. "paths", "definitions").
+ * The entries of a section are materialized one at a time, when the iterator reaches them,
+ * so the memory is bounded by the largest entry rather than by the whole document.
+ * Scalars are resolved to the same types as Yaml.load() resolves them, and "<<" merge keys are merged
+ * the same way, except at the top level and directly in a section, where they are rejected.
+ *
+ * The anchors defined inside a section entry are dropped once the entry has been returned,
+ * so an alias to them from a later entry is reported as an error.
+ * Anchors shared by several entries should be defined outside the streamed sections.
+ *
+ * Not thread safe.
+ */
+class StreamingYamlReader {
+
+    private final Parser parser;
+    private final Resolver resolver = new Resolver();
+    private final ScalarConstructor scalarConstructor = new ScalarConstructor();
+    private final Map<String, Object> anchors = new HashMap<>();
+    private final Set<String> droppedAnchors = new HashSet<>();
+    private List<String> entryAnchors;
+
+    StreamingYamlReader(Reader reader) {
+        this.parser = new ParserImpl(new StreamReader(reader));
+        expect(Event.ID.StreamStart);
+        expect(Event.ID.DocumentStart);
+        expect(Event.ID.MappingStart);
+    }
+
+    /**
+     * Moves to the next top level section.
+     * The value of the previous section must be consumed, either by sectionEntries() or by skipSection().
+     *
+     * @return name of the section or null if there are no more sections
+     */
+    String nextSection() {
+        if (parser.checkEvent(Event.ID.MappingEnd)) {
+            return null;
+        }
+        rejectMergeKey("the top level");
+        return String.valueOf(readValue());
+    }
+
+    /**
+     * Returns the entries of the current section, materializing each entry on next().
+     * The iterator must be exhausted before moving to the next section.
+     */
+    Iterator<Map.Entry<Object, Object>> sectionEntries() {
+        if (!parser.checkEvent(Event.ID.MappingStart)) {
+            // empty or not a mapping
+            skipSection();
+            return new ArrayList<Map.Entry<Object, Object>>().iterator();
+        }
+        registerAnchor(parser.getEvent(), null);
+        return new Iterator<Map.Entry<Object, Object>>() {
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (done) {
+                    return false;
+                }
+                if (parser.checkEvent(Event.ID.MappingEnd)) {
+                    parser.getEvent();
+                    done = true;
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                rejectMergeKey("a section");
+                entryAnchors = new ArrayList<>();
+                try {
+                    Object key = readValue();
+                    return new AbstractMap.SimpleImmutableEntry<>(key, readValue());
+                } finally {
+                    for (String anchor : entryAnchors) {
+                        anchors.remove(anchor);
+                        droppedAnchors.add(anchor);
+                    }
+                    entryAnchors = null;
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Consumes the value of the current section.
+     * Only the anchored values are materialized, as they may be referenced by the next sections.
+     */
+    void skipSection() {
+        skipValue();
+    }
+
+    /**
+     * Materializes the value of the current section, for the small sections referenced by the others
+     */
+    Object readSection() {
+        return readValue();
+    }
+
+    private Object readValue() {
+        Event event = parser.getEvent();
+        if (event.is(Event.ID.Alias)) {
+            String anchor = ((AliasEvent) event).getAnchor();
+            if (droppedAnchors.contains(anchor)) {
+                throw new ValidationException("Yaml alias " + anchor + " refers to an entry that was already read " +
+                        event.getStartMark() + ", define it outside the section instead");
+            }
+            if (!anchors.containsKey(anchor)) {
+                throw new ValidationException("Undefined yaml alias " + anchor + " " + event.getStartMark());
+            }
+            return anchors.get(anchor);
+        }
+        if (event.is(Event.ID.Scalar)) {
+            Object value = constructScalar((ScalarEvent) event);
+            registerAnchor(event, value);
+            return value;
+        }
+        if (event.is(Event.ID.SequenceStart)) {
+            List<Object> list = new ArrayList<>();
+            registerAnchor(event, list);
+            while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+                list.add(readValue());
+            }
+            parser.getEvent();
+            return list;
+        }
+        if (event.is(Event.ID.MappingStart)) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            registerAnchor(event, map);
+            List<Map<?, ?>> merged = new ArrayList<>();
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                if (isMergeKey()) {
+                    Event key = parser.getEvent();
+                    addMerged(merged, readValue(), key);
+                    continue;
+                }
+                Object key = readValue();
+                map.put(key, readValue());
+            }
+            parser.getEvent();
+            if (!merged.isEmpty()) {
+                merge(map, merged);
+            }
+            return map;
+        }
+        throw new ValidationException("Unexpected yaml event " + event);
+    }
+
+    private void skipValue() {
+        Event event = parser.peekEvent();
+        if (!event.is(Event.ID.Alias) && ((NodeEvent) event).getAnchor() != null) {
+            readValue();
+            return;
+        }
+        parser.getEvent();
+        if (event.is(Event.ID.SequenceStart)) {
+            while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+                skipValue();
+            }
+            parser.getEvent();
+        } else if (event.is(Event.ID.MappingStart)) {
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                skipValue();
+                skipValue();
+            }
+            parser.getEvent();
+        }
+    }
+
+    private boolean isMergeKey() {
+        Event event = parser.peekEvent();
+        return event.is(Event.ID.Scalar) && Tag.MERGE.equals(resolveTag((ScalarEvent) event));
+    }
+
+    private void rejectMergeKey(String where) {
+        if (isMergeKey()) {
+            throw new ValidationException("Yaml merge key << is not supported in " + where + " " +
+                    parser.peekEvent().getStartMark());
+        }
+    }
+
+    private static void addMerged(List<Map<?, ?>> merged, Object value, Event key) {
+        if (value instanceof Map) {
+            merged.add((Map<?, ?>) value);
+            return;
+        }
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (item instanceof Map) {
+                    merged.add((Map<?, ?>) item);
+                    continue;
+                }
+                throw new ValidationException("Yaml merge key << expects mappings " + key.getStartMark());
+            }
+            return;
+        }
+        throw new ValidationException("Yaml merge key << expects a mapping or a list of mappings " + key.getStartMark());
+    }
+
+    /**
+     * Merges like Yaml.load(): the explicit keys win, then the earlier merged mappings
+     */
+    private static void merge(Map<Object, Object> map, List<Map<?, ?>> merged) {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        for (Map<?, ?> source : merged) {
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                if (!result.containsKey(entry.getKey())) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        result.putAll(map);
+        // keep the same instance, as it may be referenced by an anchor
+        map.clear();
+        map.putAll(result);
+    }
+
+    private Object constructScalar(ScalarEvent event) {
+        Tag tag = resolveTag(event);
+        return scalarConstructor.construct(
+                new ScalarNode(tag, event.getValue(), event.getStartMark(), event.getEndMark(), event.getStyle()));
+    }
+
+    private Tag resolveTag(ScalarEvent event) {
+        if (event.getTag() == null || event.getTag().equals("!")) {
+            return resolver.resolve(NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+        }
+        return new Tag(event.getTag());
+    }
+
+    private void registerAnchor(Event event, Object value) {
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) {
+            anchors.put(anchor, value);
+            droppedAnchors.remove(anchor);
+            if (entryAnchors != null) {
+                entryAnchors.add(anchor);
+            }
+        }
+    }
+
+    private void expect(Event.ID id) {
+        Event event = parser.getEvent();
+        if (!event.is(id)) {
+            throw new ValidationException("Expected yaml " + id + ", but got " + event);
+        }
+    }
+
+    /**
+     * Exposes the scalar constructors of SafeConstructor, the one used by Yaml.load()
+     */
+    private static class ScalarConstructor extends SafeConstructor {
+
+        Object construct(ScalarNode node) {
+            Construct construct = yamlConstructors.get(node.getTag());
+            if (construct == null) {
+                return node.getValue();
+            }
+            return construct.construct(node);
+        }
+    }
+}
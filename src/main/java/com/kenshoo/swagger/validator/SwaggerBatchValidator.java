@@ -0,0 +1,200 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validates many swagger.yaml (or swagger.json) files in a single pass.
+ *
+ * Specs are given as files, directories (all the *.yaml, *.yml and *.json files below them) or glob patterns
+ * (e.g. "specs/*.yaml", see FileSystem.getPathMatcher() for the syntax).
+ * The specs are validated concurrently with the same configuration: the validation plan and the class introspector
+ * are created once, and the classes and their metadata are cached for the whole batch.
+ * A definition or path that is identical (same name and yaml) to one already validated in another spec
+ * is not validated again, its diagnostics are reused.
+ *
+ * Each spec is validated without failing on the first error, a spec that can't be read or parsed
+ * is reported as a failure and doesn't stop the other specs.
+ */
+public class SwaggerBatchValidator {
+
+    private static final String GLOB_CHARS = "*?[{";
+    private static final PathMatcher SPEC_FILES = new PathMatcher() {
+        @Override
+        public boolean matches(Path path) {
+            String name = path.getFileName().toString();
+            return name.endsWith(".yaml") || name.endsWith(".yml") || name.endsWith(".json");
+        }
+    };
+
+    private final List<File> specs;
+    private final SwaggerValidatorConf conf;
+    private final int threads;
+
+    /**
+     * @param specs files, directories or glob patterns
+     * @param threads number of specs validated at the same time
+     * @throws FileNotFoundException if a file or directory doesn't exist
+     */
+    public SwaggerBatchValidator(Collection<String> specs, SwaggerValidatorConf conf, int threads) throws IOException {
+        this.specs = resolve(specs);
+        this.conf = conf;
+        this.threads = threads;
+    }
+
+    /**
+     * Validates as many specs at the same time as there are processors.
+     */
+    public SwaggerBatchValidator(Collection<String> specs, SwaggerValidatorConf conf) throws IOException {
+        this(specs, conf, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Uses default configuration for validation.
+     */
+    public SwaggerBatchValidator(Collection<String> specs) throws IOException {
+        this(specs, SwaggerValidatorConf.getDefault());
+    }
+
+    /**
+     * Returns the resolved spec files, in the order of the arguments, the files matched by a directory or a glob sorted.
+     */
+    public List<File> getSpecs() {
+        return specs;
+    }
+
+    /**
+     * Validates all the specs, both definitions and resources.
+     */
+    public BatchValidationReport validateAll() {
+        final ValidationPlan plan = ValidationPlan.compile(conf);
+        final ClassIntrospector introspector = conf.getClassIntrospector();
+        final SharedEntryCache entryCache = new SharedEntryCache();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, specs.size())));
+        try {
+            List<Future<ValidationReport>> futures = new ArrayList<>(specs.size());
+            for (final File spec : specs) {
+                futures.add(executor.submit(new Callable<ValidationReport>() {
+                    @Override
+                    public ValidationReport call() throws IOException {
+                        Map<String, Object> yaml;
+                        try (InputStream is = new BufferedInputStream(new FileInputStream(spec))) {
+                            yaml = SwaggerValidator.load(is, conf.getValidationMetrics());
+                        }
+                        if (yaml == null) {
+                            throw new ValidationException("Empty spec");
+                        }
+                        SwaggerValidator swaggerValidator = new SwaggerValidator(yaml, conf, plan, introspector);
+                        swaggerValidator.setEntryCache(entryCache.forSpec(yaml));
+                        return swaggerValidator.validateAll();
+                    }
+                }));
+            }
+            BatchValidationReport report = new BatchValidationReport();
+            for (int i = 0; i < specs.size(); i++) {
+                try {
+                    report.add(specs.get(i), futures.get(i).get());
+                } catch (ExecutionException e) {
+                    report.addFailure(specs.get(i), e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                }
+            }
+            report.setDeduplicatedEntries(entryCache.getHits());
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resolves the files, directories and glob patterns to the spec files, each file once.
+     */
+    static List<File> resolve(Collection<String> specs) throws IOException {
+        Set<File> files = new LinkedHashSet<>();
+        for (String spec : specs) {
+            if (isGlob(spec)) {
+                files.addAll(match(spec));
+            } else {
+                File file = new File(spec);
+                if (file.isDirectory()) {
+                    files.addAll(walk(file.toPath(), SPEC_FILES));
+                } else if (file.isFile()) {
+                    files.add(file);
+                } else {
+                    throw new FileNotFoundException(spec);
+                }
+            }
+        }
+        return ImmutableList.copyOf(files);
+    }
+
+    private static boolean isGlob(String spec) {
+        for (int i = 0; i < spec.length(); i++) {
+            if (GLOB_CHARS.indexOf(spec.charAt(i)) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the files matching the glob, walking the directory preceding the first glob character
+     */
+    private static Set<File> match(String glob) throws IOException {
+        int firstGlobChar = 0;
+        while (GLOB_CHARS.indexOf(glob.charAt(firstGlobChar)) == -1) {
+            firstGlobChar++;
+        }
+        int separator = Math.max(glob.lastIndexOf('/', firstGlobChar), glob.lastIndexOf(File.separatorChar, firstGlobChar));
+        Path base = Paths.get(separator == -1 ? "" : glob.substring(0, separator + 1));
+        return walk(base, FileSystems.getDefault().getPathMatcher("glob:" + glob));
+    }
+
+    /**
+     * Returns the matching files below the directory, sorted
+     */
+    private static Set<File> walk(Path directory, final PathMatcher matcher) throws IOException {
+        final Set<File> matched = new TreeSet<>();
+        if (!Files.isDirectory(directory)) {
+            return matched;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && matcher.matches(file)) {
+                    matched.add(file.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return matched;
+    }
+}
@@ -1,12 +1,17 @@
 package com.kenshoo.swagger.validator;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
-import org.springframework.util.ClassUtils;
-import org.yaml.snakeyaml.Yaml;
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 
 /**
@@ -14,24 +19,56 @@ import java.util.*;
  *
  * Currently validates only data model (definitions) and resources (paths).
  *
+ * Definitions are validated in the order of their references: a definition after the definitions it references.
+ * Reference cycles and definitions that no path uses are reported as warnings.
+ *
+ * By default the validation fails with ValidationException on the first error.
+ * Use validateAll() (or the methods accepting ValidationReport) to collect all the diagnostics in a single pass.
+ *
  * In order to customize the behavior, extend the SwaggerValidatorConf and override the relevant methods.
  * (See SwaggerValidatorConf javadoc for more details)
  *
- * Note on synchronization: Class is not synchronized and must be run in a single thread!
+ * Note on synchronization: Class is not synchronized and its methods must not be called concurrently!
+ * In order to validate the entries in parallel, provide a ForkJoinPool using SwaggerValidatorConf.getForkJoinPool().
+ * Parallel validation prints, reports and fails in the same order as a single thread validation does.
  *
  */
 public class SwaggerValidator {
 
     public static final String JAVA_CLASS_TAG = "x-javaClass";
+    static final String DEFINITIONS = "definitions";
+    static final String PATHS = "paths";
+    static final String PARAMETERS = "parameters";
+    static final String RESPONSES = "responses";
+    private static final int ENTRIES_IN_FLIGHT_PER_THREAD = 4;
     private final Map<String, Object> yaml;
-    private final Set<String> uncheckedDefinitions = new HashSet<>();
-    private final Set<String> checkedDefinitions = new HashSet<>();
+    private final Set<String> referencedDefinitions = new HashSet<>();
 
     public final SwaggerValidatorConf conf;
+    private final ValidationPlan plan;
+    private final ClassIntrospector introspector;
+    private final ValidationMetrics metrics;
+    private final boolean timed;
+    private final DiagnosticSink sink;
+    private EntryCache entryCache;
+    private boolean preloaded;
+    private volatile boolean parametersRead = true;
 
     public SwaggerValidator(Map<String, Object> yaml, SwaggerValidatorConf conf) {
+        this(yaml, conf, ValidationPlan.compile(conf), conf.getClassIntrospector());
+    }
+
+    /**
+     * Uses the plan and introspector shared with other validators of the same configuration.
+     */
+    SwaggerValidator(Map<String, Object> yaml, SwaggerValidatorConf conf, ValidationPlan plan, ClassIntrospector introspector) {
         this.yaml = yaml;
         this.conf = conf;
+        this.plan = plan;
+        this.introspector = introspector;
+        this.metrics = conf.getValidationMetrics();
+        this.timed = metrics.isEnabled();
+        this.sink = conf.getDiagnosticSink();
     }
 
     public SwaggerValidator(Map<String, Object> yaml) {
@@ -39,61 +76,454 @@ public class SwaggerValidator {
     }
 
     /**
-     * Loads yaml from input stream.
+     * Loads yaml or json from input stream, the format is detected by the first character.
      */
     public SwaggerValidator(InputStream is, SwaggerValidatorConf conf) throws FileNotFoundException {
-        this((Map<String, Object>) new Yaml().load(is), conf);
+        this(load(is, conf.getValidationMetrics()), conf);
     }
 
     /**
-     * Loads yaml from input stream and uses default configuration for validation.
+     * Loads yaml or json from input stream and uses default configuration for validation.
      */
     public SwaggerValidator(InputStream is) throws FileNotFoundException {
-        this((Map<String, Object>) new Yaml().load(is));
+        this(SpecReader.read(is));
+    }
+
+    /**
+     * Loads swagger.yaml or swagger.json from the file, the format is detected by the first character.
+     */
+    public SwaggerValidator(Path spec, SwaggerValidatorConf conf) throws IOException {
+        this(load(spec, conf.getValidationMetrics()), conf);
+    }
+
+    /**
+     * Loads swagger.yaml or swagger.json from the file and uses default configuration for validation.
+     */
+    public SwaggerValidator(Path spec) throws IOException {
+        this(spec, SwaggerValidatorConf.getDefault());
+    }
+
+    /**
+     * Validates the document of the snapshot, without parsing it again.
+     */
+    public SwaggerValidator(SpecSnapshot snapshot, SwaggerValidatorConf conf) {
+        this(snapshot.getYaml(), conf);
+    }
+
+    /**
+     * Validates the document of the snapshot using default configuration.
+     */
+    public SwaggerValidator(SpecSnapshot snapshot) {
+        this(snapshot.getYaml());
+    }
+
+    /**
+     * Loads yaml or json from input stream, recording the parse time.
+     */
+    static Map<String, Object> load(InputStream is, ValidationMetrics metrics) {
+        if (!metrics.isEnabled()) {
+            return SpecReader.read(is);
+        }
+        long start = System.nanoTime();
+        Map<String, Object> yaml = SpecReader.read(is);
+        metrics.recordStage(ValidationMetrics.Stage.YAML_PARSE, System.nanoTime() - start);
+        return yaml;
+    }
+
+    private static Map<String, Object> load(Path spec, ValidationMetrics metrics) throws IOException {
+        Map<String, Object> yaml;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(spec))) {
+            yaml = load(is, metrics);
+        }
+        if (yaml == null) {
+            throw new ValidationException("Empty spec " + spec);
+        }
+        return yaml;
     }
 
     /**
      * Validates the definitions
      */
     public void validateDefinitions() {
-        Map<String, Object> definitions = (Map<String, Object>) yaml.get("definitions");
-        for (Map.Entry<String, Object> defEntry : definitions.entrySet()) {
-            String name = defEntry.getKey();
-            new DefinitionValidator(this, name, (Map<String, Object>) defEntry.getValue()).validate();
-            checkedDefinitions.add(name);
-            uncheckedDefinitions.remove(name);
-        }
-        if (!uncheckedDefinitions.isEmpty()) {
-            throw new ValidationException("Undefined reference: " + uncheckedDefinitions);
+        try {
+            validateDefinitionsInto(null);
+        } finally {
+            flushDiagnostics();
         }
     }
 
+    /**
+     * Validates the definitions, collecting all the diagnostics into the report instead of failing on the first error.
+     */
+    public void validateDefinitions(ValidationReport report) {
+        validateDefinitionsInto(Preconditions.checkNotNull(report));
+    }
+
     /**
      * Validates resources
      */
     public void validateResources() {
-        Map<String, Object> paths = (Map<String, Object>) yaml.get("paths");
-        for (Map.Entry<String, Object> pathEntry : paths.entrySet()) {
-            String path = pathEntry.getKey();
-            new ResourceValidator(path, (Map<String, Object>) pathEntry.getValue()).validate();
+        try {
+            validateResourcesInto(null);
+        } finally {
+            flushDiagnostics();
+        }
+    }
+
+    /**
+     * Validates resources, collecting all the diagnostics into the report instead of failing on the first error.
+     */
+    public void validateResources(ValidationReport report) {
+        validateResourcesInto(Preconditions.checkNotNull(report));
+    }
+
+    /**
+     * Validates both definitions and resources without failing on the first error.
+     */
+    public ValidationReport validateAll() {
+        ValidationReport report = new ValidationReport();
+        validateDefinitions(report);
+        validateResources(report);
+        return report;
+    }
+
+    /**
+     * @param report null for the fail fast validation
+     */
+    private void validateDefinitionsInto(ValidationReport report) {
+        preloadClasses();
+        Map<String, Object> definitions = (Map<String, Object>) yaml.get(DEFINITIONS);
+        DefinitionGraph graph = new DefinitionGraph(definitions, (Map<String, Object>) yaml.get(PATHS),
+                (Map<String, Object>) yaml.get(PARAMETERS), (Map<String, Object>) yaml.get(RESPONSES));
+        List<Map.Entry<String, Object>> ordered = new ArrayList<>(definitions.size());
+        for (String name : graph.getOrder()) {
+            ordered.add(new AbstractMap.SimpleImmutableEntry<>(name, definitions.get(name)));
+        }
+        validateDefinitionEntries(ordered.iterator(), new HashSet<String>(), report);
+        // the graph follows the references the validators don't, e.g. in items
+        referencedDefinitions.addAll(graph.getUndefinedReferences());
+        validateReferences(definitions.keySet(), report);
+        validateGraph(graph, report);
+    }
+
+    /**
+     * Warns about the reference cycles and the definitions not used by any path.
+     *
+     * @param report null for the fail fast validation
+     */
+    private void validateGraph(DefinitionGraph graph, ValidationReport report) {
+        for (List<String> cycle : graph.getCycles()) {
+            publish(Diagnostic.forDefinition(Severity.WARNING, cycle.get(0), null,
+                    Rule.REFERENCE_CYCLE.getId(), Rule.REFERENCE_CYCLE.getPattern(), cycle), report);
+        }
+        if (yaml.get(PATHS) != null) {
+            for (String unreachable : graph.getUnreachable()) {
+                publish(Diagnostic.forDefinition(Severity.WARNING, unreachable, null,
+                        Rule.UNREACHABLE_DEFINITION.getId(), Rule.UNREACHABLE_DEFINITION.getPattern()), report);
+            }
+        }
+    }
+
+    /**
+     * Passes the diagnostic to the sink or adds it to the report
+     *
+     * @param report null for the fail fast validation
+     */
+    private void publish(Diagnostic diagnostic, ValidationReport report) {
+        if (timed) {
+            metrics.recordDiagnostic(diagnostic);
+        }
+        if (report == null) {
+            sink.report(diagnostic);
+        } else {
+            report.add(diagnostic);
+        }
+    }
+
+    /**
+     * @param report null for the fail fast validation
+     */
+    private void validateResourcesInto(ValidationReport report) {
+        preloadClasses();
+        Map<String, Object> paths = (Map<String, Object>) yaml.get(PATHS);
+        validateResourceEntries(paths.entrySet().iterator(), report);
+    }
+
+    /**
+     * Validates the definitions one by one, as provided by the iterator.
+     *
+     * @param definedNames collects the names of the validated definitions
+     * @param report null for the fail fast validation
+     */
+    void validateDefinitionEntries(Iterator<? extends Map.Entry<?, Object>> definitions, final Set<String> definedNames, ValidationReport report) {
+        validateEntries(DEFINITIONS, definitions, new EntryValidatorFactory() {
+            @Override
+            public void visit(String name) {
+                definedNames.add(name);
+            }
+
+            @Override
+            public Validator create(String name, Map<String, Object> definition, EntryDiagnostics diagnostics) {
+                return new DefinitionValidator(SwaggerValidator.this, name, definition, diagnostics);
+            }
+        }, report);
+    }
+
+    /**
+     * Validates the resources one by one, as provided by the iterator.
+     *
+     * @param report null for the fail fast validation
+     */
+    void validateResourceEntries(Iterator<? extends Map.Entry<?, Object>> paths, ValidationReport report) {
+        validateEntries(PATHS, paths, new EntryValidatorFactory() {
+            @Override
+            public Validator create(String path, Map<String, Object> resource, EntryDiagnostics diagnostics) {
+                return new ResourceValidator(SwaggerValidator.this, path, resource, diagnostics);
+            }
+        }, report);
+    }
+
+    /**
+     * Loads the classes of the document concurrently on the first call, if configured
+     */
+    private void preloadClasses() {
+        int parallelism = conf.getPreloadParallelism();
+        if (preloaded || parallelism <= 0) {
+            return;
+        }
+        preloaded = true;
+        ClassPreloader.preload(yaml, introspector, parallelism);
+    }
+
+    /**
+     * Flushes the sink of the fail fast validation
+     */
+    void flushDiagnostics() {
+        sink.flush();
+    }
+
+    /**
+     * Validates that all the referenced definitions are defined.
+     *
+     * @param report null for the fail fast validation
+     */
+    void validateReferences(Set<String> definedNames, ValidationReport report) {
+        Set<String> undefinedDefinitions = new TreeSet<>(referencedDefinitions);
+        undefinedDefinitions.removeAll(definedNames);
+        if (!undefinedDefinitions.isEmpty()) {
+            if (report == null) {
+                throw new ValidationException("Undefined reference: " + undefinedDefinitions);
+            }
+            for (String undefined : undefinedDefinitions) {
+                publish(Diagnostic.forDefinition(Severity.ERROR, undefined, null,
+                        Rule.UNDEFINED_REFERENCE.getId(), Rule.UNDEFINED_REFERENCE.getPattern()), report);
+            }
+        }
+    }
+
+    /**
+     * Validates each entry either in the calling thread or, if configured, in the fork join pool.
+     * Diagnostics of each entry are buffered and then passed to the sink (or added to the report) in the order of entries,
+     * and in fail fast mode the error of the first failed entry is thrown, so the result doesn't depend on the scheduling.
+     *
+     * Entries are consumed from the iterator lazily: at most a few entries per pool thread are in flight,
+     * so an iterator that materializes the entries on demand keeps the memory bounded.
+     *
+     * @param report null for the fail fast validation
+     */
+    private void validateEntries(String section, Iterator<? extends Map.Entry<?, Object>> entries, EntryValidatorFactory factory, ValidationReport report) {
+        ForkJoinPool pool = conf.getForkJoinPool();
+        int maxInFlight = pool == null ? 1 : pool.getParallelism() * ENTRIES_IN_FLIGHT_PER_THREAD;
+        Deque<EntryValidation> inFlight = new ArrayDeque<>();
+        while (entries.hasNext()) {
+            Map.Entry<?, Object> entry = entries.next();
+            String name = String.valueOf(entry.getKey());
+            Map<String, Object> value = (Map<String, Object>) entry.getValue();
+            factory.visit(name);
+            EntryDiagnostics cached = entryCache != null ? entryCache.get(section, name, value) : null;
+            if (timed && entryCache != null) {
+                metrics.recordCacheLookup(ValidationMetrics.Cache.ENTRIES, cached != null);
+            }
+            EntryValidation validation;
+            if (cached != null) {
+                validation = new EntryValidation(section, name, value, cached);
+                Diagnostic error = cached.getFirstError();
+                if (report == null && error != null) {
+                    validation.error = new ValidationException(error.toString());
+                }
+            } else {
+                validation = new EntryValidation(section, name, value, new EntryDiagnostics(report == null));
+                validation.timed = timed;
+                validation.validator = factory.create(name, value, validation.diagnostics);
+                if (pool != null) {
+                    validation.task = pool.submit(validation);
+                }
+            }
+            inFlight.add(validation);
+            if (inFlight.size() >= maxInFlight) {
+                complete(inFlight.poll(), inFlight, report);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            complete(inFlight.poll(), inFlight, report);
         }
     }
 
-    void addDefinitionToValidate(String definition) {
-        if (!checkedDefinitions.contains(definition)) {
-            uncheckedDefinitions.add(definition);
+    private void complete(EntryValidation validation, Collection<EntryValidation> remaining, ValidationReport report) {
+        if (validation.task == null) {
+            validation.run();
+        } else {
+            validation.task.join();
         }
+        referencedDefinitions.addAll(validation.diagnostics.getReferences());
+        if (timed) {
+            if (validation.validator != null) {
+                metrics.recordEntry(validation.section, validation.name, validation.nanos);
+            }
+            for (Diagnostic diagnostic : validation.diagnostics.getDiagnostics()) {
+                metrics.recordDiagnostic(diagnostic);
+            }
+        }
+        if (report == null) {
+            for (Diagnostic diagnostic : validation.diagnostics.getDiagnostics()) {
+                sink.report(diagnostic);
+            }
+        } else {
+            report.addAll(validation.diagnostics.getDiagnostics());
+            if (entryCache != null && validation.validator != null && validation.error == null) {
+                entryCache.put(validation.section, validation.name, validation.entry, validation.diagnostics);
+            }
+        }
+        if (validation.error != null) {
+            for (EntryValidation cancelled : remaining) {
+                if (cancelled.task != null) {
+                    cancelled.task.cancel(false);
+                }
+            }
+            throw validation.error;
+        }
+    }
+
+    /**
+     * Sets the cache of the entries results, null to validate all the entries.
+     */
+    void setEntryCache(EntryCache entryCache) {
+        this.entryCache = entryCache;
+    }
+
+    /**
+     * Returns the value of x-javaClass or null if not defined
+     */
+    static String getClassName(Map<String, Object> struct) {
+        return (String) struct.get(SwaggerValidator.JAVA_CLASS_TAG);
     }
 
     static Class<?> getClass(Map<String, Object> struct) throws ClassNotFoundException {
-        String definitionJavaClassName = (String) struct.get(SwaggerValidator.JAVA_CLASS_TAG);
+        String definitionJavaClassName = getClassName(struct);
         if (definitionJavaClassName == null) {
             return null;
         }
-        return ClassUtils.forName(definitionJavaClassName, SwaggerValidator.class.getClassLoader());
+        return ClassMetadataCache.forName(definitionJavaClassName, SwaggerValidator.class.getClassLoader());
     }
 
     public SwaggerValidatorConf getConf() {
         return conf;
     }
+
+    ValidationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the definitions of the document, referenced by "#/definitions/name"
+     */
+    Map<String, Object> getDefinitions() {
+        return getSection(yaml, DEFINITIONS);
+    }
+
+    /**
+     * Returns the parameters defined at the root of the document, referenced by "#/parameters/name"
+     */
+    Map<String, Object> getParameters() {
+        return getSection(yaml, PARAMETERS);
+    }
+
+    /**
+     * Whether the top level parameters are known, false while StreamingSwaggerValidator hasn't read them yet,
+     * in which case a reference to them is not reported as undefined
+     */
+    boolean isParametersRead() {
+        return parametersRead;
+    }
+
+    void setParametersRead(boolean parametersRead) {
+        this.parametersRead = parametersRead;
+    }
+
+    /**
+     * Returns the top level section of the document (e.g. "definitions"), or an empty map if it's missing
+     */
+    static Map<String, Object> getSection(Map<String, Object> yaml, String name) {
+        Object section = yaml.get(name);
+        return section instanceof Map ? (Map<String, Object>) section : Collections.<String, Object>emptyMap();
+    }
+
+    ClassIntrospector getIntrospector() {
+        return introspector;
+    }
+
+    ValidationMetrics getMetrics() {
+        return metrics;
+    }
+
+    boolean isTimed() {
+        return timed;
+    }
+
+    private abstract static class EntryValidatorFactory {
+
+        /**
+         * Called for each entry, including the entries restored from the cache
+         */
+        public void visit(String name) {
+        }
+
+        public abstract Validator create(String name, Map<String, Object> entry, EntryDiagnostics diagnostics);
+    }
+
+    private static class EntryValidation implements Runnable {
+        private final String section;
+        private final String name;
+        private final Map<String, Object> entry;
+        private final EntryDiagnostics diagnostics;
+        private Validator validator;
+        private ForkJoinTask<?> task;
+        private RuntimeException error;
+        private boolean timed;
+        private long nanos;
+
+        private EntryValidation(String section, String name, Map<String, Object> entry, EntryDiagnostics diagnostics) {
+            this.section = section;
+            this.name = name;
+            this.entry = entry;
+            this.diagnostics = diagnostics;
+        }
+
+        @Override
+        public void run() {
+            if (validator == null) {
+                // restored from the cache
+                return;
+            }
+            long start = timed ? System.nanoTime() : 0;
+            try {
+                validator.validate();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            if (timed) {
+                nanos = System.nanoTime() - start;
+            }
+        }
+    }
 }
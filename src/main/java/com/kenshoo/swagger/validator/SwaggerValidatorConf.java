@@ -3,6 +3,7 @@ package com.kenshoo.swagger.validator;
 import com.google.common.collect.ImmutableSet;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Provides a configuration for YamlValidator.
@@ -35,7 +36,9 @@ public class SwaggerValidatorConf {
 
     /**
      * Creates a property descriptor for the provided class.
-     * Override this method to provide a different PropertyDescriptor.
+     * Override this method to provide a different PropertyDescriptor, e.g. BeanPropertyDescriptor.forClass(cls)
+     * in order to resolve the properties from the accessors and the Jackson annotations too.
+     * Used by the default (reflection) class introspector only.
      */
     public PropertyDescriptor createPropertyDescriptor(Class<?> cls) {
         return new FieldPropertyDescriptor(cls);
@@ -57,6 +60,87 @@ public class SwaggerValidatorConf {
         return forbiddenClasses;
     }
 
+    /**
+     * Introspector resolving the classes referenced by x-javaClass.
+     * By default the classes are loaded and introspected using reflection.
+     *
+     * Override this method to return a BytecodeClassIntrospector in order to read the class files
+     * instead of loading the definition and resource classes.
+     * Called once per SwaggerValidator; return a shared instance to read each class file only once.
+     */
+    public ClassIntrospector getClassIntrospector() {
+        return new ReflectionClassIntrospector(this);
+    }
+
+    /**
+     * Listener receiving the timings and counters of the validation.
+     * By default returns ValidationMetrics.NOOP, meaning that nothing is measured.
+     *
+     * Override this method to return e.g. a HistogramValidationMetrics, keeping a reference to it in order to dump it.
+     * The same instance must be returned by all the calls.
+     */
+    public ValidationMetrics getValidationMetrics() {
+        return ValidationMetrics.NOOP;
+    }
+
+    /**
+     * Sink of the diagnostics of the fail fast validation, e.g. warnings reported by validateDefinitions().
+     * By default the diagnostics are printed to System.out in batches.
+     *
+     * Override this method to log the diagnostics instead, or to return DiagnosticSink.NOOP to drop them.
+     * Called once per SwaggerValidator.
+     */
+    public DiagnosticSink getDiagnosticSink() {
+        return new PrintStreamDiagnosticSink(System.out);
+    }
+
+    /**
+     * Pool used to validate definitions and resources in parallel.
+     * By default returns null, meaning that the validation runs in the calling thread.
+     *
+     * Override this method to enable the parallel validation. The pool is not shut down by the validator.
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return null;
+    }
+
+    /**
+     * Number of threads loading and introspecting the classes of the document before its rules are evaluated:
+     * the x-javaClass classes, the types of their properties and the classes of the inline objects.
+     * By default returns 0, meaning that the classes are loaded by the validation, as they are needed.
+     *
+     * Override this method to shorten the first validation in a JVM, when loading the classes takes most of its time.
+     */
+    public int getPreloadParallelism() {
+        return 0;
+    }
+
+    /**
+     * Whether the parameters of the operations are validated against the parameters of the resource methods:
+     * a query, path, header or formData parameter must be annotated with the same name and location,
+     * its type must match the Java type, and a body parameter requires an entity parameter.
+     * By default returns false.
+     *
+     * Override this method to enable the validation. It requires a ParameterizedResourceDescriptor,
+     * as created by the default introspectors.
+     */
+    public boolean isParameterValidationEnabled() {
+        return false;
+    }
+
+    /**
+     * Whether the 2xx responses of the operations are validated against the return types of the resource methods:
+     * a schema referencing a definition must match the return type, an array of definitions must match the element type
+     * of an array or collection. Methods returning Response, Object or void are not validated.
+     * By default returns false.
+     *
+     * Override this method to enable the validation. It requires a ParameterizedResourceDescriptor,
+     * as created by the default introspectors.
+     */
+    public boolean isResponseValidationEnabled() {
+        return false;
+    }
+
     /**
      * Creates a default SwaggerValidatorConf
      * @return
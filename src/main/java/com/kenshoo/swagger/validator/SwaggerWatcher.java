@@ -0,0 +1,333 @@
+package com.kenshoo.swagger.validator;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates swagger.yaml again whenever it or a class file in the watched class directories changes.
+ *
+ * The parsed document, the class files and the results of the entries are kept in memory between the runs.
+ * Only the entries affected by a change are validated again: the changed definitions and paths,
+ * the entries whose x-javaClass (or a superclass) changed, and the entries referencing them by $ref, directly or transitively.
+ * Diagnostics of the other entries are reused, so each report is the same as of a full validation.
+ *
+ * Classes are introspected by a BytecodeClassIntrospector reading the class directories, regardless of
+ * SwaggerValidatorConf.getClassIntrospector(), since a loaded class can't be reloaded. Types of the properties
+ * are still loaded, by a new class loader after each change of the class files. The classes an entry was validated
+ * against besides x-javaClass (the types of inline objects and enums) are hashed with it, so a change of them
+ * validates the entry again too.
+ *
+ * Changes are debounced: the validation starts once no change arrives for the debounce period,
+ * so that saving several files (or a compiler writing many class files) triggers a single validation.
+ *
+ * Example:
+ * <pre>
+ * new SwaggerWatcher(new File("src/main/resources/swagger.yaml"), Arrays.asList(new File("target/classes")), conf,
+ *         new SwaggerWatcher.Listener() {
+ *             public void validated(ValidationReport report) {
+ *                 System.out.print(report);
+ *             }
+ *
+ *             public void failed(Exception e) {
+ *                 e.printStackTrace();
+ *             }
+ *         }).run();
+ * </pre>
+ *
+ * Note on synchronization: Class is not synchronized, only close() may be called from another thread.
+ */
+public class SwaggerWatcher implements Closeable {
+
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 50;
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Receives the results of the validations, called by the watching thread
+     */
+    public interface Listener {
+
+        void validated(ValidationReport report);
+
+        /**
+         * Called when the document can't be read or parsed, e.g. while it's being edited
+         */
+        void failed(Exception e);
+    }
+
+    private final Path spec;
+    private final List<Path> classDirectories = new ArrayList<>();
+    private final SwaggerValidatorConf conf;
+    private final Listener listener;
+    private final long debounceMillis;
+    private final ValidationPlan plan;
+    private final URL[] urls;
+    private final URLClassLoader classLoader;
+    private URLClassLoader typeLoader;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Set<String> changedClasses = new HashSet<>();
+    private BytecodeClassIntrospector introspector;
+    private Map<String, Object> yaml;
+    private ValidationIndex index;
+    private boolean specChanged = true;
+    private int skippedEntries;
+
+    /**
+     * @param spec the swagger.yaml file
+     * @param classDirectories root directories of the class files (e.g. target/classes), read before the class path
+     *                         of the validator
+     * @param debounceMillis time without changes before the validation starts
+     */
+    public SwaggerWatcher(File spec, List<File> classDirectories, SwaggerValidatorConf conf, Listener listener,
+                          long debounceMillis) throws IOException {
+        this.spec = spec.toPath().toAbsolutePath().normalize();
+        this.conf = conf;
+        this.listener = listener;
+        this.debounceMillis = debounceMillis;
+        this.plan = ValidationPlan.compile(conf);
+        this.urls = new URL[classDirectories.size()];
+        for (int i = 0; i < urls.length; i++) {
+            Path directory = classDirectories.get(i).toPath().toAbsolutePath().normalize();
+            this.classDirectories.add(directory);
+            urls[i] = directory.toUri().toURL();
+        }
+        this.classLoader = newClassLoader();
+        this.introspector = new BytecodeClassIntrospector(classLoader, conf.getValidationMetrics());
+        this.watchService = FileSystems.getDefault().newWatchService();
+        register(this.spec.getParent());
+        for (Path directory : this.classDirectories) {
+            registerTree(directory);
+        }
+    }
+
+    public SwaggerWatcher(File spec, List<File> classDirectories, SwaggerValidatorConf conf, Listener listener) throws IOException {
+        this(spec, classDirectories, conf, listener, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Validates the document, then validates it again on each change until closed.
+     * Returns when the watcher is closed, or throws InterruptedException when the thread is interrupted.
+     */
+    public void run() throws InterruptedException {
+        validateAndNotify();
+        try {
+            while (true) {
+                poll(watchService.take());
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    poll(key);
+                }
+                if (specChanged || !changedClasses.isEmpty()) {
+                    validateAndNotify();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Validates the entries affected by the changes since the previous validation, all the entries on the first call.
+     */
+    public ValidationReport validate() throws IOException {
+        if (specChanged) {
+            try (InputStream is = new BufferedInputStream(new FileInputStream(spec.toFile()))) {
+                yaml = SwaggerValidator.load(is, conf.getValidationMetrics());
+            }
+            if (yaml == null) {
+                throw new ValidationException("Empty spec");
+            }
+        }
+        if (introspector == null) {
+            introspector = new BytecodeClassIntrospector(classLoader, conf.getValidationMetrics());
+            renewTypeLoader();
+        } else if (!changedClasses.isEmpty()) {
+            introspector.invalidate(changedClasses);
+            renewTypeLoader();
+        }
+        index = index == null ? ValidationIndex.create(yaml, conf, classLoader) : index.next(yaml, changedClasses);
+        specChanged = false;
+        changedClasses.clear();
+
+        SwaggerValidator swaggerValidator = new SwaggerValidator(yaml, conf, plan, introspector);
+        swaggerValidator.setEntryCache(index);
+        ValidationReport report = swaggerValidator.validateAll();
+        skippedEntries = index.getRestored();
+        return report;
+    }
+
+    /**
+     * Number of entries reused by the last validation
+     */
+    public int getSkippedEntries() {
+        return skippedEntries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        classLoader.close();
+        if (typeLoader != null) {
+            typeLoader.close();
+        }
+    }
+
+    private URLClassLoader newClassLoader() {
+        return new URLClassLoader(urls, SwaggerValidator.class.getClassLoader()) {
+            @Override
+            public URL getResource(String name) {
+                // class files of the watched directories take precedence over the class path
+                URL url = findResource(name);
+                return url != null ? url : super.getResource(name);
+            }
+
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                // and so do their classes, so that a new class loader loads the changed ones again
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> cls = findLoadedClass(name);
+                    if (cls == null) {
+                        try {
+                            cls = findClass(name);
+                        } catch (ClassNotFoundException e) {
+                            return super.loadClass(name, resolve);
+                        }
+                    }
+                    if (resolve) {
+                        resolveClass(cls);
+                    }
+                    return cls;
+                }
+            }
+        };
+    }
+
+    /**
+     * Loads the types of the properties by a new class loader, so that the changed classes are loaded again
+     */
+    private void renewTypeLoader() throws IOException {
+        URLClassLoader previous = typeLoader;
+        typeLoader = newClassLoader();
+        introspector.setTypeLoader(typeLoader);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    private void validateAndNotify() {
+        ValidationReport report;
+        try {
+            report = validate();
+        } catch (IOException | RuntimeException e) {
+            listener.failed(e);
+            return;
+        }
+        listener.validated(report);
+    }
+
+    private void poll(WatchKey key) {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost, validate everything
+                specChanged = true;
+                index = null;
+                introspector = null;
+            } else if (directory != null) {
+                Path path = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path) && isClassPath(path)) {
+                    registerTreeQuietly(path);
+                }
+                changed(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    /**
+     * Marks the file as changed if it's the document or a class file
+     */
+    void changed(Path path) {
+        if (path.equals(spec)) {
+            specChanged = true;
+        } else if (path.getFileName().toString().endsWith(CLASS_SUFFIX)) {
+            for (Path directory : classDirectories) {
+                if (path.startsWith(directory)) {
+                    String relative = directory.relativize(path).toString();
+                    changedClasses.add(relative.substring(0, relative.length() - CLASS_SUFFIX.length()).replace(File.separatorChar, '.'));
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isClassPath(Path path) {
+        for (Path directory : classDirectories) {
+            if (path.startsWith(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirectories.put(key, directory);
+    }
+
+    private void registerTree(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void registerTreeQuietly(Path root) {
+        try {
+            registerTree(root);
+            // class files written before the directory was registered
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    changed(file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            listener.failed(e);
+        }
+    }
+}
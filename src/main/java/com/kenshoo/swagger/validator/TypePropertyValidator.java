@@ -1,6 +1,7 @@
 package com.kenshoo.swagger.validator;
 
-import java.util.Arrays;
+import com.google.common.collect.ImmutableList;
+
 import java.util.List;
 import java.util.Map;
 
@@ -9,137 +10,142 @@ import java.util.Map;
 @SinglePropValidator("type")
 public class TypePropertyValidator extends InnerPropertyValidator {
 
-    private final List<FieldTypeValidator> validators;
+    /**
+     * The validators are stateless and shared by all the properties
+     */
+    private static final List<FieldTypeValidator> validators = ImmutableList.of(
+            new ArrayValidator(),
+            new ForbiddenClassValidator(),
+            new PrimitiveValidator(),
+            new UnrecommendedClassValidator(),
+            new EnumFiledTypeValidator(),
+            new ObjectValidator());
+
+    private final String type;
 
     public TypePropertyValidator(PropertyValidator parent, Object type) {
         super(parent);
-        this.validators =
-                Arrays.asList(
-                        new ArrayValidator(parent, (String) type),
-                        new ForbiddenClassValidator(parent),
-                        new PrimitiveValidator(parent),
-                        new UnrecommendedClassValidator(parent),
-                        new EnumFiledTypeValidator(parent));
+        this.type = (String) type;
     }
 
     @Override
     public void validate() {
-        if (!parent.getPropType().equals(String.class)) {
+        Class<?> propType = parent.getPropType();
+        if (!propType.equals(String.class)) {
             // check only the cases when field's type is not String
             // otherwise assume that everything can be converted from String at application level
             boolean oneValidate = false;
             for (FieldTypeValidator validator : validators) {
-                if (validator.validates(parent.getPropType())) {
-                    validator.validate();
+                if (validator.validates(parent, propType)) {
+                    validator.validate(parent, type);
                     oneValidate = true;
                 }
             }
             if (!oneValidate) {
-                handleWarning("Unvalidated property. Should String be used? Or may be the tool needs an improvement!");
+                handleWarning(Rule.UNVALIDATED_TYPE);
             }
         }
     }
 
     public static class EnumFiledTypeValidator extends FieldTypeValidator {
 
-        protected EnumFiledTypeValidator(PropertyValidator parent) {
-            super(parent);
-        }
-
         @Override
-        public boolean validates(Class<?> fieldType) {
+        public boolean validates(PropertyValidator property, Class<?> fieldType) {
             return fieldType.isEnum();
         }
 
         @Override
-        public void validate() {
-            handleError("Is enum. Declare it using 'enum' instead of type, or use String.");
+        public void validate(PropertyValidator property, String expectedType) {
+            property.handleError(Rule.ENUM_DECLARED_AS_TYPE);
         }
     }
 
     public static class UnrecommendedClassValidator extends FieldTypeValidator {
 
-        protected UnrecommendedClassValidator(PropertyValidator parent) {
-            super(parent);
-        }
-
         @Override
-        public boolean validates(Class<?> fieldType) {
-            return parent.getConf().getUnrecommendedClasses().contains(fieldType);
+        public boolean validates(PropertyValidator property, Class<?> fieldType) {
+            return property.getConf().getUnrecommendedClasses().contains(fieldType);
         }
 
         @Override
-        public void validate() {
-            handleWarning("Unrecommended type: {0}. Prefer using String.", parent.getPropType().getName());
+        public void validate(PropertyValidator property, String expectedType) {
+            property.handleWarning(Rule.UNRECOMMENDED_TYPE, property.getPropType().getName());
         }
     }
 
     public static class ArrayValidator extends FieldTypeValidator {
 
-        private final String expectedType;
-
-        protected ArrayValidator(PropertyValidator parent, String expectedType) {
-            super(parent);
-            this.expectedType = expectedType;
-        }
-
         @Override
-        public boolean validates(Class<?> fieldType) {
+        public boolean validates(PropertyValidator property, Class<?> fieldType) {
             return fieldType.isArray() || List.class.isAssignableFrom(fieldType);
         }
 
         @Override
-        public void validate() {
+        public void validate(PropertyValidator property, String expectedType) {
             if (!expectedType.equals("array")) {
-                handleError("Is an array. Does not match {1}", expectedType);
+                property.handleError(Rule.ARRAY_TYPE_MISMATCH, expectedType);
             }
-            Map<String, Object> items = (Map<String, Object>) parent.getYamlProperty().get("items");
+            Map<String, Object> items = (Map<String, Object>) property.getYamlProperty().get("items");
             if (items == null) {
-                handleError("Items is required for 'array'");
+                property.handleError(Rule.ARRAY_ITEMS_MISSING);
+            } else if (items.get("$ref") != null) {
+                property.addDefinitionToValidate(((String) items.get("$ref")).replace("#/definitions/", ""));
             }
         }
     }
 
-    public static class ForbiddenClassValidator extends FieldTypeValidator {
+    /**
+     * Validates an inline object, its properties are validated against the fields of the property type
+     */
+    public static class ObjectValidator extends FieldTypeValidator {
 
-        protected ForbiddenClassValidator(PropertyValidator parent) {
-            super(parent);
+        @Override
+        public boolean validates(PropertyValidator property, Class<?> fieldType) {
+            return property.getYamlProperty().get("properties") instanceof Map;
         }
 
         @Override
-        public boolean validates(Class<?> fieldType) {
-            return parent.getConf().getForbiddenClasses().contains(fieldType);
+        public void validate(PropertyValidator property, String expectedType) {
+            if (!expectedType.equals("object")) {
+                property.handleError(Rule.OBJECT_TYPE_MISMATCH, expectedType);
+            }
+        }
+    }
+
+    public static class ForbiddenClassValidator extends FieldTypeValidator {
+
+        @Override
+        public boolean validates(PropertyValidator property, Class<?> fieldType) {
+            return property.getConf().getForbiddenClasses().contains(fieldType);
         }
 
         @Override
-        public void validate() {
-            handleError("Type {0} is forbidden to use. Use String instead.", parent.getPropType().getName());
+        public void validate(PropertyValidator property, String expectedType) {
+            property.handleError(Rule.FORBIDDEN_TYPE, property.getPropType().getName());
         }
     }
 
     public static class PrimitiveValidator extends FieldTypeValidator {
 
-        protected PrimitiveValidator(PropertyValidator parent) {
-            super(parent);
-        }
-
         @Override
-        public boolean validates(Class<?> fieldType) {
+        public boolean validates(PropertyValidator property, Class<?> fieldType) {
             return fieldType.isPrimitive();
         }
 
         @Override
-        public void validate() {
-            handleError("Is a primitive. Only objects must be used.");
+        public void validate(PropertyValidator property, String expectedType) {
+            property.handleError(Rule.PRIMITIVE_TYPE);
         }
     }
 
-    public abstract static class FieldTypeValidator extends InnerPropertyValidator implements Validator {
+    /**
+     * Validates the Java type of a property declared with 'type'.
+     * Implementations must be stateless, a single instance validates all the properties.
+     */
+    public abstract static class FieldTypeValidator {
 
-        protected FieldTypeValidator(PropertyValidator parent) {
-            super(parent);
-        }
+        public abstract boolean validates(PropertyValidator property, Class<?> fieldType);
 
-        public abstract boolean validates(Class<?> fieldType);
+        public abstract void validate(PropertyValidator property, String expectedType);
     }
 }
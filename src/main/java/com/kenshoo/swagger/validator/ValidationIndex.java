@@ -0,0 +1,561 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashCodes;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk index of the validated entries, used by IncrementalSwaggerValidator.
+ *
+ * Each definition and path is keyed by a hash of its yaml subtree, the bytecode of its x-javaClass (and superclasses)
+ * and, transitively, the yaml and classes of the definitions and the yaml of the parameters it references by $ref.
+ * The other classes an entry was validated against (e.g. an enum whose constants were checked) are recorded
+ * with the entry, and it's restored only if their bytecode is unchanged too.
+ * The bytecode is read as a resource of the class loader, the classes are not loaded.
+ * An entry with the same key as in the previous run is not validated, its diagnostics and references are restored.
+ * The whole index is discarded if the configuration changed.
+ *
+ * Not thread safe, used by the validating thread only.
+ */
+class ValidationIndex implements EntryCache {
+
+    private static final int MAGIC = 0x53564958;
+    private static final int FORMAT_VERSION = 6;
+    private static final byte ARGUMENT_STRING = 0;
+    private static final byte ARGUMENT_INTEGER = 1;
+    private static final byte ARGUMENT_LONG = 2;
+    private static final byte ARGUMENT_DOUBLE = 3;
+    private static final byte ARGUMENT_BIG_INTEGER = 4;
+    private static final byte ARGUMENT_BIG_DECIMAL = 5;
+    private static final byte ARGUMENT_DATE = 6;
+    private static final HashFunction hashFunction = Hashing.murmur3_128();
+    private static final String DEFINITION_REF_PREFIX = "#/definitions/";
+
+    private final Map<String, Object> definitions;
+    private final Map<String, Object> parameters;
+    private final HashCode confHash;
+    private final ClassLoader classLoader;
+    private final Map<String, IndexEntry> previous;
+    private final Map<String, IndexEntry> current = new LinkedHashMap<>();
+    private final Map<String, HashCode> pendingHashes = new HashMap<>();
+    private final Map<String, HashCode> definitionHashes = new HashMap<>();
+    private final Map<String, ClassHash> classHashes;
+    private int restored;
+
+    private ValidationIndex(Map<String, Object> yaml, HashCode confHash, ClassLoader classLoader,
+                            Map<String, IndexEntry> previous, Map<String, ClassHash> classHashes) {
+        Map<String, Object> definitions = (Map<String, Object>) yaml.get(SwaggerValidator.DEFINITIONS);
+        this.definitions = definitions != null ? definitions : Collections.<String, Object>emptyMap();
+        Map<String, Object> parameters = (Map<String, Object>) yaml.get(SwaggerValidator.PARAMETERS);
+        this.parameters = parameters != null ? parameters : Collections.<String, Object>emptyMap();
+        this.confHash = confHash;
+        this.classLoader = classLoader;
+        this.previous = previous;
+        this.classHashes = classHashes;
+    }
+
+    /**
+     * Creates an empty index, reading the bytecode of x-javaClass by the class loader.
+     */
+    static ValidationIndex create(Map<String, Object> yaml, SwaggerValidatorConf conf, ClassLoader classLoader) {
+        return new ValidationIndex(yaml, hashConf(conf), classLoader, new HashMap<String, IndexEntry>(), new HashMap<String, ClassHash>());
+    }
+
+    /**
+     * Loads the index of the previous run. Missing, unreadable or outdated index is treated as empty.
+     */
+    static ValidationIndex load(File file, Map<String, Object> yaml, SwaggerValidatorConf conf, ClassLoader classLoader) {
+        ValidationIndex index = create(yaml, conf, classLoader);
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                index.read(in);
+            } catch (IOException | RuntimeException e) {
+                index.previous.clear();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Stores the entries visited in this run, replacing the file atomically when possible.
+     */
+    void store(File file) throws IOException {
+        File tmp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            write(out);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the index of the next run in the same JVM, with the entries visited in this run as the previous entries.
+     * The bytecode hashes are kept, except of the changed classes.
+     *
+     * @param changedClasses binary names of the changed classes
+     */
+    ValidationIndex next(Map<String, Object> yaml, Collection<String> changedClasses) {
+        Set<String> changed = new HashSet<>();
+        for (String className : changedClasses) {
+            changed.add(className.replace('$', '.'));
+        }
+        Map<String, ClassHash> unchangedHashes = new HashMap<>();
+        for (Map.Entry<String, ClassHash> entry : classHashes.entrySet()) {
+            if (!changed.contains(entry.getKey().replace('$', '.'))) {
+                unchangedHashes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new ValidationIndex(yaml, confHash, classLoader, new HashMap<>(current), unchangedHashes);
+    }
+
+    /**
+     * Number of entries restored from the index
+     */
+    int getRestored() {
+        return restored;
+    }
+
+    @Override
+    public EntryDiagnostics get(String section, String name, Map<String, Object> entry) {
+        String key = section + '\n' + name;
+        HashCode hash = hashEntry(section, name, entry);
+        IndexEntry indexEntry = previous.get(key);
+        if (indexEntry != null && indexEntry.hash.equals(hash) && hashClasses(indexEntry.classes).equals(indexEntry.classesHash)) {
+            current.put(key, indexEntry);
+            restored++;
+            return new EntryDiagnostics(indexEntry.diagnostics, indexEntry.references);
+        }
+        pendingHashes.put(key, hash);
+        return null;
+    }
+
+    @Override
+    public void put(String section, String name, Map<String, Object> entry, EntryDiagnostics diagnostics) {
+        String key = section + '\n' + name;
+        HashCode hash = pendingHashes.remove(key);
+        if (hash == null) {
+            hash = hashEntry(section, name, entry);
+        }
+        List<String> classes = ImmutableList.copyOf(diagnostics.getClasses());
+        current.put(key, new IndexEntry(hash, ImmutableList.copyOf(diagnostics.getDiagnostics()), ImmutableList.copyOf(diagnostics.getReferences()),
+                classes, hashClasses(classes)));
+    }
+
+    private HashCode hashEntry(String section, String name, Map<String, Object> entry) {
+        Hasher hasher = hashFunction.newHasher();
+        hasher.putString(section).putString(name);
+        hashYaml(hasher, entry);
+        hashJavaClass(hasher, entry);
+        for (String reference : referencedDefinitions(entry)) {
+            hasher.putString(reference).putBytes(hashDefinition(reference).asBytes());
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Returns names of all the definitions and the references of the parameters (e.g. "#/parameters/id")
+     * used by the entry, directly or transitively, sorted
+     */
+    private Set<String> referencedDefinitions(Object entry) {
+        return referencedDefinitions(entry, definitions, parameters);
+    }
+
+    /**
+     * Same as referencedDefinitions(), resolving the references against the given sections of a document
+     */
+    static Set<String> referencedDefinitions(Object entry, Map<String, Object> definitions, Map<String, Object> parameters) {
+        Set<String> visited = new TreeSet<>();
+        Deque<String> toVisit = new ArrayDeque<>();
+        collectReferences(entry, toVisit);
+        while (!toVisit.isEmpty()) {
+            String reference = toVisit.pop();
+            if (visited.add(reference)) {
+                collectReferences(resolve(reference, definitions, parameters), toVisit);
+            }
+        }
+        return visited;
+    }
+
+    private static void collectReferences(Object yaml, Deque<String> references) {
+        if (yaml instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) yaml).entrySet()) {
+                if ("$ref".equals(entry.getKey()) && entry.getValue() instanceof String) {
+                    references.push(((String) entry.getValue()).replace(DEFINITION_REF_PREFIX, ""));
+                } else {
+                    collectReferences(entry.getValue(), references);
+                }
+            }
+        } else if (yaml instanceof List) {
+            for (Object item : (List<?>) yaml) {
+                collectReferences(item, references);
+            }
+        }
+    }
+
+    private HashCode hashDefinition(String name) {
+        HashCode hash = definitionHashes.get(name);
+        if (hash == null) {
+            Hasher hasher = hashFunction.newHasher();
+            Object definition = resolve(name);
+            hashYaml(hasher, definition);
+            if (definition instanceof Map) {
+                hashJavaClass(hasher, (Map<String, Object>) definition);
+            }
+            hash = hasher.hash();
+            definitionHashes.put(name, hash);
+        }
+        return hash;
+    }
+
+    private Object resolve(String reference) {
+        return resolve(reference, definitions, parameters);
+    }
+
+    /**
+     * Returns the yaml of a name returned by referencedDefinitions(), or null if it's not defined
+     */
+    static Object resolve(String reference, Map<String, Object> definitions, Map<String, Object> parameters) {
+        if (reference.startsWith(ResourceValidator.PARAMETER_REF_PREFIX)) {
+            return parameters.get(reference.substring(ResourceValidator.PARAMETER_REF_PREFIX.length()));
+        }
+        return definitions.get(reference);
+    }
+
+    static void hashYaml(Hasher hasher, Object yaml) {
+        if (yaml instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) yaml;
+            hasher.putChar('m').putInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                hashYaml(hasher, entry.getKey());
+                hashYaml(hasher, entry.getValue());
+            }
+        } else if (yaml instanceof List) {
+            List<?> list = (List<?>) yaml;
+            hasher.putChar('l').putInt(list.size());
+            for (Object item : list) {
+                hashYaml(hasher, item);
+            }
+        } else if (yaml == null) {
+            hasher.putChar('n');
+        } else {
+            hasher.putChar('s').putString(yaml.getClass().getName()).putString(yaml.toString());
+        }
+    }
+
+    /**
+     * Hashes the bytecode of x-javaClass and of its superclasses, read by the class loader without loading the classes
+     */
+    private void hashJavaClass(Hasher hasher, Map<String, Object> entry) {
+        hashClassHierarchy(hasher, SwaggerValidator.getClassName(entry));
+    }
+
+    /**
+     * Hashes the bytecode of the introspected classes of an entry, and of their superclasses
+     */
+    private HashCode hashClasses(List<String> classNames) {
+        Hasher hasher = hashFunction.newHasher();
+        for (String className : classNames) {
+            hashClassHierarchy(hasher, className);
+        }
+        return hasher.hash();
+    }
+
+    private void hashClassHierarchy(Hasher hasher, String className) {
+        while (className != null && !Object.class.getName().equals(className)) {
+            ClassHash classHash = hashClass(className);
+            if (classHash == null) {
+                hasher.putString("missing");
+                return;
+            }
+            hasher.putString(className).putBytes(classHash.hash.asBytes());
+            className = classHash.superName;
+        }
+    }
+
+    /**
+     * Returns the hash of the class file or null if the class is not found
+     */
+    private ClassHash hashClass(String className) {
+        ClassHash classHash = classHashes.get(className);
+        if (classHash == null && !classHashes.containsKey(className)) {
+            classHash = readClassHash(className);
+            classHashes.put(className, classHash);
+        }
+        return classHash;
+    }
+
+    private ClassHash readClassHash(String className) {
+        String name = className;
+        while (true) {
+            String resource = name.replace('.', '/') + ".class";
+            try (InputStream is = classLoader != null ? classLoader.getResourceAsStream(resource) : ClassLoader.getSystemResourceAsStream(resource)) {
+                if (is != null) {
+                    byte[] bytecode = ByteStreams.toByteArray(is);
+                    String superName = ClassFile.read(new ByteArrayInputStream(bytecode)).getSuperName();
+                    return new ClassHash(hashFunction.hashBytes(bytecode), superName);
+                }
+            } catch (IOException e) {
+                throw new ValidationException("Failed to read bytecode of " + className, e);
+            }
+            int lastDot = name.lastIndexOf('.');
+            if (lastDot == -1) {
+                return null;
+            }
+            // try as a nested class
+            name = name.substring(0, lastDot) + '$' + name.substring(lastDot + 1);
+        }
+    }
+
+    private static HashCode hashBytecode(Class<?> cls) {
+        String resource = cls.getName().replace('.', '/') + ".class";
+        ClassLoader classLoader = cls.getClassLoader();
+        try (InputStream is = classLoader != null ? classLoader.getResourceAsStream(resource) : ClassLoader.getSystemResourceAsStream(resource)) {
+            if (is == null) {
+                return hashFunction.hashString(cls.getName());
+            }
+            return hashFunction.hashBytes(ByteStreams.toByteArray(is));
+        } catch (IOException e) {
+            throw new ValidationException("Failed to read bytecode of " + cls.getName(), e);
+        }
+    }
+
+    private static HashCode hashConf(SwaggerValidatorConf conf) {
+        Hasher hasher = hashFunction.newHasher();
+        hasher.putInt(FORMAT_VERSION);
+        hasher.putString(conf.getClass().getName()).putBytes(hashBytecode(conf.getClass()).asBytes());
+        for (Class<?> cls : conf.getMutualExclusionPropertyValidators()) {
+            hasher.putString(cls.getName()).putBytes(hashBytecode(cls).asBytes());
+        }
+        for (String name : classNames(conf.getForbiddenClasses())) {
+            hasher.putString(name);
+        }
+        hasher.putChar('|');
+        for (String name : classNames(conf.getUnrecommendedClasses())) {
+            hasher.putString(name);
+        }
+        return hasher.hash();
+    }
+
+    private static Set<String> classNames(Set<Class<?>> classes) {
+        Set<String> names = new TreeSet<>();
+        for (Class<?> cls : classes) {
+            names.add(cls.getName());
+        }
+        return names;
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !readHash(in).equals(confHash)) {
+            return;
+        }
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            String key = in.readUTF();
+            HashCode hash = readHash(in);
+            List<String> references = new ArrayList<>();
+            for (int r = in.readInt(); r > 0; r--) {
+                references.add(in.readUTF());
+            }
+            List<Diagnostic> diagnostics = new ArrayList<>();
+            for (int d = in.readInt(); d > 0; d--) {
+                diagnostics.add(readDiagnostic(in));
+            }
+            List<String> classes = new ArrayList<>();
+            for (int c = in.readInt(); c > 0; c--) {
+                classes.add(in.readUTF());
+            }
+            HashCode classesHash = readHash(in);
+            previous.put(key, new IndexEntry(hash, diagnostics, references, classes, classesHash));
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.write(confHash.asBytes());
+        out.writeInt(current.size());
+        for (Map.Entry<String, IndexEntry> entry : current.entrySet()) {
+            IndexEntry indexEntry = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.write(indexEntry.hash.asBytes());
+            out.writeInt(indexEntry.references.size());
+            for (String reference : indexEntry.references) {
+                out.writeUTF(reference);
+            }
+            out.writeInt(indexEntry.diagnostics.size());
+            for (Diagnostic diagnostic : indexEntry.diagnostics) {
+                writeDiagnostic(out, diagnostic);
+            }
+            out.writeInt(indexEntry.classes.size());
+            for (String className : indexEntry.classes) {
+                out.writeUTF(className);
+            }
+            out.write(indexEntry.classesHash.asBytes());
+        }
+    }
+
+    private static HashCode readHash(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[hashFunction.bits() / 8];
+        in.readFully(bytes);
+        return HashCodes.fromBytes(bytes);
+    }
+
+    /**
+     * Numbers and dates are stored with their type, so that the restored diagnostic is formatted the same
+     * (e.g. with the locale grouping, or by a {0,number} pattern). Other arguments are stored as strings.
+     */
+    private static void writeDiagnostic(DataOutputStream out, Diagnostic diagnostic) throws IOException {
+        out.writeByte(diagnostic.getSeverity().ordinal());
+        writeNullable(out, diagnostic.getDefinition());
+        writeNullable(out, diagnostic.getPath());
+        writeNullable(out, diagnostic.getProperty());
+        out.writeUTF(diagnostic.getRuleId());
+        out.writeUTF(diagnostic.getPattern());
+        List<Object> arguments = diagnostic.getArguments();
+        out.writeInt(arguments.size());
+        for (Object argument : arguments) {
+            writeArgument(out, argument);
+        }
+    }
+
+    private static void writeArgument(DataOutputStream out, Object argument) throws IOException {
+        if (argument instanceof Integer || argument instanceof Short || argument instanceof Byte) {
+            out.writeByte(ARGUMENT_INTEGER);
+            out.writeInt(((Number) argument).intValue());
+        } else if (argument instanceof Long || argument instanceof AtomicInteger || argument instanceof AtomicLong) {
+            out.writeByte(ARGUMENT_LONG);
+            out.writeLong(((Number) argument).longValue());
+        } else if (argument instanceof BigInteger) {
+            out.writeByte(ARGUMENT_BIG_INTEGER);
+            out.writeUTF(argument.toString());
+        } else if (argument instanceof BigDecimal) {
+            out.writeByte(ARGUMENT_BIG_DECIMAL);
+            out.writeUTF(argument.toString());
+        } else if (argument instanceof Number) {
+            // formatted as a double by MessageFormat
+            out.writeByte(ARGUMENT_DOUBLE);
+            out.writeDouble(((Number) argument).doubleValue());
+        } else if (argument instanceof Date) {
+            out.writeByte(ARGUMENT_DATE);
+            out.writeLong(((Date) argument).getTime());
+        } else {
+            out.writeByte(ARGUMENT_STRING);
+            out.writeUTF(String.valueOf(argument));
+        }
+    }
+
+    private static Object readArgument(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case ARGUMENT_INTEGER:
+                return in.readInt();
+            case ARGUMENT_LONG:
+                return in.readLong();
+            case ARGUMENT_BIG_INTEGER:
+                return new BigInteger(in.readUTF());
+            case ARGUMENT_BIG_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case ARGUMENT_DOUBLE:
+                return in.readDouble();
+            case ARGUMENT_DATE:
+                return new Date(in.readLong());
+            case ARGUMENT_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown argument type " + type);
+        }
+    }
+
+    private static Diagnostic readDiagnostic(DataInputStream in) throws IOException {
+        Severity severity = Severity.values()[in.readByte()];
+        String definition = readNullable(in);
+        String path = readNullable(in);
+        String property = readNullable(in);
+        String ruleId = in.readUTF();
+        String pattern = in.readUTF();
+        Object[] arguments = new Object[in.readInt()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = readArgument(in);
+        }
+        return Diagnostic.create(severity, definition, path, property, ruleId, pattern, arguments);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static final class IndexEntry {
+        private final HashCode hash;
+        private final List<Diagnostic> diagnostics;
+        private final List<String> references;
+        /**
+         * Introspected classes besides x-javaClass, with the hash of their bytecode when the entry was validated
+         */
+        private final List<String> classes;
+        private final HashCode classesHash;
+
+        private IndexEntry(HashCode hash, List<Diagnostic> diagnostics, List<String> references,
+                           List<String> classes, HashCode classesHash) {
+            this.hash = hash;
+            this.diagnostics = diagnostics;
+            this.references = references;
+            this.classes = classes;
+            this.classesHash = classesHash;
+        }
+    }
+
+    private static final class ClassHash {
+        private final HashCode hash;
+        private final String superName;
+
+        private ClassHash(HashCode hash, String superName) {
+            this.hash = hash;
+            this.superName = superName;
+        }
+    }
+}
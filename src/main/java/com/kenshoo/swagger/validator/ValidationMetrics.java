@@ -0,0 +1,91 @@
+package com.kenshoo.swagger.validator;
+
+/**
+ * Listener receiving the timings and counters of the validation.
+ *
+ * The validator measures only if isEnabled() returns true, so the default NOOP listener costs nothing.
+ * Implementations must be thread safe: with a fork join pool the entries are validated concurrently.
+ *
+ * @see HistogramValidationMetrics
+ * @see SwaggerValidatorConf#getValidationMetrics()
+ */
+public interface ValidationMetrics {
+
+    enum Stage {
+        /**
+         * Parsing of the yaml or json document (or of the entries, when streaming)
+         */
+        YAML_PARSE,
+        /**
+         * Resolving the x-javaClass classes and the property types: loading the class or reading the class file
+         */
+        CLASS_LOADING,
+        /**
+         * Indexing the fields, methods and annotations of a class
+         */
+        INTROSPECTION,
+        /**
+         * Evaluating the rules of a definition or a resource, once its class is resolved
+         */
+        RULE_EVALUATION
+    }
+
+    enum Cache {
+        /**
+         * Results of the entries, restored by the incremental validation
+         */
+        ENTRIES,
+        /**
+         * Reflection metadata of the classes, shared by all the validators
+         */
+        CLASS_METADATA,
+        /**
+         * Parsed class files of BytecodeClassIntrospector
+         */
+        CLASS_FILES
+    }
+
+    ValidationMetrics NOOP = new ValidationMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordStage(Stage stage, long nanos) {
+        }
+
+        @Override
+        public void recordEntry(String section, String name, long nanos) {
+        }
+
+        @Override
+        public void recordDiagnostic(Diagnostic diagnostic) {
+        }
+
+        @Override
+        public void recordCacheLookup(Cache cache, boolean hit) {
+        }
+    };
+
+    /**
+     * Returns false if nothing should be measured. Checked once per validator.
+     */
+    boolean isEnabled();
+
+    void recordStage(Stage stage, long nanos);
+
+    /**
+     * Records the time of validating a single definition or path
+     *
+     * @param section "definitions" or "paths"
+     */
+    void recordEntry(String section, String name, long nanos);
+
+    /**
+     * Records each reported diagnostic, including the ones restored from the cache
+     */
+    void recordDiagnostic(Diagnostic diagnostic);
+
+    void recordCacheLookup(Cache cache, boolean hit);
+}
@@ -0,0 +1,81 @@
+package com.kenshoo.swagger.validator;
+
+import com.google.common.collect.ImmutableList;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+/**
+ * SwaggerValidatorConf compiled once per SwaggerValidator, so validating a property doesn't need reflection.
+ *
+ * Immutable.
+ */
+final class ValidationPlan {
+
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Validator.class, PropertyValidator.class, Object.class);
+
+    private final List<PropertyValidatorFactory> propertyValidatorFactories;
+
+    private ValidationPlan(List<PropertyValidatorFactory> propertyValidatorFactories) {
+        this.propertyValidatorFactories = propertyValidatorFactories;
+    }
+
+    static ValidationPlan compile(SwaggerValidatorConf conf) {
+        ImmutableList.Builder<PropertyValidatorFactory> factories = ImmutableList.builder();
+        for (Class<? extends InnerPropertyValidator> cls : conf.getMutualExclusionPropertyValidators()) {
+            factories.add(new PropertyValidatorFactory(cls));
+        }
+        return new ValidationPlan(factories.build());
+    }
+
+    /**
+     * Factories of the mutual exclusion property validators, in the order of SwaggerValidatorConf.getMutualExclusionPropertyValidators()
+     */
+    List<PropertyValidatorFactory> getPropertyValidatorFactories() {
+        return propertyValidatorFactories;
+    }
+
+    /**
+     * Creates the property validator bound to the property element (e.g. 'type') by SinglePropValidator annotation.
+     */
+    static final class PropertyValidatorFactory {
+
+        private final String key;
+        private final MethodHandle constructor;
+
+        private PropertyValidatorFactory(Class<? extends InnerPropertyValidator> cls) {
+            SinglePropValidator spvAnnotation = cls.getAnnotation(SinglePropValidator.class);
+            if (spvAnnotation == null) {
+                throw new IllegalArgumentException(cls + " is not annotated with @SinglePropValidator");
+            }
+            this.key = spvAnnotation.value();
+            try {
+                Constructor<? extends InnerPropertyValidator> reflected = cls.getDeclaredConstructor(PropertyValidator.class, Object.class);
+                reflected.setAccessible(true);
+                this.constructor = MethodHandles.lookup().unreflectConstructor(reflected).asType(FACTORY_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException(cls + " must declare constructor (PropertyValidator, Object)", e);
+            }
+        }
+
+        /**
+         * Property element, which value is passed to the validator
+         */
+        String getKey() {
+            return key;
+        }
+
+        Validator create(PropertyValidator parent, Object value) {
+            try {
+                return (Validator) constructor.invokeExact(parent, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
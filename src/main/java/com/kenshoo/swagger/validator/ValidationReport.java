@@ -0,0 +1,66 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Diagnostics collected by a validation that doesn't stop on the first error.
+ *
+ * Diagnostics are kept in the order of the entries in the swagger.yaml, also when validating in parallel.
+ */
+public final class ValidationReport {
+
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+    void add(Diagnostic diagnostic) {
+        diagnostics.add(diagnostic);
+    }
+
+    void addAll(List<Diagnostic> diagnostics) {
+        this.diagnostics.addAll(diagnostics);
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+
+    public List<Diagnostic> getErrors() {
+        return filter(Severity.ERROR);
+    }
+
+    public List<Diagnostic> getWarnings() {
+        return filter(Severity.WARNING);
+    }
+
+    public boolean hasErrors() {
+        for (Diagnostic diagnostic : diagnostics) {
+            if (diagnostic.getSeverity() == Severity.ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Diagnostic> filter(Severity severity) {
+        List<Diagnostic> filtered = new ArrayList<>();
+        for (Diagnostic diagnostic : diagnostics) {
+            if (diagnostic.getSeverity() == severity) {
+                filtered.add(diagnostic);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Returns all messages, one per line
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Diagnostic diagnostic : diagnostics) {
+            sb.append(diagnostic.getSeverity()).append(' ').append(diagnostic).append('\n');
+        }
+        return sb.toString();
+    }
+}
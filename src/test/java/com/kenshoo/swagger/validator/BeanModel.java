@@ -0,0 +1,34 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties({"internal"})
+public class BeanModel extends PageModel<SimpleModel> {
+
+    @JsonProperty("display_name")
+    private String displayName;
+
+    @JsonIgnore
+    private String secret;
+
+    private String internal;
+
+    private SimpleModel[] related;
+
+    public int getTotal() {
+        return getItems().size();
+    }
+
+    public String getURL() {
+        return "/beans/" + displayName;
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public void setDescription(String description) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.kenshoo.swagger.validator;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public class EnumModel {
+
+    public enum Status {
+        ACTIVE,
+        @JsonProperty("on-hold")
+        ON_HOLD,
+        CLOSED
+    }
+
+    public enum Color {
+        RED("r"), GREEN("g"), BLUE("b");
+
+        private final String code;
+
+        Color(String code) {
+            this.code = code;
+        }
+
+        @JsonValue
+        public String getCode() {
+            return code;
+        }
+    }
+
+    private Status status;
+    private Color color;
+    private String name;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setColor(Color color) {
+        this.color = color;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
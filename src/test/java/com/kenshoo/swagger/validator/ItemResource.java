@@ -0,0 +1,30 @@
+package com.kenshoo.swagger.validator;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+@Path("/items/")
+public class ItemResource {
+
+    @GET
+    public SimpleModel getItems() {
+        return new SimpleModel();
+    }
+
+    @GET
+    @Path("{id: [0-9]{1,9}}")
+    public SimpleModel getItem() {
+        return new SimpleModel();
+    }
+
+    @DELETE
+    @Path("/{id}/")
+    public void deleteItem() {
+    }
+
+    @Path("{id}/tags")
+    public SimpleResource getTags() {
+        return new SimpleResource();
+    }
+}
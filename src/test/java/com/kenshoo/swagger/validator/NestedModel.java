@@ -0,0 +1,34 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.List;
+
+/**
+ */
+public class NestedModel {
+
+    private List<SimpleModel> models;
+    private SimpleModel[] array;
+    private List<List<String>> matrix;
+    private SimpleModel simple;
+    private NestedModel parent;
+
+    public List<SimpleModel> getModels() {
+        return models;
+    }
+
+    public SimpleModel[] getArray() {
+        return array;
+    }
+
+    public List<List<String>> getMatrix() {
+        return matrix;
+    }
+
+    public SimpleModel getSimple() {
+        return simple;
+    }
+
+    public NestedModel getParent() {
+        return parent;
+    }
+}
@@ -0,0 +1,16 @@
+package com.kenshoo.swagger.validator;
+
+import java.util.List;
+
+public class PageModel<T> {
+
+    private List<T> items;
+
+    public T getFirst() {
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+}
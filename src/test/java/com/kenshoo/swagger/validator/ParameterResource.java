@@ -0,0 +1,44 @@
+package com.kenshoo.swagger.validator;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.List;
+
+@Path("/accounts")
+public class ParameterResource {
+
+    @GET
+    public SimpleModel getAccounts(@QueryParam("limit") int limit, @QueryParam("tag") List<String> tags,
+                                   @HeaderParam("X-Request-Id") String requestId) {
+        return new SimpleModel();
+    }
+
+    @GET
+    @Path("{id}")
+    public SimpleModel getAccount(@PathParam("id") long id, @QueryParam("verbose") Boolean verbose) {
+        return new SimpleModel();
+    }
+
+    @POST
+    @Path("{id}")
+    public void updateAccount(@PathParam("id") long id, SimpleModel account) {
+    }
+
+    @GET
+    @Path("search")
+    public List<SimpleModel> search(@QueryParam("q") String query) {
+        return Collections.emptyList();
+    }
+
+    @GET
+    @Path("export")
+    public Response export() {
+        return Response.ok().build();
+    }
+}
@@ -1,14 +1,51 @@
 package com.kenshoo.swagger.validator;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import org.junit.AfterClass;
 import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  */
 public class SwaggerValidatorTest {
 
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
 
     @Test
     public void testValidYaml() throws Exception {
@@ -56,5 +93,888 @@ public class SwaggerValidatorTest {
         new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml")).validateResources();
     }
 
+    @Test
+    public void testClassMetadataSharedBetweenValidators() throws Exception {
+        new SwaggerValidator(getClass().getResourceAsStream("/valid.yaml")).validateResources();
+        ClassMetadata metadata = ClassMetadataCache.get(SimpleResource.class);
+        new SwaggerValidator(getClass().getResourceAsStream("/valid.yaml")).validateResources();
+        assertSame(metadata, ClassMetadataCache.get(SimpleResource.class));
+        assertEquals("/test", metadata.getPath());
+        assertEquals(1, metadata.getOperationMethods("get").size());
+        assertEquals(RefSimpleModel.class, new FieldPropertyDescriptor(SimpleModel.class).getType("e"));
+    }
+
+    @Test
+    public void testParallelValidYaml() throws Exception {
+        SwaggerValidator swaggerValidator = new SwaggerValidator(getClass().getResourceAsStream("/valid.yaml"), parallelConf());
+        swaggerValidator.validateDefinitions();
+        swaggerValidator.validateResources();
+    }
+
+    @Test
+    public void testParallelReportsFirstError() throws Exception {
+        SwaggerValidator swaggerValidator = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml"), parallelConf());
+        try {
+            swaggerValidator.validateDefinitions();
+            fail();
+        } catch (ValidationException e) {
+            assertEquals("Definition: refModel: x-javaClass is not defined.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testValidateAllCollectsDiagnostics() throws Exception {
+        ValidationReport report = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml")).validateAll();
+        assertEquals(2, report.getErrors().size());
+        Diagnostic definitionError = report.getErrors().get(0);
+        assertEquals("refModel", definitionError.getDefinition());
+        assertEquals(Rule.JAVA_CLASS_NOT_DEFINED.getId(), definitionError.getRuleId());
+        assertEquals("Path: /test: x-javaClass is not defined.", report.getErrors().get(1).toString());
+
+        assertEquals(1, report.getWarnings().size());
+        Diagnostic warning = report.getWarnings().get(0);
+        assertEquals("i", warning.getProperty());
+        assertEquals("Unrecommended type: java.lang.Integer. Prefer using String.", warning.getMessage());
+    }
+
+    @Test
+    public void testParallelValidateAll() throws Exception {
+        ValidationReport sequential = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml")).validateAll();
+        ValidationReport parallel = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml"), parallelConf()).validateAll();
+        assertEquals(sequential.toString(), parallel.toString());
+        assertFalse(new SwaggerValidator(getClass().getResourceAsStream("/valid.yaml"), parallelConf()).validateAll().hasErrors());
+    }
+
+    @Test
+    public void testStreamingValidYaml() throws Exception {
+        new StreamingSwaggerValidator().validate(getClass().getResourceAsStream("/valid.yaml"));
+        new StreamingSwaggerValidator(parallelConf()).validate(getClass().getResourceAsStream("/valid.yaml"));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testStreamingForbiddenTypeYaml() throws Exception {
+        new StreamingSwaggerValidator().validate(getClass().getResourceAsStream("/forbidden_type.yaml"));
+    }
+
+    @Test
+    public void testStreamingValidateAll() throws Exception {
+        ValidationReport loaded = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml")).validateAll();
+        ValidationReport streamed = new StreamingSwaggerValidator().validateAll(getClass().getResourceAsStream("/no_xjava_definition.yaml"));
+        // streaming validates in the document order: paths come before definitions
+        assertEquals(loaded.getDiagnostics().size(), streamed.getDiagnostics().size());
+        assertEquals("Path: /test: x-javaClass is not defined.", streamed.getErrors().get(0).toString());
+        assertEquals(loaded.getErrors().get(0).toString(), streamed.getErrors().get(1).toString());
+    }
+
+    @Test
+    public void testStreamingResolvesParametersAndDefinitions() throws Exception {
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public boolean isParameterValidationEnabled() {
+                return true;
+            }
+
+            @Override
+            public boolean isResponseValidationEnabled() {
+                return true;
+            }
+        };
+        ValidationReport loaded = new SwaggerValidator(getClass().getResourceAsStream("/parameters.yaml"), conf).validateAll();
+        ValidationReport streamed = new StreamingSwaggerValidator(conf).validateAll(getClass().getResourceAsStream("/parameters.yaml"));
+        assertEquals(loaded.getErrors().toString(), streamed.getErrors().toString());
+
+        // definitions must precede paths
+        Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/responses.yaml"));
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("definitions", yaml.remove("definitions"));
+        reordered.putAll(yaml);
+        loaded = new SwaggerValidator(reordered, conf).validateAll();
+        assertFalse(loaded.getErrors().isEmpty());
+        streamed = new StreamingSwaggerValidator(conf).validateAll(new ByteArrayInputStream(new Yaml().dump(reordered).getBytes("UTF-8")));
+        assertEquals(loaded.getErrors().toString(), streamed.getErrors().toString());
+    }
+
+    @Test
+    public void testStreamingMergeKeysAndAnchors() throws Exception {
+        String doc = "x-common: &common {type: string, x-a: 1}\n" +
+                "x-skipped: [{name: skipped}, {nested: &nested {type: boolean}}]\n" +
+                "definitions:\n" +
+                "  first:\n" +
+                "    base: &base {type: integer, x-b: 2}\n" +
+                "    single: {<<: *common, x-a: 3}\n" +
+                "    several:\n" +
+                "      <<: [*base, *common]\n" +
+                "      x-c: 4\n" +
+                "    local: *base\n" +
+                "    skipped: *nested\n";
+        Map<?, ?> loaded = (Map<?, ?>) ((Map<?, ?>) new Yaml().load(doc)).get("definitions");
+        assertEquals(loaded, readDefinitions(doc));
+
+        // anchors of another section stay defined, the ones of a previous entry are dropped
+        assertEquals(2, readDefinitions(doc + "  second: {<<: *common}\n").size());
+        assertStreamingError(doc + "  second: *base\n", "Yaml alias base refers to an entry that was already read");
+        assertStreamingError(doc + "  <<: *common\n", "Yaml merge key << is not supported in a section");
+        assertStreamingError("<<: {definitions: {}}\n", "Yaml merge key << is not supported in the top level");
+        assertStreamingError("definitions: {first: {<<: 1}}\n", "Yaml merge key << expects a mapping or a list of mappings");
+    }
+
+    @Test
+    public void testStreamingEmptyParameters() throws Exception {
+        String doc = "swagger: '2.0'\nparameters:\npaths: {}\ndefinitions: {}\n";
+        ValidationReport loaded = new SwaggerValidator(new ByteArrayInputStream(doc.getBytes("UTF-8"))).validateAll();
+        ValidationReport streamed = new StreamingSwaggerValidator().validateAll(new ByteArrayInputStream(doc.getBytes("UTF-8")));
+        assertEquals(loaded.toString(), streamed.toString());
+    }
+
+    private static Map<Object, Object> readDefinitions(String doc) {
+        StreamingYamlReader reader = new StreamingYamlReader(new StringReader(doc));
+        Map<Object, Object> definitions = new LinkedHashMap<>();
+        for (String section = reader.nextSection(); section != null; section = reader.nextSection()) {
+            if (!section.equals("definitions")) {
+                reader.skipSection();
+                continue;
+            }
+            for (Iterator<Map.Entry<Object, Object>> it = reader.sectionEntries(); it.hasNext(); ) {
+                Map.Entry<Object, Object> entry = it.next();
+                definitions.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return definitions;
+    }
+
+    private static void assertStreamingError(String doc, String message) {
+        try {
+            readDefinitions(doc);
+            fail(message);
+        } catch (ValidationException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    @Test
+    public void testBytecodeIntrospectorMatchesReflection() throws Exception {
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            private final ClassIntrospector introspector = new BytecodeClassIntrospector();
+
+            @Override
+            public ClassIntrospector getClassIntrospector() {
+                return introspector;
+            }
+        };
+        for (String yaml : new String[]{"/valid.yaml", "/invalid_path.yaml", "/missing_operation.yaml", "/forbidden_type.yaml", "/no_xjava_definition.yaml", "/nested.yaml"}) {
+            ValidationReport reflection = new SwaggerValidator(getClass().getResourceAsStream(yaml)).validateAll();
+            ValidationReport bytecode = new SwaggerValidator(getClass().getResourceAsStream(yaml), conf).validateAll();
+            assertEquals(yaml, reflection.toString(), bytecode.toString());
+        }
+
+        ResourceDescriptor resource = conf.getClassIntrospector().createResourceDescriptor(SimpleResource.class.getName());
+        assertEquals("/test", resource.getPath());
+        assertTrue(resource.hasOperation("post"));
+        assertFalse(resource.hasOperation("delete"));
+        PropertyDescriptor properties = conf.getClassIntrospector().createPropertyDescriptor(SimpleModel.class.getName());
+        assertEquals(RefSimpleModel.class, properties.getType("e"));
+        assertNull(properties.getType("missing"));
+    }
+
+    @Test
+    public void testResourceIndexMatchesSubPaths() throws Exception {
+        assertEquals("/items/{id}", ResourceIndex.normalize("items//{ id : [0-9]{1,9} }/"));
+        assertEquals("", ResourceIndex.normalize("/"));
+        assertEquals("/{id}", ResourceIndex.subPath("/items", "/v2/items/{id}"));
+        assertNull(ResourceIndex.subPath("/items", "/itemsx/{id}"));
+
+        SwaggerValidatorConf bytecodeConf = new SwaggerValidatorConf() {
+            @Override
+            public ClassIntrospector getClassIntrospector() {
+                return new BytecodeClassIntrospector();
+            }
+        };
+        for (SwaggerValidatorConf conf : new SwaggerValidatorConf[]{SwaggerValidatorConf.getDefault(), bytecodeConf}) {
+            ValidationReport report = new SwaggerValidator(getClass().getResourceAsStream("/sub_paths.yaml"), conf).validateAll();
+            assertEquals(2, report.getErrors().size());
+            assertEquals("Path: /items/{id}: Method annotated with put operation not found in class com.kenshoo.swagger.validator.ItemResource",
+                    report.getErrors().get(0).toString());
+            assertEquals(Rule.METHOD_PATH_NOT_FOUND.getId(), report.getErrors().get(1).getRuleId());
+            assertEquals("/items/{itemId}/notes", report.getErrors().get(1).getPath());
+        }
+    }
+
+    @Test
+    public void testParameterValidation() throws Exception {
+        ValidationReport disabled = new SwaggerValidator(getClass().getResourceAsStream("/parameters.yaml")).validateAll();
+        assertTrue(disabled.getErrors().isEmpty());
+
+        SwaggerValidatorConf reflectionConf = new SwaggerValidatorConf() {
+            @Override
+            public boolean isParameterValidationEnabled() {
+                return true;
+            }
+        };
+        SwaggerValidatorConf bytecodeConf = new SwaggerValidatorConf() {
+            @Override
+            public ClassIntrospector getClassIntrospector() {
+                return new BytecodeClassIntrospector();
+            }
+
+            @Override
+            public boolean isParameterValidationEnabled() {
+                return true;
+            }
+        };
+        for (SwaggerValidatorConf conf : new SwaggerValidatorConf[]{reflectionConf, bytecodeConf}) {
+            ValidationReport report = new SwaggerValidator(getClass().getResourceAsStream("/parameters.yaml"), conf).validateAll();
+            assertEquals(report.toString(), 5, report.getErrors().size());
+            assertEquals("Path: /accounts: Parameter #/parameters/pageSize is referenced, but not defined.",
+                    report.getErrors().get(0).toString());
+            assertEquals("Path: /accounts: Parameter offset in query of operation get not found in com.kenshoo.swagger.validator.ParameterResource",
+                    report.getErrors().get(1).toString());
+            // reported once, not per operation
+            assertEquals("Path: /accounts/{id}: Parameter #/parameters/account is referenced, but not defined.",
+                    report.getErrors().get(2).toString());
+            assertEquals("Path: /accounts/{id}: Parameter verbose of operation get is declared in header, but annotated in query",
+                    report.getErrors().get(3).toString());
+            // the path parameter is overridden by the get operation only
+            assertEquals("Path: /accounts/{id}: Parameter id of operation post is long. Does not match string",
+                    report.getErrors().get(4).toString());
+        }
+
+        ParameterizedResourceDescriptor descriptor = (ParameterizedResourceDescriptor) bytecodeConf.getClassIntrospector()
+                .createResourceDescriptor(ParameterResource.class.getName());
+        List<ResourceParameter> parameters = descriptor.getParameters("get", "").get(0);
+        assertEquals("[query limit: int, query tag: java.util.List, header X-Request-Id: java.lang.String]", parameters.toString());
+        assertEquals("array", parameters.get(1).getSwaggerType());
+        assertEquals("body: com.kenshoo.swagger.validator.SimpleModel", descriptor.getParameters("post", "/{id}").get(0).get(1).toString());
+
+        Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/parameters.yaml"));
+        ((Map<String, Object>) ((List<Object>) ((Map<String, Object>) ((Map<String, Object>) yaml.get("paths"))
+                .get("/accounts/{id}")).get("parameters")).get(0)).put("type", "boolean");
+        ((Map<String, Object>) ((Map<String, Object>) ((Map<String, Object>) yaml.get("paths")).get("/accounts/{id}")).get("get"))
+                .remove("parameters");
+        ValidationReport typeMismatch = new ValidationReport();
+        new SwaggerValidator(yaml, reflectionConf).validateResources(typeMismatch);
+        assertEquals(typeMismatch.toString(), 5, typeMismatch.getErrors().size());
+        assertEquals("Path: /accounts/{id}: Parameter id of operation get is long. Does not match boolean",
+                typeMismatch.getErrors().get(3).toString());
+        assertEquals(Rule.PARAMETER_TYPE_MISMATCH.getId(), typeMismatch.getErrors().get(4).getRuleId());
+    }
+
+    @Test
+    public void testResponseValidation() throws Exception {
+        SwaggerValidatorConf reflectionConf = new SwaggerValidatorConf() {
+            @Override
+            public boolean isResponseValidationEnabled() {
+                return true;
+            }
+        };
+        SwaggerValidatorConf bytecodeConf = new SwaggerValidatorConf() {
+            @Override
+            public ClassIntrospector getClassIntrospector() {
+                return new BytecodeClassIntrospector();
+            }
+
+            @Override
+            public boolean isResponseValidationEnabled() {
+                return true;
+            }
+        };
+        ValidationReport disabled = new ValidationReport();
+        new SwaggerValidator(getClass().getResourceAsStream("/responses.yaml")).validateResources(disabled);
+        assertTrue(disabled.getErrors().isEmpty());
+
+        for (SwaggerValidatorConf conf : new SwaggerValidatorConf[]{reflectionConf, bytecodeConf}) {
+            ValidationReport report = new ValidationReport();
+            new SwaggerValidator(getClass().getResourceAsStream("/responses.yaml"), conf).validateResources(report);
+            assertEquals(report.toString(), 2, report.getErrors().size());
+            assertEquals("Path: /accounts/{id}: Response 200 of operation get is an array of com.kenshoo.swagger.validator.SimpleModel. "
+                    + "Does not match the return type com.kenshoo.swagger.validator.SimpleModel", report.getErrors().get(0).toString());
+            assertEquals("Path: /accounts/search: Response 206 of operation get is com.kenshoo.swagger.validator.RefSimpleModel. "
+                    + "Does not match the return type java.util.List<com.kenshoo.swagger.validator.SimpleModel>", report.getErrors().get(1).toString());
+        }
+    }
+
+    @Test
+    public void testJsonSpec() throws Exception {
+        Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/no_xjava_definition.yaml"));
+        assertEquals(yaml, SpecReader.read(getClass().getResourceAsStream("/no_xjava_definition.json")));
+        assertEquals(new SwaggerValidator(yaml).validateAll().toString(),
+                new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.json")).validateAll().toString());
+
+        // JSON is YAML, so both parsers must return the same structure
+        String json = "\uFEFF \n{\"a\": 1, \"b\": 12345678901, \"c\": 123456789012345678901, \"d\": 1.5, \"e\": [true, null, \"x\"], \"f\": {}}";
+        Object expected = new Yaml().load(json.substring(1));
+        assertEquals(expected, SpecReader.read(new ByteArrayInputStream(json.getBytes("UTF-8"))));
+        assertEquals(expected.toString(), SpecReader.read(new ByteArrayInputStream(json.getBytes("UTF-8"))).toString());
+
+        // a YAML flow mapping is not JSON
+        assertEquals(new Yaml().load("{a: 1, b: [x]}"), SpecReader.read(new ByteArrayInputStream("{a: 1, b: [x]}".getBytes("UTF-8"))));
+        assertEquals(new Yaml().load("{\"a\": 1} # comment"), SpecReader.read(new ByteArrayInputStream("{\"a\": 1} # comment".getBytes("UTF-8"))));
+        assertEquals(new Yaml().load("{\n  # comment\n  a: 1}"), SpecReader.read(new ByteArrayInputStream("{\n  # comment\n  a: 1}".getBytes("UTF-8"))));
+        assertEquals(Collections.emptyMap(), SpecReader.read(new ByteArrayInputStream("{ }".getBytes("UTF-8"))));
+        try {
+            // a quoted key commits to JSON
+            SpecReader.read(new ByteArrayInputStream("{\"a\": x}".getBytes("UTF-8")));
+            fail();
+        } catch (ValidationException e) {
+            assertEquals("Can't read spec", e.getMessage());
+        }
+
+        File file = File.createTempFile("swagger", ".json");
+        try {
+            Files.copy(getClass().getResourceAsStream("/no_xjava_definition.json"), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            assertEquals(new SwaggerValidator(yaml).validateAll().toString(), new SwaggerValidator(file.toPath()).validateAll().toString());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testEnumValues() throws Exception {
+        ValidationReport report = new ValidationReport();
+        new SwaggerValidator(getClass().getResourceAsStream("/enums.yaml")).validateDefinitions(report);
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic diagnostic : report.getDiagnostics()) {
+            if (diagnostic.getProperty() != null && !diagnostic.getRuleId().equals(Rule.ENUM_NOT_STRING.getId())) {
+                errors.add(diagnostic.toString());
+            }
+        }
+        assertEquals(Arrays.asList(
+                "Definition: em: Property status: Enum value UNKNOWN is not a constant of com.kenshoo.swagger.validator.EnumModel$Status",
+                "Definition: em: Property status: Constant CLOSED of com.kenshoo.swagger.validator.EnumModel$Status is not listed in enum",
+                "Definition: em: Property name: Enum is empty!"), errors);
+        assertEquals(Rule.ENUM_CONSTANT_NOT_LISTED.getId(), report.getDiagnostics().get(2).getRuleId());
+        assertEquals(Severity.WARNING, report.getDiagnostics().get(2).getSeverity());
+
+        assertSame(EnumConstants.get(EnumModel.Color.class), EnumConstants.get(EnumModel.Color.class));
+        assertEquals("[r, g, b]", EnumConstants.get(EnumModel.Color.class).toString());
+    }
+
+    @Test
+    public void testEnumValuesFromBytecode() throws Exception {
+        final BytecodeClassIntrospector introspector = new BytecodeClassIntrospector();
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public ClassIntrospector getClassIntrospector() {
+                return introspector;
+            }
+        };
+        ValidationReport report = new ValidationReport();
+        new SwaggerValidator(getClass().getResourceAsStream("/enums.yaml"), conf).validateDefinitions(report);
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic diagnostic : report.getDiagnostics()) {
+            if (diagnostic.getProperty() != null && !diagnostic.getRuleId().equals(Rule.ENUM_NOT_STRING.getId())) {
+                errors.add(diagnostic.toString());
+            }
+        }
+        assertEquals(Arrays.asList(
+                "Definition: em: Property status: Enum value UNKNOWN is not a constant of com.kenshoo.swagger.validator.EnumModel$Status",
+                "Definition: em: Property status: Constant CLOSED of com.kenshoo.swagger.validator.EnumModel$Status is not listed in enum",
+                "Definition: em: Property color: Values of com.kenshoo.swagger.validator.EnumModel$Color are not checked, as they are serialized by a @JsonValue method",
+                "Definition: em: Property name: Enum is empty!"), errors);
+
+        // read once per enum class
+        String status = EnumModel.Status.class.getName();
+        assertSame(introspector.getEnumConstants(status), introspector.getEnumConstants(status));
+        assertNull(introspector.getEnumConstants(EnumModel.Color.class.getName()));
+    }
+
+    @Test
+    public void testIncrementalValidationHashesEnumTypes() throws Exception {
+        assertRevalidatedOnClassChange("/enums.yaml", EnumModel.Status.class, EnumModel.Color.class);
+    }
+
+    @Test
+    public void testIncrementalValidationHashesNestedTypes() throws Exception {
+        assertRevalidatedOnClassChange("/nested.yaml", SimpleModel.class, RefSimpleModel.class);
+    }
+
+    /**
+     * Validates the single definition of the spec by an index whose class loader serves the bytecode of the replacement
+     * in place of the changed class once it changes
+     */
+    private void assertRevalidatedOnClassChange(String resource, Class<?> changedClass, Class<?> replacement) throws Exception {
+        final String changedResource = changedClass.getName().replace('.', '/') + ".class";
+        final String replacementResource = replacement.getName().replace('.', '/') + ".class";
+        final boolean[] changed = {false};
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                return super.getResourceAsStream(changed[0] && name.equals(changedResource) ? replacementResource : name);
+            }
+        };
+        Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream(resource));
+        ValidationIndex index = ValidationIndex.create(yaml, SwaggerValidatorConf.getDefault(), classLoader);
+        SwaggerValidator swaggerValidator = new SwaggerValidator(yaml, SwaggerValidatorConf.getDefault());
+        swaggerValidator.setEntryCache(index);
+        swaggerValidator.validateDefinitions(new ValidationReport());
+
+        index = index.next(yaml, Collections.<String>emptyList());
+        swaggerValidator.setEntryCache(index);
+        swaggerValidator.validateDefinitions(new ValidationReport());
+        assertEquals(1, index.getRestored());
+
+        changed[0] = true;
+        index = index.next(yaml, Collections.singletonList(changedClass.getName()));
+        swaggerValidator.setEntryCache(index);
+        swaggerValidator.validateDefinitions(new ValidationReport());
+        assertEquals(0, index.getRestored());
+    }
+
+    @Test
+    public void testHistogramMetrics() throws Exception {
+        final HistogramValidationMetrics metrics = new HistogramValidationMetrics(2);
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public ValidationMetrics getValidationMetrics() {
+                return metrics;
+            }
+        };
+        ValidationReport report = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml"), conf).validateAll();
+        assertEquals(1, metrics.getCount(ValidationMetrics.Stage.YAML_PARSE));
+        assertEquals(report.getDiagnostics().size(), metrics.getRuleCount(Rule.JAVA_CLASS_NOT_DEFINED.getId())
+                + metrics.getRuleCount(Rule.UNRECOMMENDED_TYPE.getId()));
+        assertEquals(4, metrics.getEntryCount());
+        assertEquals(2, metrics.getSlowestEntries().size());
+        assertTrue(metrics.getSlowestEntries().get(0).getNanos() >= metrics.getSlowestEntries().get(1).getNanos());
+        assertEquals(2, metrics.getCount(ValidationMetrics.Stage.RULE_EVALUATION));
+        assertTrue(metrics.getCount(ValidationMetrics.Stage.CLASS_LOADING) > 0);
+        assertFalse(Double.isNaN(metrics.getCacheHitRate(ValidationMetrics.Cache.CLASS_METADATA)));
+        assertTrue(metrics.dump().contains(Rule.JAVA_CLASS_NOT_DEFINED.getId()));
+    }
+
+    @Test
+    public void testPayloadValidation() throws Exception {
+        PayloadSchema order = new PayloadValidator(getClass().getResourceAsStream("/payload.yaml")).getSchema("order");
+        PayloadValidationResult result = new PayloadValidationResult();
+        JsonFactory jsonFactory = new JsonFactory();
+
+        String valid = "{\"id\": 1, \"status\": \"OPEN\", \"total\": 9.5, \"paid\": null, \"unknown\": {\"x\": [1]},"
+                + " \"lines\": [{\"sku\": \"a\", \"parent\": {\"sku\": \"b\"}}], \"attributes\": {\"color\": \"red\"}}";
+        assertTrue(order.validate(jsonFactory.createParser(valid), result));
+        assertTrue(result.isValid());
+
+        assertFalse(order.validate(jsonFactory.createParser("{\"id\": \"1\", \"lines\": []}"), result));
+        assertEquals("Definition: order: Property id: Expected integer, but got VALUE_STRING", result.toString());
+
+        assertFalse(order.validate(jsonFactory.createParser("{\"id\": 1, \"status\": \"DONE\", \"lines\": []}"), result));
+        assertEquals("status", result.getProperty());
+
+        assertFalse(order.validate(jsonFactory.createParser("{\"id\": 1, \"lines\": [{\"parent\": {\"quantity\": 2}}]}"), result));
+        assertEquals("Definition: line: Missing required properties [sku]", result.toString());
+
+        assertFalse(order.validate(jsonFactory.createParser("{\"id\": 1, \"lines\": [], \"attributes\": {\"size\": 2}}"), result));
+        assertEquals("attributes.*", result.getProperty());
+
+        assertFalse(order.validate(jsonFactory.createParser("{\"lines\": null}"), result));
+        assertEquals("Missing required properties [id, lines]", result.getMessage());
+
+        assertTrue(order.validate(jsonFactory.createParser("{\"id\": 1, \"priority\": 2, \"lines\": []}"), result));
+        assertFalse(order.validate(jsonFactory.createParser("{\"id\": 1, \"priority\": \"2\", \"lines\": []}"), result));
+        assertEquals("Definition: order: Property priority: Expected one of [1, 2], but got VALUE_STRING", result.toString());
+
+        String deep = Strings.repeat("{\"sku\": \"a\", \"parent\": ", PayloadNode.MAX_DEPTH) + "null" + Strings.repeat("}", PayloadNode.MAX_DEPTH);
+        assertFalse(order.validate(jsonFactory.createParser("{\"id\": 1, \"lines\": [" + deep + "]}"), result));
+        assertEquals("Definition: line: Nested deeper than 1000 arrays and objects", result.toString());
+    }
+
+    @Test
+    public void testDefinitionGraph() throws Exception {
+        Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/reference_graph.yaml"));
+        DefinitionGraph graph = new DefinitionGraph((Map<String, Object>) yaml.get("definitions"), (Map<String, Object>) yaml.get("paths"), null, null);
+        assertEquals(Arrays.asList("tag", "parent", "child", "unused"), graph.getOrder());
+        assertEquals(Collections.singletonList(Arrays.asList("parent", "child")), graph.getCycles());
+        assertEquals(Collections.singletonList("unused"), graph.getUnreachable());
+        assertEquals(Collections.singleton("missing"), graph.getUndefinedReferences());
+
+        ValidationReport report = new SwaggerValidator(yaml).validateAll();
+        List<Diagnostic> warnings = report.getWarnings();
+        assertEquals("Definition: parent: Is part of a reference cycle: [parent, child]", warnings.get(warnings.size() - 2).toString());
+        assertEquals(Rule.UNREACHABLE_DEFINITION.getId(), warnings.get(warnings.size() - 1).getRuleId());
+        assertEquals("Definition: missing: Referenced, but not defined.", report.getErrors().get(report.getErrors().size() - 1).toString());
+    }
+
+    @Test
+    public void testDefinitionGraphFollowsParametersAndResponses() throws Exception {
+        Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(
+                "paths:\n" +
+                "  /test:\n" +
+                "    get:\n" +
+                "      parameters: [{$ref: '#/parameters/body'}]\n" +
+                "      responses: {'200': {$ref: '#/responses/found'}}\n" +
+                "parameters:\n" +
+                "  body: {name: body, in: body, schema: {$ref: '#/definitions/fromParameter'}}\n" +
+                "  other: {name: other, in: body, schema: {$ref: '#/definitions/unused'}}\n" +
+                "responses:\n" +
+                "  found: {description: Found, schema: {$ref: '#/definitions/fromResponse'}}\n" +
+                "definitions:\n" +
+                "  fromParameter: {properties: {tag: {$ref: '#/definitions/tag'}}}\n" +
+                "  fromResponse: {}\n" +
+                "  tag: {}\n" +
+                "  unused: {}\n");
+        DefinitionGraph graph = new DefinitionGraph((Map<String, Object>) yaml.get("definitions"), (Map<String, Object>) yaml.get("paths"),
+                (Map<String, Object>) yaml.get("parameters"), (Map<String, Object>) yaml.get("responses"));
+        assertEquals(Collections.singletonList("unused"), graph.getUnreachable());
+
+        List<String> unreachable = new ArrayList<>();
+        for (Diagnostic warning : new SwaggerValidator(yaml).validateAll().getWarnings()) {
+            if (warning.getRuleId().equals(Rule.UNREACHABLE_DEFINITION.getId())) {
+                unreachable.add(warning.getDefinition());
+            }
+        }
+        assertEquals(Collections.singletonList("unused"), unreachable);
+    }
+
+    @Test
+    public void testValidationPlanFollowsConf() throws Exception {
+        ValidationPlan plan = ValidationPlan.compile(SwaggerValidatorConf.getDefault());
+        List<ValidationPlan.PropertyValidatorFactory> factories = plan.getPropertyValidatorFactories();
+        assertEquals(3, factories.size());
+        assertEquals("$ref", factories.get(0).getKey());
+        assertEquals("enum", factories.get(1).getKey());
+        assertEquals("type", factories.get(2).getKey());
+    }
+
+    @Test
+    public void testIncrementalValidationSkipsUnchangedEntries() throws Exception {
+        File index = File.createTempFile("swagger-validator", ".index");
+        index.delete();
+        try {
+            IncrementalSwaggerValidator first = new IncrementalSwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml"), SwaggerValidatorConf.getDefault(), index);
+            ValidationReport full = first.validateAll();
+            assertEquals(0, first.getSkippedEntries());
+
+            IncrementalSwaggerValidator second = new IncrementalSwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml"), SwaggerValidatorConf.getDefault(), index);
+            ValidationReport incremental = second.validateAll();
+            assertEquals(4, second.getSkippedEntries());
+            assertEquals(full.toString(), incremental.toString());
+
+            Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/no_xjava_definition.yaml"));
+            Map<String, Object> definitions = (Map<String, Object>) yaml.get("definitions");
+            ((Map<String, Object>) definitions.get("errorModel")).put("description", "changed");
+            IncrementalSwaggerValidator changed = new IncrementalSwaggerValidator(yaml, SwaggerValidatorConf.getDefault(), index);
+            changed.validateAll();
+            // errorModel and /test, which references it, are validated again
+            assertEquals(2, changed.getSkippedEntries());
+
+            IncrementalSwaggerValidator otherConf = new IncrementalSwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml"), parallelConf(), index);
+            otherConf.validateAll();
+            assertEquals(0, otherConf.getSkippedEntries());
+        } finally {
+            index.delete();
+        }
+    }
+
+    @Test
+    public void testIncrementalValidationKeepsArgumentTypes() throws Exception {
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public List<Class<? extends InnerPropertyValidator>> getMutualExclusionPropertyValidators() {
+                return Arrays.<Class<? extends InnerPropertyValidator>>asList(RefPropertyValidator.class, TypedArgumentsValidator.class);
+            }
+        };
+        File index = File.createTempFile("swagger-validator", ".index");
+        index.delete();
+        try {
+            ValidationReport full = new IncrementalSwaggerValidator(getClass().getResourceAsStream("/valid.yaml"), conf, index).validateAll();
+            IncrementalSwaggerValidator second = new IncrementalSwaggerValidator(getClass().getResourceAsStream("/valid.yaml"), conf, index);
+            ValidationReport incremental = second.validateAll();
+            assertTrue(second.getSkippedEntries() > 0);
+            assertFalse(full.getWarnings().isEmpty());
+            assertEquals(full.toString(), incremental.toString());
+            for (int i = 0; i < full.getWarnings().size(); i++) {
+                assertEquals(full.getWarnings().get(i).getArguments(), incremental.getWarnings().get(i).getArguments());
+            }
+        } finally {
+            index.delete();
+        }
+    }
+
+    /**
+     * Reports a warning with typed arguments for each property with a type
+     */
+    @SinglePropValidator("type")
+    public static class TypedArgumentsValidator extends InnerPropertyValidator {
+
+        public TypedArgumentsValidator(PropertyValidator parent, Object type) {
+            super(parent);
+        }
+
+        @Override
+        public void validate() {
+            handleWarning("{0} {1,number} {2,number,#.#} {3} {4,date,yyyy-MM-dd}", 1000, 12345678901L, 1.5,
+                    new BigInteger("123456789012345678901"), new Date(0));
+        }
+    }
+
+    @Test
+    public void testBatchValidationDedupesIdenticalEntries() throws Exception {
+        File dir = Files.createTempDirectory("swagger-batch").toFile();
+        File first = new File(dir, "first.yaml");
+        File second = new File(new File(dir, "nested"), "second.yml");
+        File third = new File(new File(dir, "nested"), "third.json");
+        File empty = new File(dir, "empty.yaml");
+        second.getParentFile().mkdir();
+        try {
+            Files.copy(getClass().getResourceAsStream("/no_xjava_definition.yaml"), first.toPath());
+            Files.copy(getClass().getResourceAsStream("/no_xjava_definition.yaml"), second.toPath());
+            Files.copy(getClass().getResourceAsStream("/no_xjava_definition.json"), third.toPath());
+            empty.createNewFile();
+
+            SwaggerBatchValidator batchValidator = new SwaggerBatchValidator(Arrays.asList(dir.getPath()), SwaggerValidatorConf.getDefault(), 1);
+            assertEquals(Arrays.asList(empty, first, second, third), batchValidator.getSpecs());
+            BatchValidationReport report = batchValidator.validateAll();
+
+            String expected = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml")).validateAll().toString();
+            assertEquals(expected, report.getReport(first).toString());
+            assertEquals(expected, report.getReport(second).toString());
+            assertEquals(expected, report.getReport(third).toString());
+            assertEquals(8, report.getDeduplicatedEntries());
+            assertNull(report.getReport(empty));
+            assertTrue(report.getFailure(empty) instanceof ValidationException);
+            assertTrue(report.hasErrors());
+
+            assertEquals(Arrays.asList(empty, first), new SwaggerBatchValidator(Arrays.asList(dir.getPath() + "/*.yaml")).getSpecs());
+        } finally {
+            first.delete();
+            second.delete();
+            third.delete();
+            second.getParentFile().delete();
+            empty.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testBatchValidationResolvesReferencesPerSpec() throws Exception {
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public boolean isParameterValidationEnabled() {
+                return true;
+            }
+        };
+        File dir = Files.createTempDirectory("swagger-batch").toFile();
+        File first = new File(dir, "first.yaml");
+        File second = new File(dir, "second.yaml");
+        try {
+            Files.copy(getClass().getResourceAsStream("/parameters.yaml"), first.toPath());
+            // the same paths, but the shared parameter is in the query
+            Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/parameters.yaml"));
+            ((Map<String, Object>) ((Map<String, Object>) yaml.get("parameters")).get("requestId")).put("in", "query");
+            Files.write(second.toPath(), new Yaml().dump(yaml).getBytes("UTF-8"));
+
+            BatchValidationReport report = new SwaggerBatchValidator(Arrays.asList(first.getPath(), second.getPath()), conf, 1).validateAll();
+            assertEquals(new SwaggerValidator(first.toPath(), conf).validateAll().toString(), report.getReport(first).toString());
+            assertEquals(new SwaggerValidator(second.toPath(), conf).validateAll().toString(), report.getReport(second).toString());
+            assertEquals(report.getReport(first).getErrors().size() + 1, report.getReport(second).getErrors().size());
+        } finally {
+            first.delete();
+            second.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testBatchValidationResolvesResponseDefinitionsPerSpec() throws Exception {
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public boolean isResponseValidationEnabled() {
+                return true;
+            }
+        };
+        File dir = Files.createTempDirectory("swagger-batch").toFile();
+        File first = new File(dir, "first.yaml");
+        File second = new File(dir, "second.yaml");
+        try {
+            Files.copy(getClass().getResourceAsStream("/responses.yaml"), first.toPath());
+            // the same paths, but the referenced definition maps to another class
+            Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/responses.yaml"));
+            ((Map<String, Object>) ((Map<String, Object>) yaml.get("definitions")).get("sm")).put(SwaggerValidator.JAVA_CLASS_TAG, RefSimpleModel.class.getName());
+            Files.write(second.toPath(), new Yaml().dump(yaml).getBytes("UTF-8"));
+
+            BatchValidationReport report = new SwaggerBatchValidator(Arrays.asList(first.getPath(), second.getPath()), conf, 1).validateAll();
+            assertEquals(new SwaggerValidator(first.toPath(), conf).validateAll().toString(), report.getReport(first).toString());
+            assertEquals(new SwaggerValidator(second.toPath(), conf).validateAll().toString(), report.getReport(second).toString());
+            assertFalse(report.getReport(first).toString().contains("Response 200 of operation get is com.kenshoo.swagger.validator.RefSimpleModel"));
+            assertTrue(report.getReport(second).toString().contains("Response 200 of operation get is com.kenshoo.swagger.validator.RefSimpleModel"));
+        } finally {
+            first.delete();
+            second.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testBeanPropertyDescriptor() throws Exception {
+        BeanPropertyDescriptor descriptor = BeanPropertyDescriptor.forClass(BeanModel.class);
+        assertSame(descriptor, BeanPropertyDescriptor.forClass(BeanModel.class));
+
+        assertEquals(String.class, descriptor.getType("display_name"));
+        assertNull(descriptor.getType("displayName"));
+        assertNull(descriptor.getType("secret"));
+        assertNull(descriptor.getType("internal"));
+        assertEquals(int.class, descriptor.getType("total"));
+        assertEquals(String.class, descriptor.getType("url"));
+        assertEquals(boolean.class, descriptor.getType("active"));
+        assertEquals(String.class, descriptor.getType("description"));
+
+        assertEquals(SimpleModel.class, descriptor.getType("first"));
+        assertEquals(List.class, descriptor.getType("items"));
+        assertEquals(SimpleModel.class, descriptor.getElementType("items"));
+        assertEquals(SimpleModel.class, descriptor.getElementType("related"));
+        assertNull(descriptor.getElementType("total"));
+    }
+
+    @Test
+    public void testNestedItemsAndProperties() throws Exception {
+        ValidationReport report = new SwaggerValidator(getClass().getResourceAsStream("/nested.yaml")).validateAll();
+        List<String> diagnostics = new ArrayList<>();
+        for (Diagnostic diagnostic : report.getDiagnostics()) {
+            if (diagnostic.getProperty() != null) {
+                diagnostics.add(diagnostic.getProperty() + ": " + diagnostic.getRuleId());
+            }
+        }
+        assertEquals(Arrays.asList(
+                "models[].missing: property-not-found",
+                "array[]: unvalidated-type",
+                "simple: object-type-mismatch",
+                "simple.i: unrecommended-type"),
+                diagnostics);
+
+        Map<String, Object> parent = ImmutableMap.<String, Object>of("type", "object");
+        for (int i = 0; i < PropertyValidator.MAX_NESTING_DEPTH + 5; i++) {
+            parent = ImmutableMap.<String, Object>of("type", "object", "properties", ImmutableMap.of("parent", parent));
+        }
+        Map<String, Object> yaml = ImmutableMap.<String, Object>of("paths", ImmutableMap.of(), "definitions", ImmutableMap.of("nested", ImmutableMap.of(
+                "x-javaClass", NestedModel.class.getName(), "properties", ImmutableMap.of("parent", parent))));
+        report = new SwaggerValidator(yaml).validateAll();
+        assertEquals(1, report.getErrors().size());
+        assertEquals("parent" + Strings.repeat(".parent", PropertyValidator.MAX_NESTING_DEPTH), report.getErrors().get(0).getProperty());
+        assertEquals(Rule.NESTING_TOO_DEEP.getId(), report.getErrors().get(0).getRuleId());
+    }
+
+    @Test
+    public void testMessageTemplatesAndDiagnosticSink() throws Exception {
+        for (Rule rule : Rule.values()) {
+            Object[] arguments = {"a", null, 7};
+            assertEquals(MessageFormat.format(rule.getPattern(), arguments), MessageTemplate.of(rule.getPattern()).render(arguments));
+        }
+        for (String pattern : new String[]{"It''s {0}", "'{0}' is {1}", "{1} of {0} {2}", "a } b"}) {
+            assertEquals(pattern, MessageFormat.format(pattern, "x", 1.5), MessageTemplate.of(pattern).render("x", 1.5));
+            assertEquals(pattern, MessageFormat.format(pattern, "x", "y"), MessageTemplate.of(pattern).render("x", "y"));
+        }
+        assertEquals("1.5 x", MessageTemplate.of("{1,number,#.#} {0}").render("x", 1.5));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PrintStreamDiagnosticSink sink = new PrintStreamDiagnosticSink(new PrintStream(out, false, "UTF-8"));
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public DiagnosticSink getDiagnosticSink() {
+                return sink;
+            }
+        };
+        new SwaggerValidator(getClass().getResourceAsStream("/valid.yaml"), conf).validateDefinitions();
+        assertEquals("Definition: sm: Property i: Unrecommended type: java.lang.Integer. Prefer using String." + System.getProperty("line.separator"),
+                out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testPreloadClasses() throws Exception {
+        final Set<String> introspected = Collections.synchronizedSet(new TreeSet<String>());
+        final ClassIntrospector introspector = new ReflectionClassIntrospector(SwaggerValidatorConf.getDefault()) {
+            @Override
+            public PropertyDescriptor createPropertyDescriptor(String className) throws ClassNotFoundException {
+                introspected.add(className);
+                return super.createPropertyDescriptor(className);
+            }
+        };
+        ClassPreloader.preload((Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/nested.yaml")), introspector, 4);
+        assertEquals(new TreeSet<>(Arrays.asList(NestedModel.class.getName(), SimpleModel.class.getName(), RefSimpleModel.class.getName())),
+                introspected);
+
+        SwaggerValidatorConf conf = new SwaggerValidatorConf() {
+            @Override
+            public int getPreloadParallelism() {
+                return 4;
+            }
+        };
+        for (String yaml : new String[]{"/valid.yaml", "/no_xjava_definition.yaml", "/nested.yaml"}) {
+            ValidationReport expected = new SwaggerValidator(getClass().getResourceAsStream(yaml)).validateAll();
+            ValidationReport preloaded = new SwaggerValidator(getClass().getResourceAsStream(yaml), conf).validateAll();
+            assertEquals(yaml, expected.toString(), preloaded.toString());
+        }
+    }
+
+    @Test
+    public void testCoverageScanner() throws Exception {
+        File classes = new File(SimpleResource.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        CoverageScanner scanner = new CoverageScanner(Arrays.asList(classes), 2);
+
+        ValidationReport report = scanner.scan(getClass().getResourceAsStream("/valid.yaml"));
+        assertEquals("WARNING Path: /items: Resource com.kenshoo.swagger.validator.ItemResource is not documented by any path\n"
+                + "WARNING Path: /accounts: Resource com.kenshoo.swagger.validator.ParameterResource is not documented by any path\n"
+                + "WARNING Path: /test: Operation post of com.kenshoo.swagger.validator.SimpleResource is not documented\n",
+                report.toString());
+
+        // refModel has no x-javaClass, RefSimpleModel is reached through the field SimpleModel.e
+        report = scanner.scan(getClass().getResourceAsStream("/no_xjava_definition.yaml"));
+        Diagnostic undocumented = report.getDiagnostics().get(report.getDiagnostics().size() - 1);
+        assertEquals(Rule.UNDOCUMENTED_CLASS.getId(), undocumented.getRuleId());
+        assertEquals(RefSimpleModel.class.getName(), undocumented.getDefinition());
+    }
+
+    @Test
+    public void testSpecSnapshot() throws Exception {
+        File file = File.createTempFile("swagger-validator", ".snapshot");
+        try {
+            Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/no_xjava_definition.yaml"));
+            SpecSnapshot.write(yaml, file);
+            SpecSnapshot snapshot = SpecSnapshot.open(file);
+            assertEquals(yaml, snapshot.getYaml());
+            assertEquals(yaml.toString(), snapshot.getYaml().toString());
+            assertNull(snapshot.getYaml().get("missing"));
+
+            String expected = new SwaggerValidator(yaml).validateAll().toString();
+            assertEquals(expected, new SwaggerValidator(snapshot).validateAll().toString());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testWatcherRevalidatesChangedEntries() throws Exception {
+        File dir = Files.createTempDirectory("swagger-watch").toFile();
+        File spec = new File(dir, "swagger.yaml");
+        Files.copy(getClass().getResourceAsStream("/no_xjava_definition.yaml"), spec.toPath());
+        SwaggerWatcher watcher = new SwaggerWatcher(spec, Collections.<File>emptyList(), SwaggerValidatorConf.getDefault(), null);
+        try {
+            String expected = new SwaggerValidator(getClass().getResourceAsStream("/no_xjava_definition.yaml")).validateAll().toString();
+            assertEquals(expected, watcher.validate().toString());
+            assertEquals(0, watcher.getSkippedEntries());
+
+            Map<String, Object> yaml = (Map<String, Object>) new Yaml().load(getClass().getResourceAsStream("/no_xjava_definition.yaml"));
+            ((Map<String, Object>) ((Map<String, Object>) yaml.get("definitions")).get("errorModel")).put("description", "changed");
+            Files.write(spec.toPath(), new Yaml().dump(yaml).getBytes("UTF-8"));
+            watcher.changed(spec.toPath().toAbsolutePath());
+            assertEquals(expected, watcher.validate().toString());
+            // errorModel and /test, which references it, are validated again
+            assertEquals(2, watcher.getSkippedEntries());
+
+            watcher.changed(new File(dir, "Unrelated.class").toPath());
+            assertEquals(expected, watcher.validate().toString());
+            assertEquals(4, watcher.getSkippedEntries());
+        } finally {
+            watcher.close();
+            spec.delete();
+            dir.delete();
+        }
+    }
+
+    private static SwaggerValidatorConf parallelConf() {
+        return new SwaggerValidatorConf() {
+            @Override
+            public ForkJoinPool getForkJoinPool() {
+                return pool;
+            }
+        };
+    }
 
 }